@@ -0,0 +1,35 @@
+package com.pageobject.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH with the given arguments and writes the results as JSON to
+ * {@value #DEFAULT_RESULT_FILE} unless the result format or file is given.
+ * Keep the file of a reference run to compare later runs with it.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class BenchmarkMain {
+
+	/**
+	 * Result file used when no -rff argument is given.
+	 */
+	public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+	public static void main(String[] args) throws Exception {
+		List<String> arguments = new ArrayList<String>(Arrays.asList(args));
+		if (!arguments.contains("-rf")) {
+			arguments.add("-rf");
+			arguments.add("json");
+		}
+		if (!arguments.contains("-rff")) {
+			arguments.add("-rff");
+			arguments.add(DEFAULT_RESULT_FILE);
+		}
+		org.openjdk.jmh.Main.main(arguments.toArray(new String[arguments.size()]));
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.pageobject.benchmarks;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pageobject.util.DefaultFormattingService;
+import com.pageobject.util.FormattingService;
+
+/**
+ * Formatting and parsing of dates and numbers by
+ * {@link DefaultFormattingService}. The uncached benchmark creates the number
+ * format on every call the way the service did before formats were cached.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FormattingBenchmark {
+
+	private FormattingService formattingService;
+	private Date date;
+	private Double number;
+
+	@Setup
+	public void setUp() {
+		formattingService = new DefaultFormattingService();
+		date = formattingService.parseDate("17.10.2013");
+		number = 1234567.89;
+	}
+
+	@Benchmark
+	public String formatDate() {
+		return formattingService.formatDate(date);
+	}
+
+	@Benchmark
+	public Date parseDate() {
+		return formattingService.parseDate("17.10.2013");
+	}
+
+	@Benchmark
+	public String formatNumber() {
+		return formattingService.formatNumber(number);
+	}
+
+	@Benchmark
+	public Number parseNumber() {
+		return formattingService.parseNumber("1 234 567,89");
+	}
+
+	/**
+	 * Number format created for every call.
+	 */
+	@Benchmark
+	public String formatNumberUncached() {
+		DecimalFormat numberFormat = new DecimalFormat(".00");
+		DecimalFormatSymbols decimalFormatSymbols = numberFormat.getDecimalFormatSymbols();
+		decimalFormatSymbols.setDecimalSeparator(',');
+		numberFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+		return numberFormat.format(number);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.pageobject.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pageobject.controller.CompiledLocator;
+import com.pageobject.controller.LocatorCache;
+
+/**
+ * Parsing of string locators done by the browser before every call, see
+ * {@link LocatorCache}. Compares parsing every time with a cache hit.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LocatorBenchmark {
+
+	@Param({ "id=search", "name=q", "css=div.results > a", "xpath=//table/tbody/tr[12]/td[3]", "submit" })
+	public String locator;
+
+	private LocatorCache cache;
+
+	@Setup
+	public void setUp() {
+		cache = new LocatorCache();
+		cache.compile(locator);
+	}
+
+	/**
+	 * Parses the locator and creates its By.
+	 */
+	@Benchmark
+	public CompiledLocator compile() {
+		return CompiledLocator.compile(locator);
+	}
+
+	/**
+	 * Returns the locator parsed before.
+	 */
+	@Benchmark
+	public CompiledLocator cached() {
+		return cache.compile(locator);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.pageobject.benchmarks;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import com.pageobject.benchmarks.pages.DetailPage;
+import com.pageobject.benchmarks.pages.HomePage;
+import com.pageobject.component.Component;
+import com.pageobject.component.ComponentScopeResolver;
+
+/**
+ * Cost of {@link com.pageobject.component.AbstractPage#navigateTo(Class, Object...)}:
+ * creation of the prototype page bean by Spring, its initialization and the
+ * page validity check. The pages are scanned the same way as in a test
+ * context.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NavigateToBenchmark {
+
+	private GenericApplicationContext context;
+	private HomePage home;
+
+	@Setup
+	public void setUp() {
+		StubBrowserController browser = new StubBrowserController();
+		browser.setTitle(HomePage.TITLE);
+		Weaving.configure(browser);
+
+		context = new GenericApplicationContext();
+		context.getBeanFactory().registerSingleton("browserController", browser);
+		Properties properties = new Properties();
+		properties.setProperty("webapp.context", "");
+		properties.setProperty("webapp.url", "http://localhost");
+		PropertySourcesPlaceholderConfigurer configurer = new PropertySourcesPlaceholderConfigurer();
+		configurer.setProperties(properties);
+		context.addBeanFactoryPostProcessor(configurer);
+		AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+		ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(context, false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Component.class));
+		scanner.setScopeMetadataResolver(new ComponentScopeResolver());
+		scanner.scan(HomePage.class.getPackage().getName());
+		context.refresh();
+
+		home = context.getBean(HomePage.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	/**
+	 * Prototype page bean created by Spring alone.
+	 */
+	@Benchmark
+	public DetailPage getBean() {
+		return context.getBean(DetailPage.class);
+	}
+
+	/**
+	 * Page method navigating to another page.
+	 */
+	@Benchmark
+	public DetailPage navigateTo() {
+		return home.openDetail();
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.pageobject.benchmarks;
+
+import com.pageobject.benchmarks.pages.HomePage;
+import com.pageobject.benchmarks.pages.ResultPage;
+import com.pageobject.benchmarks.pages.SearchPage;
+import com.pageobject.component.AbstractPage;
+
+/**
+ * Loads the benchmark pages and calls a method of each of them. Run it by
+ * <code>time java -cp target/benchmarks.jar com.pageobject.benchmarks.StartupMain</code>
+ * with and without the AspectJ agent to compare start up of the JVM.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class StartupMain {
+
+	public static void main(String[] args) {
+		System.out.println("Weaving: " + Weaving.getMode() + ", headings: " + loadPages());
+	}
+
+	/**
+	 * @return number of pages which returned their heading
+	 */
+	public static int loadPages() {
+		StubBrowserController browser = new StubBrowserController();
+		Weaving.configure(browser);
+
+		AbstractPage[] pages = { new HomePage(), new SearchPage(), new ResultPage() };
+		String[] titles = { HomePage.TITLE, SearchPage.TITLE, ResultPage.TITLE };
+		int headings = 0;
+		for (int i = 0; i < pages.length; i++) {
+			browser.setTitle(titles[i]);
+			browser.setText(HomePage.HEADING, titles[i]);
+			browser.navigate();
+			pages[i].setBrowserController(browser);
+			if (pages[i].getText(HomePage.HEADING) != null) {
+				headings++;
+			}
+		}
+		return headings;
+	}
+
+}
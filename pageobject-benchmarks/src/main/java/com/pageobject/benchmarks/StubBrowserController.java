@@ -0,0 +1,269 @@
+package com.pageobject.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.pageobject.controller.BatchReadRequest;
+import com.pageobject.controller.BatchReadResult;
+import com.pageobject.controller.BrowserController;
+import com.pageobject.controller.FormData;
+import com.pageobject.controller.TextScope;
+
+/**
+ * BrowserController answering from memory without any browser, so the
+ * benchmarks measure the framework and not the browser. Texts and values of
+ * elements are set up by {@link #setText(String, String)}, every other
+ * element is missing. Methods which would navigate only change the navigation
+ * epoch.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class StubBrowserController implements BrowserController {
+
+	private final Map<String, String> texts = new HashMap<String, String>();
+
+	private final Map<String, Integer> counts = new HashMap<String, Integer>();
+
+	private String title = "Stub";
+
+	private long timeout = 30000;
+
+	private long navigationEpoch;
+
+	/**
+	 * Sets the text and value of the element.
+	 */
+	public void setText(String locator, String text) {
+		texts.put(locator, text);
+	}
+
+	/**
+	 * Sets the number of elements matching the locator, by default 1 for
+	 * elements with a text and 0 for the others.
+	 */
+	public void setElementCount(String locator, int count) {
+		counts.put(locator, count);
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	/**
+	 * Simulates navigation to another document.
+	 */
+	public void navigate() {
+		navigationEpoch++;
+	}
+
+	public void setTimeout(long milliseconds) {
+		this.timeout = milliseconds;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public void type(String locator, String value) {
+		String text = texts.get(locator);
+		texts.put(locator, text == null ? value : text + value);
+	}
+
+	public void clear(String locator) {
+		texts.put(locator, "");
+	}
+
+	public void click(String locator) {
+		navigate();
+	}
+
+	public void select(String locator, String option) {
+		texts.put(locator, option.substring(option.indexOf('=') + 1));
+	}
+
+	public void fillForm(FormData form) {
+		for (FormData.Field field : form.getFields()) {
+			if (field.getAction() == FormData.Action.SELECT) {
+				select(field.getLocator(), field.getValue());
+			} else {
+				type(field.getLocator(), field.getValue());
+			}
+		}
+	}
+
+	public void open(String url) {
+		navigate();
+	}
+
+	public void openAndSelectWindow(String url) {
+		navigate();
+	}
+
+	public void closePage() {
+		navigate();
+	}
+
+	public void closeAllBut(String windowIdentifier) {
+		navigate();
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String[] getAllWindowTitles() {
+		return new String[] { title };
+	}
+
+	public String[] getAllWindowNames() {
+		return new String[] { "" };
+	}
+
+	public boolean isWindowOpened(String windowIdentifier) {
+		return true;
+	}
+
+	public void waitUntilWindowIsPresent(String windowIdentifier) {
+	}
+
+	public void selectWindow(String windowIdentifier) {
+		navigate();
+	}
+
+	public void selectWindowByTitle(String title) {
+		navigate();
+	}
+
+	public void selectWindowByName(String name) {
+		navigate();
+	}
+
+	public void maximizeWindow() {
+	}
+
+	public String getElementValue(String locator) {
+		return texts.get(locator);
+	}
+
+	public String getElementAttribute(String locator, String attributeName) {
+		return texts.get(locator);
+	}
+
+	public String getSelectedValue(String locator) {
+		return texts.get(locator);
+	}
+
+	public String getSelectedLabel(String locator) {
+		return texts.get(locator);
+	}
+
+	public String[] getSelectedValues(String locator) {
+		return new String[] { texts.get(locator) };
+	}
+
+	public String[] getSelectedLabels(String locator) {
+		return new String[] { texts.get(locator) };
+	}
+
+	public String getText(String locator) {
+		return texts.get(locator);
+	}
+
+	public BatchReadResult read(BatchReadRequest request) {
+		String[] values = new String[request.size()];
+		boolean[] found = new boolean[request.size()];
+		for (int i = 0; i < values.length; i++) {
+			String locator = request.getEntries().get(i).getLocator();
+			values[i] = texts.get(locator);
+			found[i] = texts.containsKey(locator);
+		}
+		return new BatchReadResult(request, values, found);
+	}
+
+	public boolean isTextPresent(String text) {
+		return isTextPresent(text, TextScope.VISIBLE);
+	}
+
+	public boolean isTextPresent(String text, TextScope scope) {
+		return countTextOccurrences(scope, text)[0] > 0;
+	}
+
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		int[] counts = new int[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			counts[i] = this.texts.containsValue(texts[i]) ? 1 : 0;
+		}
+		return counts;
+	}
+
+	public boolean isElementPresent(String locator) {
+		return texts.containsKey(locator);
+	}
+
+	public boolean isElementEnabled(String locator) {
+		return texts.containsKey(locator);
+	}
+
+	public int getElementCount(String locator) {
+		Integer count = counts.get(locator);
+		if (count != null) {
+			return count;
+		}
+		return texts.containsKey(locator) ? 1 : 0;
+	}
+
+	public void captureScreenshot(String screenshotPath) {
+	}
+
+	public String getPageState() {
+		return "complete";
+	}
+
+	public boolean isPageLoaded() {
+		return true;
+	}
+
+	public void waitForPageToLoad(long timeout) {
+	}
+
+	public void waitForElementPresent(String locator, long timeout) {
+	}
+
+	public void waitUntil(String script, long timeout) {
+	}
+
+	public void waitFor(long time) {
+	}
+
+	public Object executeScript(String script) {
+		navigate();
+		return null;
+	}
+
+	public Object evaluateScript(String script, Object... args) {
+		throw new UnsupportedOperationException("Stub browser does not run scripts.");
+	}
+
+	public String getCurrentUrl() {
+		return "about:blank";
+	}
+
+	public String getPageSource() {
+		return "<html><head><title>" + title + "</title></head><body>" + Arrays.toString(texts.values().toArray())
+				+ "</body></html>";
+	}
+
+	public void refresh() {
+		navigate();
+	}
+
+	public void deleteAllCookies() {
+	}
+
+	public long getNavigationEpoch() {
+		return navigationEpoch;
+	}
+
+}
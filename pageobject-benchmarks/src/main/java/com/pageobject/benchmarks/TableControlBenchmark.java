@@ -0,0 +1,166 @@
+package com.pageobject.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pageobject.util.RowCriteria;
+import com.pageobject.util.TableControl;
+import com.pageobject.util.TableIndex;
+import com.pageobject.util.TableRow;
+import com.pageobject.util.TableSnapshot;
+
+/**
+ * Framework overhead of {@link TableControl} on a table held by
+ * {@link StubBrowserController}. The cell by cell benchmarks measure the
+ * building of row and cell locators, the snapshot benchmarks reading the
+ * table from snapshots created in memory, with and without the page cache.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TableControlBenchmark {
+
+	private static final String[] HEADERS = { "Id", "Name", "State", "Amount", "Date" };
+
+	private static final String[] STATES = { "OPEN", "CLOSED", "PENDING" };
+
+	@Param({ "100", "1000" })
+	public int rows;
+
+	private TableControl cellTable;
+	private TableControl cellTableCached;
+	private TableControl snapshotTable;
+	private TableControl snapshotTableCached;
+	private String lastRowName;
+
+	@Setup
+	public void setUp() {
+		StubBrowserController browser = new StubBrowserController();
+		List<List<String>> cells = new ArrayList<List<String>>(rows);
+		for (int r = 1; r <= rows; r++) {
+			cells.add(Arrays.asList(String.valueOf(r), "Name " + r, STATES[r % STATES.length], (r * 7) + ",50",
+					String.format("%02d.%02d.2013", 1 + r % 28, 1 + r % 12)));
+		}
+		for (int c = 1; c <= HEADERS.length; c++) {
+			browser.setText("xpath=//table/thead/tr/th[" + c + "]", HEADERS[c - 1]);
+		}
+		for (int r = 1; r <= rows; r++) {
+			for (int c = 1; c <= HEADERS.length; c++) {
+				browser.setText("xpath=//table/tbody/tr[" + r + "]/td[" + c + "]", cells.get(r - 1).get(c - 1));
+			}
+		}
+		browser.setElementCount("xpath=//table/tbody/tr", rows);
+		lastRowName = "Name " + rows;
+
+		cellTable = createTable(new TableControl(), browser, 0);
+		cellTable.setSnapshotEnabled(false);
+		cellTableCached = createTable(new TableControl(), browser, 20);
+		cellTableCached.setSnapshotEnabled(false);
+		snapshotTable = createTable(new SnapshotTableControl(cells), browser, 0);
+		snapshotTableCached = createTable(new SnapshotTableControl(cells), browser, 20);
+	}
+
+	private static TableControl createTable(TableControl table, StubBrowserController browser, int cachePages) {
+		table.setBrowserController(browser);
+		table.setCachePages(cachePages);
+		return table;
+	}
+
+	/**
+	 * One row read cell by cell, builds a locator for every cell.
+	 */
+	@Benchmark
+	public TableRow cellByCellRow() {
+		return cellTable.getRow(rows / 2);
+	}
+
+	/**
+	 * Column found by header texts read cell by cell for every call.
+	 */
+	@Benchmark
+	public Integer cellByCellFindColumn() {
+		return cellTable.findColumn("Date");
+	}
+
+	/**
+	 * Column found by header texts read once.
+	 */
+	@Benchmark
+	public Integer cellByCellFindColumnCached() {
+		return cellTableCached.findColumn("Date");
+	}
+
+	/**
+	 * All rows read from a snapshot created for every call.
+	 */
+	@Benchmark
+	public List<TableRow> snapshotAllRows() {
+		return snapshotTable.getAllRows();
+	}
+
+	/**
+	 * All rows returned from the page cache.
+	 */
+	@Benchmark
+	public List<TableRow> snapshotAllRowsCached() {
+		return snapshotTableCached.getAllRows();
+	}
+
+	/**
+	 * The last row found in a cached snapshot.
+	 */
+	@Benchmark
+	public Integer snapshotFindRowCached() {
+		return snapshotTableCached.findRow(new RowCriteria().column("Name", lastRowName));
+	}
+
+	/**
+	 * The last row found in an index of the cached table.
+	 */
+	@Benchmark
+	public TableIndex.Entry indexLookup() {
+		return snapshotTableCached.getIndex("Name").get(lastRowName);
+	}
+
+	/**
+	 * TableControl reading snapshots from memory instead of running the
+	 * snapshot script.
+	 */
+	private static class SnapshotTableControl extends TableControl {
+
+		private final List<List<String>> cells;
+
+		SnapshotTableControl(List<List<String>> cells) {
+			this.cells = cells;
+		}
+
+		@Override
+		protected TableSnapshot readSnapshot(int firstRow, int lastRow, int[] columnNumbers, String[] headerCellTexts) {
+			int from = Math.max(firstRow, 1);
+			int to = lastRow == TableSnapshot.ALL_ROWS ? cells.size() : Math.min(lastRow, cells.size());
+			List<List<String>> read = to >= from ? cells.subList(from - 1, to) : new ArrayList<List<String>>();
+			return new TableSnapshot(Arrays.asList(HEADERS), read, null, new int[0], cells.size(), from);
+		}
+	}
+
+}
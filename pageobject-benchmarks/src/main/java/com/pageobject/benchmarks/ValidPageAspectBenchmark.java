@@ -0,0 +1,88 @@
+package com.pageobject.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pageobject.benchmarks.pages.HomePage;
+
+/**
+ * Per call overhead of {@link com.pageobject.component.ValidPageAspect}. The
+ * same benchmark is run without weaving, with load-time weaving and with
+ * compile-time weaving, see README.md. The expected weaving mode is passed as
+ * parameter, so a wrongly built or started benchmark fails instead of
+ * measuring something else.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidPageAspectBenchmark {
+
+	/**
+	 * Expected weaving mode, empty means any.
+	 */
+	@Param("")
+	public String weaving;
+
+	private StubBrowserController browser;
+	private HomePage page;
+
+	@Setup
+	public void setUp() {
+		browser = new StubBrowserController();
+		browser.setTitle(HomePage.TITLE);
+		browser.setText(HomePage.HEADING, "Welcome");
+
+		String mode = Weaving.configure(browser);
+		if (weaving.length() > 0 && !weaving.equals(mode)) {
+			throw new IllegalStateException("Expected weaving " + weaving + " but the benchmark runs with " + mode);
+		}
+
+		page = new HomePage();
+		page.setBrowserController(browser);
+	}
+
+	/**
+	 * The browser call alone, without any page.
+	 */
+	@Benchmark
+	public String baseline() {
+		return browser.getText(HomePage.HEADING);
+	}
+
+	/**
+	 * Page method called repeatedly on the same document, the page validity
+	 * is remembered.
+	 */
+	@Benchmark
+	public String pageMethod() {
+		return page.getHeading();
+	}
+
+	/**
+	 * Page method called after every navigation, the page validity has to be
+	 * checked every time.
+	 */
+	@Benchmark
+	public String pageMethodAfterNavigation() {
+		browser.navigate();
+		return page.getHeading();
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.pageobject.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import org.aspectj.lang.Aspects;
+import org.aspectj.lang.NoAspectBoundException;
+
+import com.pageobject.component.ValidPageAspect;
+import com.pageobject.controller.BrowserController;
+
+/**
+ * Detects how {@link ValidPageAspect} is woven into the benchmark pages.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class Weaving {
+
+	public static final String NONE = "none";
+	public static final String LOAD_TIME = "ltw";
+	public static final String COMPILE_TIME = "ctw";
+
+	private Weaving() {
+	}
+
+	/**
+	 * @return {@link #NONE}, {@link #LOAD_TIME} or {@link #COMPILE_TIME}
+	 */
+	public static String getMode() {
+		if (!isAspect()) {
+			return NONE;
+		}
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			if (argument.startsWith("-javaagent") && argument.contains("aspectjweaver")) {
+				return LOAD_TIME;
+			}
+		}
+		return COMPILE_TIME;
+	}
+
+	/**
+	 * Sets the browser of the woven aspect, does nothing without weaving.
+	 *
+	 * @param browser
+	 *            browser used by the pages
+	 * @return weaving mode
+	 */
+	public static String configure(BrowserController browser) {
+		if (isAspect()) {
+			Aspects.aspectOf(ValidPageAspect.class).setBrowserController(browser);
+		}
+		return getMode();
+	}
+
+	private static boolean isAspect() {
+		try {
+			return Aspects.aspectOf(ValidPageAspect.class) != null;
+		} catch (NoAspectBoundException e) {
+			// not compiled nor woven as an aspect, there is no aspectOf()
+			return false;
+		}
+	}
+
+}
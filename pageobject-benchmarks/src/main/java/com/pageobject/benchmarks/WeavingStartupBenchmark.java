@@ -0,0 +1,83 @@
+package com.pageobject.benchmarks;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of loading page classes, which is where load-time weaving pays for
+ * the weaver set up and for weaving every class. Each invocation loads the
+ * benchmark pages and the framework classes into a new class loader, like a
+ * freshly started test JVM does, and calls one page method.
+ *
+ * <p>
+ * Start up of the whole JVM with and without the agent is measured by
+ * {@link StartupMain}, see README.md.
+ *
+ * @author michal.nahlik
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(3)
+public class WeavingStartupBenchmark {
+
+	private URL[] classpath;
+
+	@Setup
+	public void setUp() throws Exception {
+		String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		classpath = new URL[entries.length];
+		for (int i = 0; i < entries.length; i++) {
+			classpath[i] = new File(entries[i]).toURI().toURL();
+		}
+	}
+
+	@Benchmark
+	public Object loadPages() throws Exception {
+		ClassLoader loader = new ChildFirstClassLoader(classpath, getClass().getClassLoader());
+		return loader.loadClass(StartupMain.class.getName()).getMethod("loadPages").invoke(null);
+	}
+
+	/**
+	 * Loads the framework and benchmark classes itself, so they are loaded
+	 * (and woven) again by every instance.
+	 */
+	private static class ChildFirstClassLoader extends URLClassLoader {
+
+		ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith("com.pageobject.")) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> loaded = findLoadedClass(name);
+			if (loaded == null) {
+				loaded = findClass(name);
+			}
+			if (resolve) {
+				resolveClass(loaded);
+			}
+			return loaded;
+		}
+	}
+
+}
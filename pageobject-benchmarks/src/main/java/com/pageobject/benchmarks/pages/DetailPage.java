@@ -0,0 +1,21 @@
+package com.pageobject.benchmarks.pages;
+
+import com.pageobject.component.AbstractPage;
+import com.pageobject.component.Page;
+
+/**
+ * Benchmark page valid on any document, the target of
+ * {@link HomePage#openDetail()}.
+ *
+ * @author michal.nahlik
+ *
+ */
+@Page
+public class DetailPage extends AbstractPage {
+
+	@Override
+	public boolean isValidPage() {
+		return true;
+	}
+
+}
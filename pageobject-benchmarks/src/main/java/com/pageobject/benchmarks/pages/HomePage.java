@@ -0,0 +1,32 @@
+package com.pageobject.benchmarks.pages;
+
+import com.pageobject.component.AbstractPage;
+import com.pageobject.component.Page;
+
+/**
+ * Benchmark page.
+ *
+ * @author michal.nahlik
+ *
+ */
+@Page
+public class HomePage extends AbstractPage {
+
+	public static final String TITLE = "Home";
+
+	public static final String HEADING = "css=h1";
+
+	@Override
+	public boolean isValidPage() {
+		return TITLE.equals(browser.getTitle());
+	}
+
+	public String getHeading() {
+		return getText(HEADING);
+	}
+
+	public DetailPage openDetail() {
+		return navigateTo(DetailPage.class);
+	}
+
+}
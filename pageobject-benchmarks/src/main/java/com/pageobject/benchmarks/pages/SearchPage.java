@@ -0,0 +1,28 @@
+package com.pageobject.benchmarks.pages;
+
+import com.pageobject.component.AbstractPage;
+import com.pageobject.component.Page;
+
+/**
+ * Benchmark page.
+ *
+ * @author michal.nahlik
+ *
+ */
+@Page
+public class SearchPage extends AbstractPage {
+
+	public static final String TITLE = "Search";
+
+	public static final String HEADING = "css=h1";
+
+	@Override
+	public boolean isValidPage() {
+		return TITLE.equals(browser.getTitle());
+	}
+
+	public String getHeading() {
+		return getText(HEADING);
+	}
+
+}
@@ -6,6 +6,7 @@
 package com.pageobject.component;
 
 import java.util.Date;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +14,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 
+import com.pageobject.controller.BatchReadRequest;
+import com.pageobject.controller.BatchReadResult;
 import com.pageobject.controller.BrowserController;
+import com.pageobject.controller.FormData;
+import com.pageobject.controller.TextScope;
 import com.pageobject.util.DefaultFormattingService;
 import com.pageobject.util.FormattingService;
 import com.pageobject.util.TableControl;
@@ -205,6 +210,48 @@ public abstract class AbstractComponent {
 		type(locator, formattingService.formatNumber(number));
 	}
 
+	/**
+	 * Fills in several form fields at once.
+	 * 
+	 * @see {@link BrowserController#fillForm(FormData)}
+	 * 
+	 * @param form
+	 *            ordered form fields with values to type or options to select
+	 */
+	protected void fillForm(FormData form) {
+		if (!form.isEmpty()) {
+			browser.fillForm(form);
+		}
+	}
+
+	/**
+	 * Types values into several input fields at once, in the iteration order
+	 * of the map (use {@link java.util.LinkedHashMap} to keep the order).
+	 * Dates and numbers are formatted by {@link #formattingService} the same
+	 * way as {@link #typeDate(String, Date)} and
+	 * {@link #typeNumber(String, Number)} do, other values are transformed to
+	 * string using toString() method. <code>null</code> values are skipped.
+	 * 
+	 * @see {@link BrowserController#fillForm(FormData)}
+	 * 
+	 * @param values
+	 *            values to type keyed by the locator of the input field
+	 */
+	protected void fillForm(Map<String, ?> values) {
+		FormData form = new FormData();
+		for (Map.Entry<String, ?> entry : values.entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof Date) {
+				form.type(entry.getKey(), formattingService.formatDate((Date) value));
+			} else if (value instanceof Number) {
+				form.type(entry.getKey(), formattingService.formatNumber((Number) value));
+			} else if (value != null) {
+				form.type(entry.getKey(), value.toString());
+			}
+		}
+		fillForm(form);
+	}
+
 	/**
 	 * Clear the value of the specified input.
 	 * 
@@ -269,6 +316,59 @@ public abstract class AbstractComponent {
 		return browser.isTextPresent(text);
 	}
 	
+	/**
+	 * Checks where the text is present on current page, searching the visible
+	 * text or the raw text content of the page.
+	 * 
+	 * @see {@link BrowserController#isTextPresent(String, TextScope)}
+	 * 
+	 * @param text
+	 *            that is supposed to be present
+	 * @param scope
+	 *            text of the page to search
+	 * 
+	 * @return true if the text is present, false otherwise
+	 */
+	public boolean isTextPresent(String text, TextScope scope) {
+		return browser.isTextPresent(text, scope);
+	}
+	
+	/**
+	 * Checks where all the texts are present and visible on current page,
+	 * using one call to the browser.
+	 * 
+	 * @see {@link BrowserController#countTextOccurrences(TextScope, String...)}
+	 * 
+	 * @param texts
+	 *            that are supposed to be present
+	 * 
+	 * @return true if all the texts are present, false otherwise
+	 */
+	public boolean areTextsPresent(String... texts) {
+		for (int count : browser.countTextOccurrences(TextScope.VISIBLE, texts)) {
+			if (count == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Counts occurrences of several texts on current page.
+	 * 
+	 * @see {@link BrowserController#countTextOccurrences(TextScope, String...)}
+	 * 
+	 * @param scope
+	 *            text of the page to search
+	 * @param texts
+	 *            texts to search
+	 * 
+	 * @return number of occurrences of each text
+	 */
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		return browser.countTextOccurrences(scope, texts);
+	}
+	
 	/**
 	 * Tries to find an element on a current page and returns true if it is,
 	 * false otherwise.
@@ -378,6 +478,20 @@ public abstract class AbstractComponent {
 		return browser.getText(locator);
 	}
 
+	/**
+	 * Reads texts, values and attributes of several elements at once.
+	 * 
+	 * @see {@link BrowserController#read(BatchReadRequest)}
+	 * 
+	 * @param request
+	 *            ordered list of element locators and properties to read
+	 * 
+	 * @return values in the same order as the request entries
+	 */
+	public BatchReadResult read(BatchReadRequest request) {
+		return browser.read(request);
+	}
+
 	/**
 	 * Waits for an element to be present on the current page. You can use this
 	 * method if the BrowserControll have not recognized correctly that the page
@@ -5,6 +5,8 @@
  */
 package com.pageobject.component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 
@@ -24,13 +26,30 @@ import com.pageobject.util.TableControl;
  */
 public abstract class AbstractPage extends AbstractComponent {
 	
+	private static final long NOT_VALIDATED = -1;
+	
+	private static final AtomicLong validationHits = new AtomicLong();
+	private static final AtomicLong validationMisses = new AtomicLong();
+	
+	/**
+	 * Page whose {@link #isValidPage()} is running in the thread. Public page
+	 * methods called by isValidPage are advised by {@link ValidPageAspect} when
+	 * it is woven by AspectJ and must not start the check again.
+	 */
+	private static final ThreadLocal<AbstractPage> validatingPage = new ThreadLocal<AbstractPage>();
+	
 	private boolean isOpened = false;
 	
+	/**
+	 * Navigation epoch of the document this page was validated against.
+	 */
+	private long validEpoch = NOT_VALIDATED;
+	
 	/**
 	 * Navigates to a given page.
 	 * Optionally you may specify init parameter to pass to the page.
-	 * <p>This method creates a prototype page bean, call {@link #assertValidPage()} and
-	 * {@link #init(Object...)} with optioanal init parameters.
+	 * <p>This method creates a prototype page bean, calls {@link #init(Object...)} with optional
+	 * init parameters and {@link #assertValidPage()}.
 	 * @param pageClass class with {@link Page} annotation
 	 * @param params optional parameters to pass to the page
 	 * @return configured page
@@ -58,12 +77,74 @@ public abstract class AbstractPage extends AbstractComponent {
 		page.init(params);
 		
 		// check if the browser is on this page
-		if (!page.isValidPage()) {
-			throw new IllegalStateException("Browser state is invalid when trying to navigate to " + getClass().getSimpleName() +
+		page.assertValidPage();
+		
+		return page;
+	}
+	
+	/**
+	 * Checks whether the browser is on this page. The result of
+	 * {@link #isValidPage()} is remembered until the navigation epoch of the
+	 * browser changes, see {@link BrowserController#getNavigationEpoch()}.
+	 * 
+	 * @throws IllegalStateException if the browser is not on this page
+	 */
+	public void assertValidPage() {
+		if (!checkValidPage()) {
+			throw new IllegalStateException("Browser state is invalid on page " + getClass().getSimpleName() +
 					". Current window title is: " + browser.getTitle());
 		}
+	}
+	
+	/**
+	 * Calls {@link #isValidPage()} unless the page was already found valid in
+	 * the current document. Page methods called from isValidPage itself are
+	 * not checked.
+	 * 
+	 * @return true if the browser is on this page
+	 */
+	boolean checkValidPage() {
+		AbstractPage outerPage = validatingPage.get();
+		if (outerPage == this) {
+			return true;
+		}
 		
-		return page;
+		long epoch = browser.getNavigationEpoch();
+		if (validEpoch == epoch) {
+			validationHits.incrementAndGet();
+			return true;
+		}
+		
+		validationMisses.incrementAndGet();
+		boolean valid;
+		validatingPage.set(this);
+		try {
+			valid = isValidPage();
+		} finally {
+			if (outerPage == null) {
+				validatingPage.remove();
+			} else {
+				validatingPage.set(outerPage);
+			}
+		}
+		validEpoch = valid ? epoch : NOT_VALIDATED;
+		return valid;
+	}
+	
+	/**
+	 * @return how many page validity checks were answered without calling
+	 *         {@link #isValidPage()}
+	 */
+	public static long getValidationHitCount() {
+		return validationHits.get();
+	}
+	
+	/**
+	 * @return how many page validity checks had to call
+	 *         {@link #isValidPage()}
+	 */
+	public static long getValidationMissCount() {
+		return validationMisses.get();
 	}
 	
 	/**
@@ -83,6 +164,8 @@ public abstract class AbstractPage extends AbstractComponent {
 	/**
 	 * Checks whether the browser is on the current page.
 	 * Override this method if you need this check.
+	 * The result is reused until the browser navigates, so the check should
+	 * depend only on the current document.
 	 * @see ValidPageAspect
 	 */
 	public abstract boolean isValidPage();
@@ -5,6 +5,13 @@
  */
 package com.pageobject.component;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.rules.ExternalResource;
 import org.junit.rules.RuleChain;
@@ -18,6 +25,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.support.DependencyInjectionTestExecutionListener;
 import org.springframework.test.context.support.DirtiesContextTestExecutionListener;
 
+import com.pageobject.controller.BrowserTrace;
+import com.pageobject.controller.CommandMetrics;
+import com.pageobject.controller.InstrumentedBrowserController;
+
 /**
  * Base class for automated web page tests.
  * (You should reimplement the testRule if you want to use @After to tear down something.)
@@ -33,6 +44,8 @@ public abstract class AbstractTest extends AbstractComponent {
 	protected static final String DEFAULT_SCREENSHOT_DIR = "/tmp/";
 
 	protected String screenshotDir = DEFAULT_SCREENSHOT_DIR;
+
+	protected String traceDir;
 	
 	/**
 	 * Screenshot directory to put images after test failures.
@@ -45,6 +58,81 @@ public abstract class AbstractTest extends AbstractComponent {
 		this.screenshotDir = screenshotDir;
 	}
 	
+	/**
+	 * Directory to put timelines of browser commands of every test, written
+	 * as Chrome trace-event JSON (open them in chrome://tracing or Perfetto).
+	 * Commands are traced only if the browser is decorated by
+	 * {@link InstrumentedBrowserController}. Tracing is off if not set.
+	 * <p>Mapped to configuration property: browser.trace.dir
+	 * @param traceDir absolute path WITH trailing slash
+	 */
+	@Value("${browser.trace.dir:}")
+	public void setTraceDir(String traceDir) {
+		this.traceDir = traceDir;
+	}
+
+	/**
+	 * Records the timeline of the test if the trace directory is set.
+	 */
+	public TestRule traceRule = new TestWatcher() {
+
+		private BrowserTrace trace;
+		private String result;
+
+		@Override
+		protected void starting(Description description) {
+			if (traceDir != null && traceDir.length() > 0) {
+				trace = BrowserTrace.start(description.getClassName() + "." + description.getMethodName());
+			}
+		}
+
+		@Override
+		protected void succeeded(Description description) {
+			result = "passed";
+		}
+
+		@Override
+		protected void failed(Throwable e, Description description) {
+			String message = String.valueOf(e);
+			int lineEnd = message.indexOf('\n');
+			result = "failed: " + (lineEnd == -1 ? message : message.substring(0, lineEnd));
+		}
+
+		@Override
+		protected void finished(Description description) {
+			if (trace == null) {
+				return;
+			}
+			trace.finish(result);
+			writeTrace(trace, traceDir + trace.getName() + ".trace.json");
+			trace = null;
+		}
+	};
+
+	/**
+	 * Method to write the timeline of a test.
+	 * @param trace finished trace of the test
+	 * @param tracePath full path where the trace should be saved (with the exact file name).
+	 */
+	protected void writeTrace(BrowserTrace trace, String tracePath) {
+		Writer out = null;
+		try {
+			out = new OutputStreamWriter(new FileOutputStream(new File(tracePath)), "UTF-8");
+			trace.writeTo(out);
+			logger.info("Created a trace [{}] with {} spans", tracePath, trace.getSpanCount());
+		} catch (IOException e) {
+			logger.error("Unable to write trace", e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					logger.error("Unable to close trace", e);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Capture a screen shot if test fails. 
 	 * !Be careful, failed is done after the @After method, so if you want
@@ -80,9 +168,26 @@ public abstract class AbstractTest extends AbstractComponent {
 		}
 	}
     
+    /**
+	 * Logs the summary of browser command latencies once when the tests end,
+	 * if the browser is decorated by {@link InstrumentedBrowserController}.
+	 * The statistics are cumulative, so they are not logged after every test
+	 * class.
+	 */
+	@ClassRule
+	public static TestRule metricsRule = new ExternalResource() {
+
+		@Override
+		protected void before() {
+			CommandMetrics.logSummariesAtExit();
+		}
+	};
+
     /**
 	 * Reimplement this rule if you want to use After method to tear down
 	 * something. <b>If you use @After it's done before the screenshot rule!</b>
+	 * The trace rule wraps the screenshot rule, so the screenshot is part of
+	 * the timeline.
 	 */
     @Rule
 	public TestRule testRule = RuleChain.outerRule(new ExternalResource() {
@@ -96,6 +201,6 @@ public abstract class AbstractTest extends AbstractComponent {
 		protected void after() {
 			logger.info("Current test is done.");
 		}
-	}).around(screenshotRule);
+	}).around(traceRule).around(screenshotRule);
 	
 }
@@ -9,11 +9,13 @@ import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ScopeMetadata;
 import org.springframework.context.annotation.ScopeMetadataResolver;
+import org.springframework.context.annotation.ScopedProxyMode;
 
 import java.util.Map;
 
 /**
- * Resolves bean scope according to {@link Component#value()}.
+ * Resolves bean scope according to {@link Component#value()}. Components in
+ * {@link ThreadScope} get a class based scoped proxy.
  *
  * @author Pavel Muller
  * @version $Revision: 102464 $
@@ -31,6 +33,9 @@ public class ComponentScopeResolver implements ScopeMetadataResolver {
 					annDef.getMetadata().getAnnotationAttributes(Component.class.getName());
 			if (attributes != null) {
 				metadata.setScopeName((String) attributes.get("value"));
+				if (ThreadScope.SCOPE_THREAD.equals(metadata.getScopeName())) {
+					metadata.setScopedProxyMode(ScopedProxyMode.TARGET_CLASS);
+				}
 			}
 		}
 		return metadata;
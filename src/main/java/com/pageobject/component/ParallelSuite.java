@@ -0,0 +1,102 @@
+package com.pageobject.component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.runners.Suite;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerBuilder;
+import org.junit.runners.model.RunnerScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Suite running its test classes in parallel. Every test class runs in one
+ * thread from start to end, so the browser and components in
+ * {@link ThreadScope} belong to it alone. Thread scoped beans are destroyed
+ * after each test class.
+ *
+ * <pre>
+ * &#064;RunWith(ParallelSuite.class)
+ * &#064;SuiteClasses({ LoginTest.class, SearchTest.class, OrderTest.class })
+ * public class AllTests {
+ * }
+ * </pre>
+ *
+ * The number of threads is specified by system property
+ * pageobject.parallel.threads, the default is the number of processors.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class ParallelSuite extends Suite {
+
+	public static final String THREADS_PROPERTY = "pageobject.parallel.threads";
+
+	private static Logger logger = LoggerFactory.getLogger(ParallelSuite.class);
+
+	public ParallelSuite(Class<?> klass, RunnerBuilder builder) throws InitializationError {
+		super(klass, builder);
+		setScheduler(new ThreadPoolScheduler(getThreadCount()));
+	}
+
+	/**
+	 * @return number of threads running the test classes
+	 */
+	protected int getThreadCount() {
+		String threads = System.getProperty(THREADS_PROPERTY);
+		if (threads == null || threads.trim().length() == 0) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		try {
+			return Math.max(1, Integer.parseInt(threads.trim()));
+		} catch (NumberFormatException e) {
+			logger.error("Property " + THREADS_PROPERTY + " is not a number: " + threads);
+			return Runtime.getRuntime().availableProcessors();
+		}
+	}
+
+	private static class ThreadPoolScheduler implements RunnerScheduler {
+
+		private final ExecutorService executor;
+
+		ThreadPoolScheduler(int threads) {
+			logger.info("Running test classes in " + threads + " threads. Can be specified by property "
+					+ THREADS_PROPERTY);
+			final AtomicInteger counter = new AtomicInteger();
+			executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread(Runnable runnable) {
+					return new Thread(runnable, "pageobject-test-" + counter.incrementAndGet());
+				}
+			});
+		}
+
+		public void schedule(final Runnable childStatement) {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						childStatement.run();
+					} finally {
+						ThreadScope.destroyCurrentThread();
+					}
+				}
+			});
+		}
+
+		public void finished() {
+			executor.shutdown();
+			try {
+				while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+					logger.info("Waiting for test classes to finish.");
+				}
+			} catch (InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.pageobject.component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.config.Scope;
+
+/**
+ * Spring scope keeping one bean instance per thread, so tests running in
+ * parallel (see {@link ParallelSuite}) get their own browser, pages and
+ * components. Every scope instance keeps its own beans, so application
+ * contexts living side by side (e.g. in the Spring test context cache) do not
+ * share them. Beans of the current thread are destroyed by
+ * {@link #destroyCurrentThread()}, which {@link ParallelSuite} calls after
+ * every test class.
+ *
+ * <p>
+ * Register the scope and use it for components by
+ * <code>@Component(ThreadScope.SCOPE_THREAD)</code>.
+ * {@link ComponentScopeResolver} creates scoped proxies for such components,
+ * so they can be injected into singletons.
+ *
+ * <pre>
+ * &lt;bean class="org.springframework.beans.factory.config.CustomScopeConfigurer"&gt;
+ *     &lt;property name="scopes"&gt;
+ *         &lt;map&gt;
+ *             &lt;entry key="thread"&gt;
+ *                 &lt;bean class="com.pageobject.component.ThreadScope"/&gt;
+ *             &lt;/entry&gt;
+ *         &lt;/map&gt;
+ *     &lt;/property&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * The browser can either be a thread scoped bean with a thread scoped
+ * WebDriver
+ *
+ * <pre>
+ * &lt;bean id="driver" class="org.openqa.selenium.firefox.FirefoxDriver" scope="thread" destroy-method="quit"/&gt;
+ * &lt;bean id="browser" class="com.pageobject.controller.WebDriverBrowserImpl" scope="thread"&gt;
+ *     &lt;aop:scoped-proxy proxy-target-class="false"/&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * or a singleton {@link com.pageobject.controller.PooledBrowserController},
+ * which leases one browser per thread by itself and keeps it for the following
+ * test classes run by the same thread.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class ThreadScope implements Scope {
+
+	public static final String SCOPE_THREAD = "thread";
+
+	private static Logger logger = LoggerFactory.getLogger(ThreadScope.class);
+
+	private static final Set<ThreadScope> INSTANCES = Collections.synchronizedSet(Collections
+			.newSetFromMap(new WeakHashMap<ThreadScope, Boolean>()));
+
+	private final ThreadLocal<Map<String, Object>> beans = new ThreadLocal<Map<String, Object>>() {
+		@Override
+		protected Map<String, Object> initialValue() {
+			return new HashMap<String, Object>();
+		}
+	};
+
+	private final ThreadLocal<Map<String, Runnable>> destructionCallbacks = new ThreadLocal<Map<String, Runnable>>() {
+		@Override
+		protected Map<String, Runnable> initialValue() {
+			return new LinkedHashMap<String, Runnable>();
+		}
+	};
+
+	public ThreadScope() {
+		INSTANCES.add(this);
+	}
+
+	public Object get(String name, ObjectFactory<?> objectFactory) {
+		Map<String, Object> scope = beans.get();
+		Object bean = scope.get(name);
+		if (bean == null) {
+			bean = objectFactory.getObject();
+			scope.put(name, bean);
+		}
+		return bean;
+	}
+
+	public Object remove(String name) {
+		destructionCallbacks.get().remove(name);
+		return beans.get().remove(name);
+	}
+
+	public void registerDestructionCallback(String name, Runnable callback) {
+		destructionCallbacks.get().put(name, callback);
+	}
+
+	public Object resolveContextualObject(String key) {
+		return null;
+	}
+
+	public String getConversationId() {
+		return Thread.currentThread().getName();
+	}
+
+	/**
+	 * Destroys all beans of the current thread in all thread scopes. The next
+	 * request for a bean creates a new instance.
+	 */
+	public static void destroyCurrentThread() {
+		List<ThreadScope> scopes;
+		synchronized (INSTANCES) {
+			scopes = new ArrayList<ThreadScope>(INSTANCES);
+		}
+		for (ThreadScope scope : scopes) {
+			scope.destroyThreadBeans();
+		}
+	}
+
+	/**
+	 * Destroys the beans of this scope created by the current thread in the
+	 * reverse order of their creation.
+	 */
+	public void destroyThreadBeans() {
+		List<Runnable> callbacks = new ArrayList<Runnable>(destructionCallbacks.get().values());
+		destructionCallbacks.remove();
+		beans.remove();
+
+		for (int i = callbacks.size() - 1; i >= 0; i--) {
+			try {
+				callbacks.get(i).run();
+			} catch (RuntimeException e) {
+				logger.error("Unable to destroy thread scoped bean", e);
+			}
+		}
+	}
+
+}
@@ -6,17 +6,30 @@
 package com.pageobject.component;
 
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.pageobject.controller.BrowserController;
+import com.pageobject.controller.PageContext;
 
 
 /**
  * Aspect checking page validity before every method call on a page.
+ * {@link AbstractPage#isValidPage()} is called only once per document, see
+ * {@link AbstractPage#assertValidPage()}. The running page method is kept as
+ * the {@link PageContext} of the thread.
+ * 
+ * <p>The aspect can be applied by Spring AOP proxies
+ * (<code>&lt;aop:aspectj-autoproxy/&gt;</code>), by load-time weaving or it can
+ * be woven into page classes at compile time (Maven profile ctw). When it is
+ * woven by AspectJ, configure the aspect instance by
+ * <code>&lt;bean class="com.pageobject.component.ValidPageAspect" factory-method="aspectOf"/&gt;</code>.
  *
  * @author Pavel Muller
  * @version $Revision: 102464 $
@@ -36,17 +49,50 @@ public class ValidPageAspect {
 		this.browser = browser;
 	}
 	
+	/**
+	 * Execution of a public method of a page, except the validity checks
+	 * themselves and the configuration setters called by Spring. Page methods
+	 * called from {@link AbstractPage#isValidPage()} are matched too when the
+	 * aspect is woven, {@link AbstractPage#checkValidPage()} does not start the
+	 * check again for them (cflow is not supported by Spring AOP proxies).
+	 */
+	@Pointcut("execution(public * *(..)) && @target(com.pageobject.component.Page)"
+			+ " && !execution(* com.pageobject.component.AbstractPage+.isValidPage())"
+			+ " && !execution(* com.pageobject.component.AbstractPage.assertValidPage())"
+			+ " && !execution(* com.pageobject.component.AbstractComponent.set*(..))")
+	public void pageMethod() {
+	}
+	
+	/**
+	 * Makes the page method the current {@link PageContext} of the thread while
+	 * it runs, including the validity check.
+	 *
+	 * @param joinPoint current method call
+	 * @param page target page being called
+	 * @return result of the page method
+	 * @throws Throwable exception of the page method
+	 */
+	@Around(value = "pageMethod() && target(page)", argNames = "joinPoint,page")
+	public Object trackPage(ProceedingJoinPoint joinPoint, AbstractPage page) throws Throwable {
+		PageContext context = PageContext.enter(page.getClass(), joinPoint.getSignature().getName());
+		try {
+			return joinPoint.proceed();
+		} finally {
+			context.exit();
+		}
+	}
+
 	/**
 	 * Check if the browser is on page which method is being called.
 	 * 
 	 * @param joinPoint current method call
 	 * @param page target page being called
 	 */
-	@Before("@target(com.pageobject.component.Page) && target(page))")
+	@Before(value = "pageMethod() && target(page)", argNames = "joinPoint,page")
 	public void validatePage(JoinPoint joinPoint, AbstractPage page) {
 		LoggerFactory.getLogger(page.getClass()).debug("Invocation of page method '{}'", joinPoint.getSignature().getName());
 		
-		if (!page.isValidPage()) {
+		if (!page.checkValidPage()) {
 			String pageMethod = page.getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
 			String msg = "Browser state is invalid while calling page method '" + pageMethod +
 					"'. Current window title is: " + browser.getTitle();
@@ -0,0 +1,97 @@
+package com.pageobject.controller;
+
+/**
+ * Immutable policy of delays between checks of a wait condition. The first
+ * few checks are done quickly one after another, then the delay grows
+ * exponentially up to the maximum delay.
+ *
+ * <p>
+ * For example the default policy waits 25, 25, 25, 50, 100, 200, 400, 500,
+ * 500, ... milliseconds between the checks.
+ *
+ * @see WaitEngine
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class BackoffPolicy {
+
+	public static final long DEFAULT_INITIAL_DELAY = 25;
+	public static final int DEFAULT_FAST_PROBES = 3;
+	public static final double DEFAULT_MULTIPLIER = 2.0;
+	public static final long DEFAULT_MAX_DELAY = 500;
+
+	private final long initialDelay;
+	private final int fastProbes;
+	private final double multiplier;
+	private final long maxDelay;
+
+	public BackoffPolicy() {
+		this(DEFAULT_INITIAL_DELAY, DEFAULT_FAST_PROBES, DEFAULT_MULTIPLIER, DEFAULT_MAX_DELAY);
+	}
+
+	/**
+	 * @param initialDelay
+	 *            delay after the first checks in milliseconds
+	 * @param fastProbes
+	 *            how many checks are followed by the initial delay before it
+	 *            starts to grow
+	 * @param multiplier
+	 *            how many times the delay grows after each further check
+	 * @param maxDelay
+	 *            maximum delay in milliseconds
+	 */
+	public BackoffPolicy(long initialDelay, int fastProbes, double multiplier, long maxDelay) {
+		if (initialDelay < 1 || maxDelay < initialDelay) {
+			throw new IllegalArgumentException("Delays have to be positive and the maximum delay can't be lower "
+					+ "than the initial one. Initial delay: " + initialDelay + ", maximum delay: " + maxDelay);
+		}
+		if (fastProbes < 0 || multiplier < 1.0) {
+			throw new IllegalArgumentException("Number of fast probes can't be negative and the multiplier can't be "
+					+ "lower than 1. Fast probes: " + fastProbes + ", multiplier: " + multiplier);
+		}
+		this.initialDelay = initialDelay;
+		this.fastProbes = fastProbes;
+		this.multiplier = multiplier;
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Returns the delay that should follow the given check.
+	 *
+	 * @param attempt
+	 *            number of the check that was just done, starting from 1
+	 * @return delay in milliseconds
+	 */
+	public long getDelay(int attempt) {
+		int growth = attempt - Math.max(fastProbes, 1);
+		if (growth <= 0) {
+			return initialDelay;
+		}
+		double delay = initialDelay * Math.pow(multiplier, growth);
+		return delay >= maxDelay ? maxDelay : (long) delay;
+	}
+
+	public long getInitialDelay() {
+		return initialDelay;
+	}
+
+	public int getFastProbes() {
+		return fastProbes;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public long getMaxDelay() {
+		return maxDelay;
+	}
+
+	@Override
+	public String toString() {
+		return "BackoffPolicy [initialDelay=" + initialDelay + ", fastProbes=" + fastProbes + ", multiplier="
+				+ multiplier + ", maxDelay=" + maxDelay + "]";
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.pageobject.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered list of values that should be read from the current web page at
+ * once by {@link BrowserController#read(BatchReadRequest)}. Each entry is a
+ * pair of an element locator and a property of the element (text, value or
+ * an attribute).
+ *
+ * <pre>
+ * BatchReadResult result = browser.read(new BatchReadRequest()
+ * 		.text("css=h1")
+ * 		.value("name=email")
+ * 		.attribute("id=status", "class"));
+ * </pre>
+ *
+ * @author michal.nahlik
+ *
+ */
+public class BatchReadRequest {
+
+	/**
+	 * Property of a web element that can be read.
+	 */
+	public enum Property {
+
+		/**
+		 * The visible text, see {@link BrowserController#getText(String)}.
+		 */
+		TEXT,
+
+		/**
+		 * The value, see {@link BrowserController#getElementValue(String)}.
+		 */
+		VALUE,
+
+		/**
+		 * An attribute, see
+		 * {@link BrowserController#getElementAttribute(String, String)}.
+		 */
+		ATTRIBUTE
+	}
+
+	/**
+	 * One value to read.
+	 */
+	public static final class Entry {
+
+		private final String locator;
+		private final Property property;
+		private final String attributeName;
+
+		private Entry(String locator, Property property, String attributeName) {
+			this.locator = locator;
+			this.property = property;
+			this.attributeName = attributeName;
+		}
+
+		public String getLocator() {
+			return locator;
+		}
+
+		public Property getProperty() {
+			return property;
+		}
+
+		/**
+		 * @return name of the attribute, <code>null</code> unless the
+		 *         property is {@link Property#ATTRIBUTE}
+		 */
+		public String getAttributeName() {
+			return attributeName;
+		}
+
+		@Override
+		public String toString() {
+			return locator + (property == Property.ATTRIBUTE ? "@" + attributeName : "#" + property);
+		}
+	}
+
+	private final List<Entry> entries = new ArrayList<Entry>();
+
+	/**
+	 * Adds the visible text of an element.
+	 *
+	 * @param locator
+	 *            the locator of an web element. The locator type can be
+	 *            specified by prefix ('id=', 'name=', 'css=', 'xpath=',
+	 *            'text='). If the identifier type is not specified, it will be
+	 *            taken as it's 'id='.
+	 * @return this request
+	 */
+	public BatchReadRequest text(String locator) {
+		return add(locator, Property.TEXT, null);
+	}
+
+	/**
+	 * Adds the value of an element.
+	 *
+	 * @param locator
+	 *            the locator of an web element
+	 * @return this request
+	 */
+	public BatchReadRequest value(String locator) {
+		return add(locator, Property.VALUE, null);
+	}
+
+	/**
+	 * Adds the value of an element attribute.
+	 *
+	 * @param locator
+	 *            the locator of an web element
+	 * @param attributeName
+	 *            name of the attribute
+	 * @return this request
+	 */
+	public BatchReadRequest attribute(String locator, String attributeName) {
+		if (attributeName == null) {
+			throw new IllegalArgumentException("Attribute name must not be null.");
+		}
+		return add(locator, Property.ATTRIBUTE, attributeName);
+	}
+
+	private BatchReadRequest add(String locator, Property property, String attributeName) {
+		if (locator == null) {
+			throw new IllegalArgumentException("Locator must not be null.");
+		}
+		entries.add(new Entry(locator, property, attributeName));
+		return this;
+	}
+
+	/**
+	 * @return entries in the order they were added
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return number of entries
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public String toString() {
+		return "BatchReadRequest " + entries;
+	}
+
+}
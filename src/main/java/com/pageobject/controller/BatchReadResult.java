@@ -0,0 +1,106 @@
+package com.pageobject.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Values read by {@link BrowserController#read(BatchReadRequest)}. Values are
+ * indexed in the same order as the entries of the request. An element that
+ * was not found is reported for its entry instead of failing the whole read.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class BatchReadResult {
+
+	private final BatchReadRequest request;
+	private final String[] values;
+	private final boolean[] found;
+
+	/**
+	 * @param request
+	 *            the request the values were read for
+	 * @param values
+	 *            read values, <code>null</code> for missing elements
+	 * @param found
+	 *            whether the element of each entry was found
+	 */
+	public BatchReadResult(BatchReadRequest request, String[] values, boolean[] found) {
+		if (values.length != request.size() || found.length != request.size()) {
+			throw new IllegalArgumentException("Expected " + request.size() + " values, got " + values.length + ".");
+		}
+		this.request = request;
+		this.values = values.clone();
+		this.found = found.clone();
+	}
+
+	public BatchReadRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * @return number of read values
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the value read for the entry.
+	 *
+	 * @param index
+	 *            index of the request entry, starting from 0
+	 * @return the value, <code>null</code> if the element was not found or
+	 *         the attribute is not set
+	 */
+	public String getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @param index
+	 *            index of the request entry, starting from 0
+	 * @return true if the element of the entry was found on the page
+	 */
+	public boolean isFound(int index) {
+		return found[index];
+	}
+
+	/**
+	 * @return true if elements of all entries were found
+	 */
+	public boolean isAllFound() {
+		for (boolean entryFound : found) {
+			if (!entryFound) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return entries whose elements were not found on the page
+	 */
+	public List<BatchReadRequest.Entry> getMissingEntries() {
+		List<BatchReadRequest.Entry> missing = new ArrayList<BatchReadRequest.Entry>();
+		for (int i = 0; i < found.length; i++) {
+			if (!found[i]) {
+				missing.add(request.getEntries().get(i));
+			}
+		}
+		return missing;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("BatchReadResult [");
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(request.getEntries().get(i)).append('=').append(found[i] ? values[i] : "<missing>");
+		}
+		return sb.append(']').toString();
+	}
+
+}
@@ -81,6 +81,19 @@ public interface BrowserController {
 	 */
 	public void select(String locator, String option);
 
+	/**
+	 * Fills in several form fields at once, in the order given by the form
+	 * data. Implementations may fill in the fields by a script firing the
+	 * proper input and change events instead of typing every field. Fields
+	 * marked as needing native typing are always typed by real keystrokes.
+	 * Fields which are not on the page yet are waited for like by
+	 * {@link #type(String, String)}.
+	 * 
+	 * @param form
+	 *            ordered form fields with values to type or options to select
+	 */
+	public void fillForm(FormData form);
+
 	/**
 	 * Opens a URL in a new window. The new web page has to be selected if you
 	 * want to interact with it.
@@ -288,6 +301,18 @@ public interface BrowserController {
 	 */
 	public String getText(String locator);
 
+	/**
+	 * Reads texts, values and attributes of several web elements at once.
+	 * Elements that are not present on the current web page are reported in
+	 * the result for their entries, the read does not fail because of them.
+	 * 
+	 * @param request
+	 *            ordered list of element locators and properties to read
+	 * 
+	 * @return values in the same order as the request entries
+	 */
+	public BatchReadResult read(BatchReadRequest request);
+
 	/**
 	 * Checks where the text is present and visible on current page.
 	 * 
@@ -298,6 +323,36 @@ public interface BrowserController {
 	 */
 	public boolean isTextPresent(String text);
 	
+	/**
+	 * Checks where the text is present on current page. The text is searched
+	 * inside the browser, the page text is not transferred.
+	 * 
+	 * @param text
+	 *            that is supposed to be present
+	 * @param scope
+	 *            whether to search the visible text or the raw text content of
+	 *            the page
+	 * 
+	 * @return true if the text is present, false otherwise
+	 */
+	public boolean isTextPresent(String text, TextScope scope);
+	
+	/**
+	 * Counts non-overlapping occurrences of several texts on current page in
+	 * one call. The texts are searched inside the browser, the page text is
+	 * not transferred.
+	 * 
+	 * @param scope
+	 *            whether to search the visible text or the raw text content of
+	 *            the page
+	 * @param texts
+	 *            texts to search
+	 * 
+	 * @return number of occurrences of each text, in the same order as the
+	 *         texts
+	 */
+	public int[] countTextOccurrences(TextScope scope, String... texts);
+	
 	/**
 	 * Checks whether the web element is present on current web page.
 	 * 
@@ -418,6 +473,19 @@ public interface BrowserController {
 	 * @return an object containing data returned by javascript 
 	 */
 	public Object executeScript(String script);
+	
+	/**
+	 * Evaluates javascript with arguments in current window. The script is
+	 * expected only to read the document, so unlike
+	 * {@link #executeScript(String)} it does not change the navigation epoch.
+	 * The arguments are available in the script as <code>arguments[i]</code>.
+	 * 
+	 * @param script script
+	 * @param args script arguments, numbers, booleans, strings or lists of them
+	 * @return an object containing data returned by javascript
+	 * @throws UnsupportedOperationException if the implementation can't run scripts
+	 */
+	public Object evaluateScript(String script, Object... args);
 
 	/**
 	 * Get a current URL
@@ -444,4 +512,15 @@ public interface BrowserController {
 	 */
 	public void deleteAllCookies();
 	
+	/**
+	 * Returns a token identifying the current document. The token changes
+	 * whenever the browser navigates: a page is opened, refreshed or closed,
+	 * an element is clicked on, a form is submitted by typing Enter, a script
+	 * is executed or another window is selected. Typing, clearing and
+	 * selecting options don't change it, neither do reading methods.
+	 * 
+	 * @return current navigation epoch
+	 */
+	public long getNavigationEpoch();
+	
 }
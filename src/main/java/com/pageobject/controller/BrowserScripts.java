@@ -0,0 +1,271 @@
+package com.pageobject.controller;
+
+/**
+ * Javascript snippets executed in the browser by {@link WebDriverBrowserImpl}.
+ *
+ * @author michal.nahlik
+ *
+ */
+final class BrowserScripts {
+
+	/**
+	 * Interval of the in-page poller in milliseconds. Polling inside the page
+	 * does not cost any call to the browser, so it can be short.
+	 */
+	static final int IN_PAGE_POLL_INTERVAL = 10;
+
+	/**
+	 * Function <code>locate(type, identifier)</code> finding the first element
+	 * the same way as {@link LocatorType#createBy(String)} does. The type is the
+	 * name of the {@link LocatorType}. Returns <code>null</code> if there is
+	 * no such element.
+	 */
+	static final String LOCATE =
+			"function locate(type, identifier) {"
+			+ "  if (type == 'ID') {"
+			+ "    return document.getElementById(identifier);"
+			+ "  } else if (type == 'NAME') {"
+			+ "    return document.getElementsByName(identifier)[0] || null;"
+			+ "  } else if (type == 'CSS') {"
+			+ "    return document.querySelector(identifier);"
+			+ "  } else if (type == 'XPATH') {"
+			+ "    return document.evaluate(identifier, document, null, 9, null).singleNodeValue;"
+			+ "  } else if (type == 'TEXT') {"
+			+ "    var links = document.getElementsByTagName('a');"
+			+ "    for (var i = 0; i < links.length; i++) {"
+			+ "      var text = links[i].innerText !== undefined ? links[i].innerText : links[i].textContent;"
+			+ "      if (text.replace(/^\\s+|\\s+$/g, '') == identifier) {"
+			+ "        return links[i];"
+			+ "      }"
+			+ "    }"
+			+ "    return null;"
+			+ "  }"
+			+ "  throw new Error('Unknown locator type ' + type);"
+			+ "}";
+
+	/**
+	 * Function <code>visibleText(element)</code> returning the rendered text of
+	 * the element with trimmed whitespace, as close to WebDriver's
+	 * <code>getText()</code> as the browser allows.
+	 */
+	static final String VISIBLE_TEXT =
+			"function visibleText(element) {"
+			+ "  var text = element.innerText !== undefined ? element.innerText : element.textContent;"
+			+ "  return (text || '').replace(/\\u00a0/g, ' ').replace(/^\\s+|\\s+$/g, '');"
+			+ "}";
+
+	/**
+	 * Function <code>read(element, property, attributeName)</code> returning
+	 * the text, value or attribute of the element. The property is the name
+	 * of {@link BatchReadRequest.Property}. Attributes are read the same way
+	 * as WebDriver's <code>getAttribute()</code>: the DOM property is preferred,
+	 * boolean properties are returned as 'true' or <code>null</code>.
+	 */
+	static final String READ =
+			VISIBLE_TEXT
+			+ "function read(element, property, attributeName) {"
+			+ "  if (property == 'TEXT') {"
+			+ "    return visibleText(element);"
+			+ "  }"
+			+ "  var name = property == 'VALUE' ? 'value' : attributeName;"
+			+ "  var value = element[name];"
+			+ "  if (typeof value == 'boolean') {"
+			+ "    return value ? 'true' : null;"
+			+ "  }"
+			+ "  if (value !== undefined && value !== null && typeof value != 'object' && typeof value != 'function') {"
+			+ "    return String(value);"
+			+ "  }"
+			+ "  return element.getAttribute(name);"
+			+ "}";
+
+	/**
+	 * Script reading values of several elements at once. Arguments: list of
+	 * locator types, list of identifiers, list of property names, list of
+	 * attribute names. Returns a list with <code>null</code> for missing
+	 * elements and a single-item list with the value for found elements.
+	 */
+	static final String BATCH_READ =
+			"var types = arguments[0], identifiers = arguments[1], properties = arguments[2], names = arguments[3];"
+			+ LOCATE
+			+ READ
+			+ "var result = [];"
+			+ "for (var i = 0; i < types.length; i++) {"
+			+ "  var element = null;"
+			+ "  try { element = locate(types[i], identifiers[i]); } catch (e) {}"
+			+ "  result.push(element == null ? null : [read(element, properties[i], names[i])]);"
+			+ "}"
+			+ "return result;";
+
+	/**
+	 * Script counting occurrences of several texts in the body of the
+	 * document. Arguments: {@link TextScope} name, list of texts. Returns a
+	 * list of counts, an empty text is counted as one occurrence.
+	 */
+	static final String COUNT_TEXT =
+			"var scope = arguments[0], needles = arguments[1];"
+			+ VISIBLE_TEXT
+			+ "var body = document.body || document.documentElement;"
+			+ "var text = scope == 'RAW' ? (body.textContent || '') : visibleText(body);"
+			+ "var counts = [];"
+			+ "for (var i = 0; i < needles.length; i++) {"
+			+ "  var needle = needles[i], count = 0;"
+			+ "  if (needle.length == 0) {"
+			+ "    count = 1;"
+			+ "  } else {"
+			+ "    for (var index = text.indexOf(needle); index != -1; index = text.indexOf(needle, index + needle.length)) {"
+			+ "      count++;"
+			+ "    }"
+			+ "  }"
+			+ "  counts.push(count);"
+			+ "}"
+			+ "return counts;";
+
+	/**
+	 * Script returning a list with the title, document name and ready state
+	 * of the current document.
+	 */
+	static final String WINDOW_METADATA =
+			"return [document.title, document.name == null ? '' : String(document.name), document.readyState];";
+
+	/**
+	 * Script filling in form fields in one pass. Arguments: list of locator
+	 * types, list of identifiers, list of {@link FormData.Action} names, list
+	 * of values. Text fields get the value appended and receive input and
+	 * change events, drop-downs get the option selected and receive a change
+	 * event. The script stops at the first field it can't fill in and returns
+	 * a list with the number of filled fields and the reason: 'MISSING' if the
+	 * element was not found, 'NATIVE' if the field has to be filled in by
+	 * WebDriver (check boxes, file inputs, disabled fields, unknown options,
+	 * ...) or <code>null</code> if all fields were filled in.
+	 */
+	static final String FILL_FORM =
+			"var types = arguments[0], identifiers = arguments[1], actions = arguments[2], values = arguments[3];"
+			+ LOCATE
+			+ "function fire(element, type) {"
+			+ "  var event;"
+			+ "  if (typeof Event == 'function') {"
+			+ "    event = new Event(type, {bubbles: true, cancelable: true});"
+			+ "  } else {"
+			+ "    event = document.createEvent('HTMLEvents');"
+			+ "    event.initEvent(type, true, true);"
+			+ "  }"
+			+ "  element.dispatchEvent(event);"
+			+ "}"
+			+ "function isTextField(element) {"
+			+ "  var tag = element.tagName.toLowerCase();"
+			+ "  if (tag == 'textarea') return true;"
+			+ "  if (tag != 'input') return false;"
+			+ "  var type = (element.getAttribute('type') || 'text').toLowerCase();"
+			+ "  return /^(text|password|email|search|tel|url|number|date|datetime|datetime-local|month|week|time)$/.test(type);"
+			+ "}"
+			+ "function findOption(select, option) {"
+			+ "  var typeIndex = option.indexOf('='), value = option.substring(typeIndex + 1);"
+			+ "  for (var i = 0; i < select.options.length; i++) {"
+			+ "    var candidate = select.options[i];"
+			+ "    if (typeIndex == -1 || option.indexOf('value=') == 0) {"
+			+ "      if (candidate.value == value) return candidate;"
+			+ "    } else if (option.indexOf('label=') == 0) {"
+			+ "      var label = candidate.text.replace(/\\s+/g, ' ').replace(/^\\s+|\\s+$/g, '');"
+			+ "      if (label == value) return candidate;"
+			+ "    } else if (option.indexOf('index=') == 0) {"
+			+ "      if (String(i) == value) return candidate;"
+			+ "    }"
+			+ "  }"
+			+ "  return null;"
+			+ "}"
+			+ "for (var i = 0; i < types.length; i++) {"
+			+ "  var element = null;"
+			+ "  try { element = locate(types[i], identifiers[i]); } catch (e) {}"
+			+ "  if (element == null) return [i, 'MISSING'];"
+			+ "  if (element.disabled || element.readOnly) return [i, 'NATIVE'];"
+			+ "  if (actions[i] == 'SELECT') {"
+			+ "    if (element.tagName.toLowerCase() != 'select') return [i, 'NATIVE'];"
+			+ "    var option = findOption(element, values[i]);"
+			+ "    if (option == null || option.disabled) return [i, 'NATIVE'];"
+			+ "    if (!option.selected) {"
+			+ "      option.selected = true;"
+			+ "      fire(element, 'change');"
+			+ "    }"
+			+ "  } else {"
+			+ "    if (!isTextField(element)) return [i, 'NATIVE'];"
+			+ "    if (element.focus) element.focus();"
+			+ "    element.value = element.value + values[i];"
+			+ "    fire(element, 'input');"
+			+ "    fire(element, 'change');"
+			+ "  }"
+			+ "}"
+			+ "return [types.length, null];";
+
+	/**
+	 * Function <code>waitFor(check, watchDom, timeout, callback)</code> calling
+	 * the callback with <code>true</code> as soon as the check returns true or
+	 * with <code>false</code> when the timeout expires. The check is run on
+	 * every DOM mutation if <code>watchDom</code> is set and MutationObserver
+	 * is supported, otherwise by an in-page poller.
+	 */
+	static final String WAIT_FOR =
+			"function waitFor(check, watchDom, timeout, callback) {"
+			+ "  var done = false, observer = null, poller = null, timer = null;"
+			+ "  var safeCheck = function() {"
+			+ "    try { return check(); } catch (e) { return false; }"
+			+ "  };"
+			+ "  var finish = function(result) {"
+			+ "    if (done) return;"
+			+ "    done = true;"
+			+ "    if (observer) observer.disconnect();"
+			+ "    if (poller) clearInterval(poller);"
+			+ "    if (timer) clearTimeout(timer);"
+			+ "    callback(result);"
+			+ "  };"
+			+ "  var probe = function() {"
+			+ "    if (!done && safeCheck()) finish(true);"
+			+ "  };"
+			+ "  if (safeCheck()) {"
+			+ "    finish(true);"
+			+ "    return;"
+			+ "  }"
+			+ "  var Observer = window.MutationObserver || window.WebKitMutationObserver;"
+			+ "  if (watchDom && Observer) {"
+			+ "    observer = new Observer(probe);"
+			+ "    observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+			+ "  } else {"
+			+ "    poller = setInterval(probe, " + IN_PAGE_POLL_INTERVAL + ");"
+			+ "  }"
+			+ "  timer = setTimeout(function() { finish(safeCheck()); }, timeout);"
+			+ "}";
+
+	/**
+	 * Asynchronous script waiting for an element. Arguments: locator type,
+	 * identifier, timeout in milliseconds.
+	 */
+	static final String WAIT_FOR_ELEMENT =
+			"var callback = arguments[arguments.length - 1];"
+			+ "var type = arguments[0], identifier = arguments[1], timeout = arguments[2];"
+			+ LOCATE
+			+ WAIT_FOR
+			+ "waitFor(function() { return locate(type, identifier) != null; }, true, timeout, callback);";
+
+	/**
+	 * Asynchronous script waiting until a script condition returns true.
+	 * Arguments: condition, timeout in milliseconds.
+	 */
+	static final String WAIT_UNTIL =
+			"var callback = arguments[arguments.length - 1];"
+			+ "var condition = new Function('return ' + arguments[0]), timeout = arguments[1];"
+			+ WAIT_FOR
+			+ "waitFor(function() { return String(condition()).toLowerCase() == 'true'; }, false, timeout, callback);";
+
+	/**
+	 * Asynchronous script waiting for the document to be completely loaded.
+	 * Arguments: timeout in milliseconds.
+	 */
+	static final String WAIT_FOR_PAGE_LOAD =
+			"var callback = arguments[arguments.length - 1];"
+			+ "var timeout = arguments[0];"
+			+ WAIT_FOR
+			+ "waitFor(function() { return document.readyState == 'complete'; }, false, timeout, callback);";
+
+	private BrowserScripts() {
+	}
+
+}
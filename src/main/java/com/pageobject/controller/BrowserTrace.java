@@ -0,0 +1,236 @@
+package com.pageobject.controller;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timeline of browser commands, waits and page methods of one test, written
+ * in the Chrome trace-event JSON format, which can be opened by
+ * chrome://tracing or https://ui.perfetto.dev. Every command is a span nested
+ * under the page method issuing it, the test itself is the outermost span.
+ *
+ * <p>
+ * A trace is bound to the thread that started it. Commands are added by
+ * {@link InstrumentedBrowserController}, page methods by {@link PageContext}.
+ * {@link com.pageobject.component.AbstractTest} starts a trace for every test
+ * if property browser.trace.dir is set.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class BrowserTrace {
+
+	/**
+	 * Maximum number of spans kept per trace, further spans are dropped and
+	 * counted.
+	 */
+	public static final int MAX_EVENTS = 100000;
+
+	public static final String CATEGORY_TEST = "test";
+	public static final String CATEGORY_PAGE = "page";
+	public static final String CATEGORY_COMMAND = "command";
+	public static final String CATEGORY_WAIT = "wait";
+
+	private static final ThreadLocal<BrowserTrace> CURRENT = new ThreadLocal<BrowserTrace>();
+
+	private final String name;
+	private final long startNanos = System.nanoTime();
+	private final long threadId;
+	private final String threadName;
+	private final List<Span> spans = new ArrayList<Span>();
+	private int droppedCount;
+	private long endNanos;
+
+	private static final class Span {
+
+		private final String category;
+		private final String name;
+		private final long startNanos;
+		private final long durationNanos;
+		private final String detail;
+
+		Span(String category, String name, long startNanos, long durationNanos, String detail) {
+			this.category = category;
+			this.name = name;
+			this.startNanos = startNanos;
+			this.durationNanos = durationNanos;
+			this.detail = detail;
+		}
+	}
+
+	private BrowserTrace(String name) {
+		this.name = name;
+		Thread thread = Thread.currentThread();
+		this.threadId = thread.getId();
+		this.threadName = thread.getName();
+	}
+
+	/**
+	 * Starts a new trace in the current thread, replacing the trace started
+	 * before.
+	 *
+	 * @param name
+	 *            name of the traced test
+	 * @return the started trace
+	 */
+	public static BrowserTrace start(String name) {
+		BrowserTrace trace = new BrowserTrace(name);
+		CURRENT.set(trace);
+		return trace;
+	}
+
+	/**
+	 * @return the trace of the current thread or <code>null</code> if the
+	 *         thread is not traced
+	 */
+	public static BrowserTrace current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Adds a span to the trace.
+	 *
+	 * @param category
+	 *            kind of the span, e.g. {@link #CATEGORY_COMMAND}
+	 * @param spanName
+	 *            name shown in the timeline
+	 * @param spanStartNanos
+	 *            start of the span by {@link System#nanoTime()}
+	 * @param spanEndNanos
+	 *            end of the span by {@link System#nanoTime()}
+	 * @param detail
+	 *            argument shown with the span, e.g. the locator, or
+	 *            <code>null</code>
+	 */
+	public void addSpan(String category, String spanName, long spanStartNanos, long spanEndNanos, String detail) {
+		if (spans.size() >= MAX_EVENTS) {
+			droppedCount++;
+			return;
+		}
+		spans.add(new Span(category, spanName, spanStartNanos, spanEndNanos - spanStartNanos, detail));
+	}
+
+	/**
+	 * Ends the trace, adds the span of the whole test and detaches the trace
+	 * from the thread.
+	 *
+	 * @param result
+	 *            outcome of the test shown with the test span, e.g. 'passed'
+	 */
+	public void finish(String result) {
+		if (endNanos == 0) {
+			endNanos = System.nanoTime();
+			spans.add(new Span(CATEGORY_TEST, name, startNanos, endNanos - startNanos, result));
+		}
+		if (CURRENT.get() == this) {
+			CURRENT.remove();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return number of spans in the trace
+	 */
+	public int getSpanCount() {
+		return spans.size();
+	}
+
+	/**
+	 * @return number of spans dropped because the trace was full
+	 */
+	public int getDroppedCount() {
+		return droppedCount;
+	}
+
+	/**
+	 * Writes the trace as Chrome trace-event JSON. Spans are complete events
+	 * with timestamps in microseconds from the start of the test, outer spans
+	 * precede the spans nested in them.
+	 *
+	 * @param out
+	 *            writer of the JSON, not closed
+	 * @throws IOException
+	 *             if writing fails
+	 */
+	public void writeTo(Writer out) throws IOException {
+		List<Span> sorted = new ArrayList<Span>(spans);
+		Collections.sort(sorted, new Comparator<Span>() {
+			public int compare(Span o1, Span o2) {
+				if (o1.startNanos != o2.startNanos) {
+					return o1.startNanos < o2.startNanos ? -1 : 1;
+				}
+				return o1.durationNanos > o2.durationNanos ? -1 : (o1.durationNanos == o2.durationNanos ? 0 : 1);
+			}
+		});
+
+		out.write("{\"displayTimeUnit\":\"ms\",\"otherData\":{\"test\":");
+		writeString(out, name);
+		out.write(",\"droppedSpans\":" + droppedCount + "},\"traceEvents\":[\n");
+		out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + threadId + ",\"args\":{\"name\":");
+		writeString(out, threadName);
+		out.write("}}");
+
+		for (Span span : sorted) {
+			out.write(",\n{\"name\":");
+			writeString(out, span.name);
+			out.write(",\"cat\":\"" + span.category + "\",\"ph\":\"X\",\"pid\":1,\"tid\":" + threadId + ",\"ts\":"
+					+ micros(span.startNanos - startNanos) + ",\"dur\":" + micros(span.durationNanos));
+			if (span.detail != null) {
+				out.write(",\"args\":{\"detail\":");
+				writeString(out, span.detail);
+				out.write("}");
+			}
+			out.write("}");
+		}
+		out.write("\n]}\n");
+	}
+
+	private static String micros(long nanos) {
+		return String.format(Locale.ENGLISH, "%.3f", nanos / 1000.0);
+	}
+
+	private static void writeString(Writer out, String value) throws IOException {
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				out.write("\\\"");
+				break;
+			case '\\':
+				out.write("\\\\");
+				break;
+			case '\n':
+				out.write("\\n");
+				break;
+			case '\r':
+				out.write("\\r");
+				break;
+			case '\t':
+				out.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.write(String.format("\\u%04x", (int) c));
+				} else {
+					out.write(c);
+				}
+			}
+		}
+		out.write('"');
+	}
+
+	@Override
+	public String toString() {
+		return "BrowserTrace [name=" + name + ", spans=" + spans.size() + ", dropped=" + droppedCount + "]";
+	}
+
+}
@@ -0,0 +1,319 @@
+package com.pageobject.controller;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Latency histograms of browser commands recorded by
+ * {@link InstrumentedBrowserController}, kept per command, locator type and
+ * calling page class. Recording is lock-free, statistics are merged from the
+ * histograms when they are read.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class CommandMetrics implements CommandMetricsMBean {
+
+	/**
+	 * Shown instead of the locator type of commands without a locator and the
+	 * page of commands called outside of pages.
+	 */
+	public static final String NONE = "-";
+
+	private static Logger logger = LoggerFactory.getLogger(CommandMetrics.class);
+
+	private static final Set<CommandMetrics> INSTANCES = Collections.synchronizedSet(Collections
+			.newSetFromMap(new WeakHashMap<CommandMetrics, Boolean>()));
+
+	private static final AtomicBoolean SUMMARY_AT_EXIT = new AtomicBoolean();
+
+	private final String name;
+
+	private final ConcurrentMap<Key, LatencyHistogram> histograms = new ConcurrentHashMap<Key, LatencyHistogram>();
+
+	private ObjectName objectName;
+
+	/**
+	 * @param name
+	 *            name of the metrics used in the summary and JMX
+	 */
+	public CommandMetrics(String name) {
+		this.name = name;
+		INSTANCES.add(this);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Records one call of a browser command.
+	 *
+	 * @param command
+	 *            name of the command
+	 * @param locatorType
+	 *            type of the locator or <code>null</code>
+	 * @param pageClass
+	 *            class of the calling page or <code>null</code>
+	 * @param nanos
+	 *            latency in nanoseconds
+	 */
+	public void record(String command, LocatorType locatorType, Class<?> pageClass, long nanos) {
+		Key key = new Key(command, locatorType, pageClass);
+		LatencyHistogram histogram = histograms.get(key);
+		if (histogram == null) {
+			LatencyHistogram created = new LatencyHistogram();
+			histogram = histograms.putIfAbsent(key, created);
+			if (histogram == null) {
+				histogram = created;
+			}
+		}
+		histogram.record(nanos);
+	}
+
+	/**
+	 * @return histograms of the commands merged over locator types and pages
+	 */
+	public Map<String, LatencyHistogram> getByCommand() {
+		return group(Grouping.COMMAND);
+	}
+
+	/**
+	 * @return histograms keyed by 'command [LOCATOR_TYPE]'
+	 */
+	public Map<String, LatencyHistogram> getByLocatorType() {
+		return group(Grouping.LOCATOR_TYPE);
+	}
+
+	/**
+	 * @return histograms keyed by 'PageClass.command'
+	 */
+	public Map<String, LatencyHistogram> getByPage() {
+		return group(Grouping.PAGE);
+	}
+
+	private enum Grouping {
+		COMMAND, LOCATOR_TYPE, PAGE
+	}
+
+	private Map<String, LatencyHistogram> group(Grouping grouping) {
+		Map<String, LatencyHistogram> groups = new HashMap<String, LatencyHistogram>();
+		for (Map.Entry<Key, LatencyHistogram> entry : histograms.entrySet()) {
+			Key key = entry.getKey();
+			String group;
+			if (grouping == Grouping.COMMAND) {
+				group = key.command;
+			} else if (grouping == Grouping.LOCATOR_TYPE) {
+				group = key.command + " [" + (key.locatorType == null ? NONE : key.locatorType.name()) + "]";
+			} else {
+				group = (key.pageClass == null ? NONE : key.pageClass.getSimpleName()) + "." + key.command;
+			}
+			LatencyHistogram merged = groups.get(group);
+			if (merged == null) {
+				merged = new LatencyHistogram();
+				groups.put(group, merged);
+			}
+			merged.add(entry.getValue());
+		}
+		return groups;
+	}
+
+	public long getCallCount() {
+		long count = 0;
+		for (LatencyHistogram histogram : histograms.values()) {
+			count += histogram.getCount();
+		}
+		return count;
+	}
+
+	public double getTotalMillis() {
+		long nanos = 0;
+		for (LatencyHistogram histogram : histograms.values()) {
+			nanos += histogram.getTotalNanos();
+		}
+		return nanos / 1e6;
+	}
+
+	public String[] getCommandStatistics() {
+		return format(getByCommand());
+	}
+
+	public String[] getLocatorTypeStatistics() {
+		return format(getByLocatorType());
+	}
+
+	public String[] getPageStatistics() {
+		return format(getByPage());
+	}
+
+	private static String[] format(Map<String, LatencyHistogram> groups) {
+		List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<Map.Entry<String, LatencyHistogram>>(
+				groups.entrySet());
+		Collections.sort(entries, new Comparator<Map.Entry<String, LatencyHistogram>>() {
+			public int compare(Map.Entry<String, LatencyHistogram> o1, Map.Entry<String, LatencyHistogram> o2) {
+				long total1 = o1.getValue().getTotalNanos();
+				long total2 = o2.getValue().getTotalNanos();
+				return total1 < total2 ? 1 : (total1 == total2 ? o1.getKey().compareTo(o2.getKey()) : -1);
+			}
+		});
+
+		String[] lines = new String[entries.size()];
+		for (int i = 0; i < lines.length; i++) {
+			LatencyHistogram histogram = entries.get(i).getValue();
+			lines[i] = String.format("%-48s %8d %11.1f %9.2f %9.2f %9.2f %9.2f", entries.get(i).getKey(),
+					histogram.getCount(), histogram.getTotalNanos() / 1e6, histogram.getPercentileNanos(50) / 1e6,
+					histogram.getPercentileNanos(95) / 1e6, histogram.getPercentileNanos(99) / 1e6,
+					histogram.getMaxNanos() / 1e6);
+		}
+		return lines;
+	}
+
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append("Browser commands of ").append(name).append(": ").append(getCallCount()).append(" calls, ")
+				.append(String.format("%.1f", getTotalMillis())).append(" ms");
+		appendSection(summary, "By command", getCommandStatistics());
+		appendSection(summary, "By locator type", getLocatorTypeStatistics());
+		appendSection(summary, "By page", getPageStatistics());
+		return summary.toString();
+	}
+
+	private static void appendSection(StringBuilder summary, String title, String[] lines) {
+		summary.append('\n').append(String.format("%-48s %8s %11s %9s %9s %9s %9s", title, "calls", "total ms",
+				"p50 ms", "p95 ms", "p99 ms", "max ms"));
+		for (String line : lines) {
+			summary.append('\n').append(line);
+		}
+	}
+
+	public void reset() {
+		histograms.clear();
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server as
+	 * com.pageobject:type=CommandMetrics,name=&lt;name&gt;.
+	 */
+	public synchronized void registerMBean() {
+		if (objectName != null) {
+			return;
+		}
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName candidate = new ObjectName("com.pageobject:type=CommandMetrics,name="
+					+ ObjectName.quote(name));
+			if (server.isRegistered(candidate)) {
+				candidate = new ObjectName("com.pageobject:type=CommandMetrics,name=" + ObjectName.quote(name)
+						+ ",id=" + System.identityHashCode(this));
+			}
+			server.registerMBean(this, candidate);
+			objectName = candidate;
+			logger.info("Browser command metrics registered in JMX as " + objectName);
+		} catch (JMException e) {
+			logger.warn("Unable to register browser command metrics in JMX: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server.
+	 */
+	public synchronized void unregisterMBean() {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			logger.warn("Unable to unregister browser command metrics from JMX: " + e.getMessage());
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Logs the summaries of all metrics with recorded commands.
+	 */
+	public static void logSummaries() {
+		List<CommandMetrics> instances;
+		synchronized (INSTANCES) {
+			instances = new ArrayList<CommandMetrics>(INSTANCES);
+		}
+		for (CommandMetrics metrics : instances) {
+			if (metrics.getCallCount() > 0) {
+				logger.info(metrics.getSummary());
+			}
+		}
+	}
+
+	/**
+	 * Logs the summaries of all metrics once when the JVM exits, so the
+	 * cumulative statistics of a whole test run are logged only once.
+	 * Repeated calls have no effect.
+	 */
+	public static void logSummariesAtExit() {
+		if (SUMMARY_AT_EXIT.compareAndSet(false, true)) {
+			Runtime.getRuntime().addShutdownHook(new Thread("pageobject-metrics-summary") {
+				@Override
+				public void run() {
+					logSummaries();
+				}
+			});
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CommandMetrics [name=" + name + ", calls=" + getCallCount() + ", total="
+				+ String.format("%.1f", getTotalMillis()) + " ms]";
+	}
+
+	private static final class Key {
+
+		private final String command;
+		private final LocatorType locatorType;
+		private final Class<?> pageClass;
+
+		Key(String command, LocatorType locatorType, Class<?> pageClass) {
+			this.command = command;
+			this.locatorType = locatorType;
+			this.pageClass = pageClass;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return command.equals(other.command) && locatorType == other.locatorType && pageClass == other.pageClass;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = command.hashCode();
+			result = 31 * result + (locatorType == null ? 0 : locatorType.hashCode());
+			result = 31 * result + (pageClass == null ? 0 : pageClass.hashCode());
+			return result;
+		}
+	}
+
+}
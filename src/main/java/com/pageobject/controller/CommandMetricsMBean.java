@@ -0,0 +1,48 @@
+package com.pageobject.controller;
+
+/**
+ * JMX view of {@link CommandMetrics}. Statistics are lines with the number of
+ * calls, total time and p50, p95, p99 and max latency in milliseconds, sorted
+ * by total time.
+ *
+ * @author michal.nahlik
+ *
+ */
+public interface CommandMetricsMBean {
+
+	/**
+	 * @return number of all recorded browser commands
+	 */
+	public long getCallCount();
+
+	/**
+	 * @return time spent in all browser commands in milliseconds
+	 */
+	public double getTotalMillis();
+
+	/**
+	 * @return statistics of the commands
+	 */
+	public String[] getCommandStatistics();
+
+	/**
+	 * @return statistics of the commands by locator type
+	 */
+	public String[] getLocatorTypeStatistics();
+
+	/**
+	 * @return statistics of the commands by the page class calling them
+	 */
+	public String[] getPageStatistics();
+
+	/**
+	 * @return all statistics as a table
+	 */
+	public String getSummary();
+
+	/**
+	 * Drops all recorded latencies.
+	 */
+	public void reset();
+
+}
@@ -0,0 +1,116 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.By;
+
+/**
+ * Immutable, parsed representation of a string locator. Holds the locator
+ * type, the identifier without its prefix and the WebDriver {@link By}
+ * created for it, so the string has to be parsed only once.
+ *
+ * @see LocatorCache
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class CompiledLocator {
+
+	private final String locator;
+	private final LocatorType type;
+	private final String identifier;
+	private final By by;
+
+	private CompiledLocator(String locator, LocatorType type, String identifier) {
+		this.locator = locator;
+		this.type = type;
+		this.identifier = identifier;
+		this.by = type.createBy(identifier);
+	}
+
+	/**
+	 * Parses the string representation of a locator.
+	 *
+	 * @param locator
+	 *            the locator of an web element. The locator type can be
+	 *            specified by prefix ('id=', 'name=', 'css=', 'xpath=',
+	 *            'text='). If the identifier type is not specified, it will be
+	 *            taken as it's 'id='.
+	 *
+	 * @return compiled locator
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the locator is <code>null</code> or the locator type was
+	 *             not recognized
+	 */
+	public static CompiledLocator compile(String locator) {
+		if (locator == null) {
+			throw new IllegalArgumentException("Locator must not be null.");
+		}
+
+		int typeIndex = locator.indexOf("=");
+		String identifier = locator.substring(typeIndex + 1);
+
+		if (typeIndex == -1) {
+			return new CompiledLocator(locator, LocatorType.ID, identifier);
+		}
+
+		for (LocatorType type : LocatorType.values()) {
+			if (locator.startsWith(type.getPrefix())) {
+				return new CompiledLocator(locator, type, identifier);
+			}
+		}
+
+		throw new IllegalArgumentException("Locator type was not recognized. Locator type: "
+				+ locator.substring(0, typeIndex) + ". Identifier: " + identifier + ".");
+	}
+
+	/**
+	 * @return the original string representation of the locator
+	 */
+	public String getLocator() {
+		return locator;
+	}
+
+	/**
+	 * @return the locator type
+	 */
+	public LocatorType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the locator without its type prefix
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * @return By locator used by WebDriver
+	 */
+	public By getBy() {
+		return by;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CompiledLocator)) {
+			return false;
+		}
+		CompiledLocator other = (CompiledLocator) obj;
+		return type == other.type && identifier.equals(other.identifier);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * type.hashCode() + identifier.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return type.getPrefix() + identifier;
+	}
+
+}
@@ -0,0 +1,380 @@
+package com.pageobject.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.openqa.selenium.InvalidSelectorException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * CSS selector matched against DOM elements by
+ * {@link HtmlFixtureBrowserController}. Supports the selectors page objects
+ * commonly use: type, universal, id, class and attribute selectors (all
+ * operators), pseudo-classes <code>:first-child</code>,
+ * <code>:last-child</code>, <code>:nth-child(n)</code>, <code>:checked</code>,
+ * <code>:disabled</code>, <code>:enabled</code>, descendant, child and sibling
+ * combinators and selector groups.
+ *
+ * @author michal.nahlik
+ *
+ */
+final class CssSelector {
+
+	private final String selector;
+	private final List<Compound[]> groups = new ArrayList<Compound[]>();
+
+	private CssSelector(String selector) {
+		this.selector = selector;
+	}
+
+	/**
+	 * Parses the selector.
+	 *
+	 * @param selector
+	 *            CSS selector
+	 * @return parsed selector
+	 * @throws InvalidSelectorException
+	 *             if the selector is malformed or uses unsupported features
+	 */
+	static CssSelector parse(String selector) {
+		CssSelector parsed = new CssSelector(selector);
+		new Parser(parsed).parse();
+		return parsed;
+	}
+
+	/**
+	 * @param element
+	 *            DOM element
+	 * @return true if the element matches any selector of the group
+	 */
+	boolean matches(Element element) {
+		for (Compound[] compounds : groups) {
+			if (matches(compounds, compounds.length - 1, element)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Matches the selector from its rightmost compound, combinators are
+	 * followed to the left.
+	 */
+	private static boolean matches(Compound[] compounds, int index, Element element) {
+		Compound compound = compounds[index];
+		if (!compound.matches(element)) {
+			return false;
+		}
+		if (index == 0) {
+			return true;
+		}
+		switch (compound.combinator) {
+		case '>':
+			Element parent = parentElement(element);
+			return parent != null && matches(compounds, index - 1, parent);
+		case '+':
+			Element previous = previousElement(element);
+			return previous != null && matches(compounds, index - 1, previous);
+		case '~':
+			for (Element sibling = previousElement(element); sibling != null; sibling = previousElement(sibling)) {
+				if (matches(compounds, index - 1, sibling)) {
+					return true;
+				}
+			}
+			return false;
+		default:
+			for (Element ancestor = parentElement(element); ancestor != null; ancestor = parentElement(ancestor)) {
+				if (matches(compounds, index - 1, ancestor)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static Element parentElement(Element element) {
+		Node parent = element.getParentNode();
+		return parent instanceof Element ? (Element) parent : null;
+	}
+
+	private static Element previousElement(Node node) {
+		for (Node sibling = node.getPreviousSibling(); sibling != null; sibling = sibling.getPreviousSibling()) {
+			if (sibling instanceof Element) {
+				return (Element) sibling;
+			}
+		}
+		return null;
+	}
+
+	private static Element nextElement(Node node) {
+		for (Node sibling = node.getNextSibling(); sibling != null; sibling = sibling.getNextSibling()) {
+			if (sibling instanceof Element) {
+				return (Element) sibling;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return selector;
+	}
+
+	/**
+	 * Sequence of simple selectors without a combinator, e.g.
+	 * <code>input.large[type=text]</code>. The combinator joins the compound
+	 * with the one on its left.
+	 */
+	private static final class Compound {
+
+		private char combinator = ' ';
+		private String tagName;
+		private final List<String[]> attributes = new ArrayList<String[]>();
+		private final List<String> pseudoClasses = new ArrayList<String>();
+		private final List<Integer> childIndexes = new ArrayList<Integer>();
+
+		boolean isEmpty() {
+			return tagName == null && attributes.isEmpty() && pseudoClasses.isEmpty();
+		}
+
+		boolean matches(Element element) {
+			if (tagName != null && !tagName.equals("*") && !tagName.equalsIgnoreCase(element.getNodeName())) {
+				return false;
+			}
+			for (String[] attribute : attributes) {
+				if (!matchesAttribute(element, attribute[0], attribute[1], attribute[2])) {
+					return false;
+				}
+			}
+			int nth = 0;
+			for (String pseudoClass : pseudoClasses) {
+				if (!matchesPseudoClass(element, pseudoClass, pseudoClass.equals("nth-child") ? childIndexes.get(nth++)
+						: 0)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean matchesAttribute(Element element, String name, String operator, String value) {
+			if (!element.hasAttribute(name)) {
+				return false;
+			}
+			String actual = element.getAttribute(name);
+			if (operator == null) {
+				return true;
+			} else if (operator.equals("=")) {
+				return actual.equals(value);
+			} else if (operator.equals("~=")) {
+				for (String word : actual.trim().split("\\s+")) {
+					if (word.equals(value)) {
+						return true;
+					}
+				}
+				return false;
+			} else if (operator.equals("|=")) {
+				return actual.equals(value) || actual.startsWith(value + "-");
+			} else if (operator.equals("^=")) {
+				return value.length() > 0 && actual.startsWith(value);
+			} else if (operator.equals("$=")) {
+				return value.length() > 0 && actual.endsWith(value);
+			}
+			return value.length() > 0 && actual.contains(value);
+		}
+
+		private static boolean matchesPseudoClass(Element element, String pseudoClass, int childIndex) {
+			if (pseudoClass.equals("first-child")) {
+				return previousElement(element) == null;
+			} else if (pseudoClass.equals("last-child")) {
+				return nextElement(element) == null;
+			} else if (pseudoClass.equals("nth-child")) {
+				int index = 1;
+				for (Element sibling = previousElement(element); sibling != null; sibling = previousElement(sibling)) {
+					index++;
+				}
+				return index == childIndex;
+			} else if (pseudoClass.equals("checked")) {
+				return element.hasAttribute("checked") || element.hasAttribute("selected");
+			} else if (pseudoClass.equals("disabled")) {
+				return element.hasAttribute("disabled");
+			}
+			return !element.hasAttribute("disabled");
+		}
+	}
+
+	private static final class Parser {
+
+		private final CssSelector target;
+		private final String text;
+		private int position;
+
+		Parser(CssSelector target) {
+			this.target = target;
+			this.text = target.selector;
+		}
+
+		void parse() {
+			List<Compound> compounds = new ArrayList<Compound>();
+			Compound compound = new Compound();
+			while (true) {
+				boolean whitespace = skipWhitespace();
+				if (position == text.length() || text.charAt(position) == ',') {
+					if (compound.isEmpty()) {
+						throw invalid("missing selector");
+					}
+					compounds.add(compound);
+					target.groups.add(compounds.toArray(new Compound[compounds.size()]));
+					if (position == text.length()) {
+						return;
+					}
+					position++;
+					compounds = new ArrayList<Compound>();
+					compound = new Compound();
+					continue;
+				}
+
+				char c = text.charAt(position);
+				if (c == '>' || c == '+' || c == '~' || (whitespace && !compound.isEmpty())) {
+					if (compound.isEmpty()) {
+						throw invalid("combinator without a selector");
+					}
+					compounds.add(compound);
+					compound = new Compound();
+					if (c == '>' || c == '+' || c == '~') {
+						compound.combinator = c;
+						position++;
+					}
+					continue;
+				}
+
+				if (c == '#') {
+					position++;
+					compound.attributes.add(new String[] { "id", "=", identifier() });
+				} else if (c == '.') {
+					position++;
+					compound.attributes.add(new String[] { "class", "~=", identifier() });
+				} else if (c == '[') {
+					position++;
+					compound.attributes.add(attribute());
+				} else if (c == ':') {
+					position++;
+					pseudoClass(compound);
+				} else if (c == '*' || isIdentifierChar(c)) {
+					if (compound.tagName != null || !compound.isEmpty()) {
+						throw invalid("unexpected type selector");
+					}
+					if (c == '*') {
+						position++;
+						compound.tagName = "*";
+					} else {
+						compound.tagName = identifier().toLowerCase(Locale.ENGLISH);
+					}
+				} else {
+					throw invalid("unexpected character '" + c + "'");
+				}
+			}
+		}
+
+		private String[] attribute() {
+			skipWhitespace();
+			String name = identifier().toLowerCase(Locale.ENGLISH);
+			skipWhitespace();
+			if (peek() == ']') {
+				position++;
+				return new String[] { name, null, null };
+			}
+
+			int start = position;
+			while (position < text.length() && "~|^$*".indexOf(text.charAt(position)) != -1) {
+				position++;
+			}
+			if (peek() != '=') {
+				throw invalid("unknown attribute operator");
+			}
+			position++;
+			String operator = text.substring(start, position);
+			if (operator.length() > 2) {
+				throw invalid("unknown attribute operator " + operator);
+			}
+
+			skipWhitespace();
+			String value;
+			char quote = peek();
+			if (quote == '"' || quote == '\'') {
+				int end = text.indexOf(quote, position + 1);
+				if (end == -1) {
+					throw invalid("unterminated string");
+				}
+				value = text.substring(position + 1, end);
+				position = end + 1;
+			} else {
+				value = identifier();
+			}
+			skipWhitespace();
+			if (peek() != ']') {
+				throw invalid("unterminated attribute selector");
+			}
+			position++;
+			return new String[] { name, operator, value };
+		}
+
+		private void pseudoClass(Compound compound) {
+			String name = identifier().toLowerCase(Locale.ENGLISH);
+			if (name.equals("nth-child")) {
+				if (peek() != '(') {
+					throw invalid("missing argument of :nth-child");
+				}
+				int end = text.indexOf(')', position);
+				if (end == -1) {
+					throw invalid("unterminated :nth-child");
+				}
+				String argument = text.substring(position + 1, end).trim();
+				try {
+					compound.childIndexes.add(Integer.valueOf(argument));
+				} catch (NumberFormatException e) {
+					throw invalid(":nth-child(" + argument + ") is not supported, use a number");
+				}
+				position = end + 1;
+			} else if (!name.equals("first-child") && !name.equals("last-child") && !name.equals("checked")
+					&& !name.equals("disabled") && !name.equals("enabled")) {
+				throw invalid("pseudo-class :" + name + " is not supported");
+			}
+			compound.pseudoClasses.add(name);
+		}
+
+		private String identifier() {
+			int start = position;
+			while (position < text.length() && isIdentifierChar(text.charAt(position))) {
+				position++;
+			}
+			if (start == position) {
+				throw invalid("identifier expected");
+			}
+			return text.substring(start, position);
+		}
+
+		private static boolean isIdentifierChar(char c) {
+			return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+		}
+
+		private boolean skipWhitespace() {
+			int start = position;
+			while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+				position++;
+			}
+			return position > start;
+		}
+
+		private char peek() {
+			return position < text.length() ? text.charAt(position) : '\0';
+		}
+
+		private InvalidSelectorException invalid(String reason) {
+			return new InvalidSelectorException("Unable to parse CSS selector '" + text + "' at position "
+					+ position + ": " + reason + ".");
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.pageobject.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.WebElement;
+
+/**
+ * Cache of resolved web elements keyed by {@link CompiledLocator}. The handles
+ * are valid only within the current document, so the cache has to be
+ * invalidated whenever the document may have changed (a page is opened,
+ * refreshed, clicked on or another window is selected).
+ *
+ * <p>
+ * The cache is bounded, the least recently used elements are dropped when it
+ * is full.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class ElementCache {
+
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	private final Map<CompiledLocator, WebElement> elements;
+
+	private long hits;
+	private long misses;
+	private long staleElements;
+	private long invalidations;
+
+	public ElementCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param maxSize
+	 *            maximum number of element handles kept in the cache
+	 */
+	public ElementCache(final int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size of the element cache has to be positive: " + maxSize);
+		}
+		this.elements = new LinkedHashMap<CompiledLocator, WebElement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CompiledLocator, WebElement> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns cached element handle.
+	 *
+	 * @param locator
+	 *            compiled locator of the element
+	 * @return element handle or <code>null</code> if it is not cached
+	 */
+	public synchronized WebElement get(CompiledLocator locator) {
+		WebElement element = elements.get(locator);
+		if (element != null) {
+			hits++;
+		} else {
+			misses++;
+		}
+		return element;
+	}
+
+	/**
+	 * Stores the element handle found for the locator.
+	 *
+	 * @param locator
+	 *            compiled locator of the element
+	 * @param element
+	 *            resolved element
+	 */
+	public synchronized void put(CompiledLocator locator, WebElement element) {
+		elements.put(locator, element);
+	}
+
+	/**
+	 * Removes the handle which turned out to be stale.
+	 *
+	 * @param locator
+	 *            compiled locator of the stale element
+	 */
+	public synchronized void evictStale(CompiledLocator locator) {
+		if (elements.remove(locator) != null) {
+			staleElements++;
+		}
+	}
+
+	/**
+	 * Removes all cached handles, should be called whenever the current
+	 * document may have changed.
+	 */
+	public synchronized void invalidate() {
+		if (!elements.isEmpty()) {
+			elements.clear();
+			invalidations++;
+		}
+	}
+
+	/**
+	 * @return current number of cached element handles
+	 */
+	public synchronized int size() {
+		return elements.size();
+	}
+
+	/**
+	 * @return how many times the element was found in the cache
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * @return how many times the element had to be looked up in the browser
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * @return how many cached handles turned out to be stale
+	 */
+	public synchronized long getStaleCount() {
+		return staleElements;
+	}
+
+	/**
+	 * @return how many times the cache was invalidated
+	 */
+	public synchronized long getInvalidationCount() {
+		return invalidations;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ElementCache [size=" + elements.size() + ", hits=" + hits + ", misses=" + misses + ", stale="
+				+ staleElements + ", invalidations=" + invalidations + "]";
+	}
+
+}
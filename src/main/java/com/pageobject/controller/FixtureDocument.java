@@ -0,0 +1,356 @@
+package com.pageobject.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.cyberneko.html.parsers.DOMParser;
+import org.openqa.selenium.InvalidSelectorException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * HTML document parsed into an in-memory DOM, the content of a window of
+ * {@link HtmlFixtureBrowserController}. Element names are lower case and
+ * there are no namespaces, so XPath locators written for a browser work
+ * unchanged. The parser adds the implied elements a browser adds, e.g.
+ * <code>tbody</code> of tables.
+ *
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @author michal.nahlik
+ *
+ */
+final class FixtureDocument {
+
+	/**
+	 * Maximum number of compiled XPath expressions cached per parser.
+	 */
+	static final int MAX_XPATH_EXPRESSIONS = 256;
+
+	private static final Pattern WHITESPACE = Pattern.compile("[ \\t\\n\\r\\f]+");
+
+	private static final Pattern SPACES = Pattern.compile(" {2,}");
+
+	private static final Pattern HIDDEN_STYLE = Pattern
+			.compile("(?i)(display\\s*:\\s*none|visibility\\s*:\\s*hidden)");
+
+	private static final List<String> HIDDEN_ELEMENTS = Arrays.asList("head", "script", "style",
+			"noscript", "template", "title");
+
+	private static final List<String> BLOCK_ELEMENTS = Arrays.asList("address", "article", "aside",
+			"blockquote", "caption", "dd", "div", "dl", "dt", "fieldset", "figcaption", "figure", "footer", "form",
+			"h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li", "main", "nav", "ol", "option", "p", "pre",
+			"section", "table", "tbody", "tfoot", "thead", "tr", "ul");
+
+	private final String url;
+	private final Document document;
+
+	FixtureDocument(String url, Document document) {
+		this.url = url;
+		this.document = document;
+	}
+
+	/**
+	 * @return URL the document was opened from
+	 */
+	String getUrl() {
+		return url;
+	}
+
+	Document getDocument() {
+		return document;
+	}
+
+	/**
+	 * @return a deep copy of the document opened from another URL
+	 */
+	FixtureDocument copy(String copyUrl) {
+		return new FixtureDocument(copyUrl, (Document) document.cloneNode(true));
+	}
+
+	/**
+	 * @return text of the <code>title</code> element, empty if there is none
+	 */
+	String getTitle() {
+		NodeList titles = document.getElementsByTagName("title");
+		if (titles.getLength() == 0) {
+			return "";
+		}
+		return WHITESPACE.matcher(titles.item(0).getTextContent()).replaceAll(" ").trim();
+	}
+
+	/**
+	 * @return the body of the document, or its root element if there is no
+	 *         body
+	 */
+	Element getBody() {
+		NodeList bodies = document.getElementsByTagName("body");
+		return bodies.getLength() > 0 ? (Element) bodies.item(0) : document.getDocumentElement();
+	}
+
+	/**
+	 * Finds all elements matching the locator in document order, the same
+	 * elements WebDriver finds by {@link CompiledLocator#getBy()}.
+	 *
+	 * @param locator
+	 *            compiled locator
+	 * @param parser
+	 *            parser of XPath locators
+	 * @return matching elements, empty if there are none
+	 * @throws InvalidSelectorException
+	 *             if an XPath or CSS locator is malformed
+	 */
+	List<Element> findAll(CompiledLocator locator, Parser parser) {
+		String identifier = locator.getIdentifier();
+		switch (locator.getType()) {
+		case XPATH:
+			return evaluate(parser.compileXPath(identifier));
+		case CSS:
+			return select(new ArrayList<Element>(), document.getDocumentElement(), CssSelector.parse(identifier),
+					null, null);
+		case TEXT:
+			List<Element> links = new ArrayList<Element>();
+			NodeList anchors = document.getElementsByTagName("a");
+			for (int i = 0; i < anchors.getLength(); i++) {
+				Element anchor = (Element) anchors.item(i);
+				if (getText(anchor).equals(identifier.trim())) {
+					links.add(anchor);
+				}
+			}
+			return links;
+		case NAME:
+			return select(new ArrayList<Element>(), document.getDocumentElement(), null, "name", identifier);
+		default:
+			return select(new ArrayList<Element>(), document.getDocumentElement(), null, "id", identifier);
+		}
+	}
+
+	/**
+	 * @return the first element matching the locator or <code>null</code>
+	 */
+	Element find(CompiledLocator locator, Parser parser) {
+		List<Element> elements = findAll(locator, parser);
+		return elements.isEmpty() ? null : elements.get(0);
+	}
+
+	private List<Element> evaluate(XPathExpression expression) {
+		NodeList nodes;
+		try {
+			nodes = (NodeList) expression.evaluate(document, XPathConstants.NODESET);
+		} catch (XPathExpressionException e) {
+			throw new InvalidSelectorException("XPath expression doesn't select elements: " + e.getMessage());
+		}
+		List<Element> elements = new ArrayList<Element>(nodes.getLength());
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i) instanceof Element) {
+				elements.add((Element) nodes.item(i));
+			}
+		}
+		return elements;
+	}
+
+	/**
+	 * Collects elements in document order that match the CSS selector or have
+	 * the attribute value.
+	 */
+	private static List<Element> select(List<Element> result, Element element, CssSelector selector,
+			String attributeName, String attributeValue) {
+		if (selector != null ? selector.matches(element) : attributeValue.equals(element.getAttribute(attributeName))) {
+			result.add(element);
+		}
+		for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child instanceof Element) {
+				select(result, (Element) child, selector, attributeName, attributeValue);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the rendered text of the element the way WebDriver's
+	 * <code>getText()</code> does without a layout engine: hidden elements are
+	 * skipped, block elements start new lines, table cells are separated by
+	 * spaces, whitespace is collapsed and lines are trimmed.
+	 *
+	 * @param element
+	 *            DOM element
+	 * @return visible text, empty if the element is hidden
+	 */
+	static String getText(Element element) {
+		for (Node node = element; node instanceof Element; node = node.getParentNode()) {
+			if (isHidden((Element) node)) {
+				return "";
+			}
+		}
+
+		StringBuilder builder = new StringBuilder();
+		render(element, builder);
+
+		StringBuilder text = new StringBuilder(builder.length());
+		for (String line : builder.toString().split("\n")) {
+			line = SPACES.matcher(line).replaceAll(" ").trim();
+			if (line.length() > 0) {
+				if (text.length() > 0) {
+					text.append('\n');
+				}
+				text.append(line);
+			}
+		}
+		return text.toString();
+	}
+
+	private static void render(Node node, StringBuilder builder) {
+		for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.TEXT_NODE || child.getNodeType() == Node.CDATA_SECTION_NODE) {
+				builder.append(WHITESPACE.matcher(child.getNodeValue()).replaceAll(" ").replace('\u00a0', ' '));
+			} else if (child instanceof Element) {
+				Element element = (Element) child;
+				String name = element.getNodeName();
+				if (isHidden(element)) {
+					continue;
+				}
+				if (name.equals("br")) {
+					builder.append('\n');
+					continue;
+				}
+				boolean block = BLOCK_ELEMENTS.contains(name);
+				if (block) {
+					builder.append('\n');
+				}
+				render(element, builder);
+				if (block) {
+					builder.append('\n');
+				} else if (name.equals("td") || name.equals("th")) {
+					builder.append(' ');
+				}
+			}
+		}
+	}
+
+	private static boolean isHidden(Element element) {
+		return HIDDEN_ELEMENTS.contains(element.getNodeName()) || element.hasAttribute("hidden")
+				|| (element.getNodeName().equals("input") && "hidden".equalsIgnoreCase(element.getAttribute("type")))
+				|| HIDDEN_STYLE.matcher(element.getAttribute("style")).find();
+	}
+
+	/**
+	 * @return text content of the body including hidden elements
+	 */
+	String getRawText() {
+		return getBody().getTextContent().replace('\u00a0', ' ');
+	}
+
+	/**
+	 * @return the document serialized as HTML
+	 */
+	String getSource() {
+		try {
+			Transformer transformer = TransformerFactory.newInstance().newTransformer();
+			transformer.setOutputProperty(OutputKeys.METHOD, "html");
+			StringWriter writer = new StringWriter();
+			transformer.transform(new DOMSource(document), new StreamResult(writer));
+			return writer.toString();
+		} catch (TransformerException e) {
+			throw new IllegalStateException("Unable to serialize the document " + url, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FixtureDocument [url=" + url + "]";
+	}
+
+	/**
+	 * Parser of HTML fixtures and XPath locators, reused for all documents of
+	 * one browser.
+	 */
+	static final class Parser {
+
+		private final DOMParser htmlParser = new DOMParser();
+
+		private final XPath xpath = XPathFactory.newInstance().newXPath();
+
+		private final Map<String, XPathExpression> expressions = new LinkedHashMap<String, XPathExpression>(16,
+				0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+				return size() > MAX_XPATH_EXPRESSIONS;
+			}
+		};
+
+		Parser() {
+			try {
+				htmlParser.setFeature("http://xml.org/sax/features/namespaces", false);
+				htmlParser.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+				htmlParser.setProperty("http://cyberneko.org/html/properties/names/elems", "lower");
+				htmlParser.setProperty("http://cyberneko.org/html/properties/names/attrs", "lower");
+				htmlParser.setProperty("http://cyberneko.org/html/properties/default-encoding", "UTF-8");
+				htmlParser.setProperty("http://apache.org/xml/properties/dom/document-class-name",
+						"org.apache.xerces.dom.DocumentImpl");
+			} catch (SAXException e) {
+				throw new IllegalStateException("Unable to configure the HTML parser", e);
+			}
+		}
+
+		/**
+		 * Parses the HTML document.
+		 *
+		 * @param url
+		 *            URL the document is opened from
+		 * @param html
+		 *            content of the document, closed by the caller
+		 * @return parsed document
+		 */
+		FixtureDocument parse(String url, InputStream html) throws IOException {
+			InputSource source = new InputSource(html);
+			source.setSystemId(url);
+			try {
+				htmlParser.parse(source);
+			} catch (SAXException e) {
+				throw new IOException("Unable to parse HTML " + url, e);
+			}
+			return new FixtureDocument(url, htmlParser.getDocument());
+		}
+
+		XPathExpression compileXPath(String expression) {
+			XPathExpression compiled = expressions.get(expression);
+			if (compiled == null) {
+				try {
+					compiled = xpath.compile(expression);
+				} catch (XPathExpressionException e) {
+					throw new InvalidSelectorException("Unable to compile XPath expression '" + expression + "': "
+							+ e.getMessage());
+				}
+				expressions.put(expression, compiled);
+			}
+			return compiled;
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.pageobject.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ordered map of form fields and values that should be filled in by
+ * {@link BrowserController#fillForm(FormData)}. Fields are filled in the order
+ * they were added. Adding the same locator again replaces its value but keeps
+ * its position.
+ *
+ * <pre>
+ * browser.fillForm(new FormData()
+ * 		.type("name=firstName", "John")
+ * 		.type("name=lastName", "Doe")
+ * 		.select("name=country", "label=Czech Republic")
+ * 		.typeNatively("id=autocomplete", "Prague"));
+ * </pre>
+ *
+ * @author michal.nahlik
+ *
+ */
+public class FormData {
+
+	/**
+	 * What should be done with a field.
+	 */
+	public enum Action {
+
+		/**
+		 * Adds the value after the actual value of the field, see
+		 * {@link BrowserController#type(String, String)}.
+		 */
+		TYPE,
+
+		/**
+		 * Selects an option of a drop-down, see
+		 * {@link BrowserController#select(String, String)}.
+		 */
+		SELECT
+	}
+
+	/**
+	 * One field of the form.
+	 */
+	public static final class Field {
+
+		private final String locator;
+		private final Action action;
+		private final String value;
+		private final boolean nativeTyping;
+
+		private Field(String locator, Action action, String value, boolean nativeTyping) {
+			this.locator = locator;
+			this.action = action;
+			this.value = value;
+			this.nativeTyping = nativeTyping;
+		}
+
+		public String getLocator() {
+			return locator;
+		}
+
+		public Action getAction() {
+			return action;
+		}
+
+		/**
+		 * @return value to type or option to select
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * @return true if the field needs real keystrokes and can't be filled
+		 *         in by a script
+		 */
+		public boolean isNativeTyping() {
+			return nativeTyping;
+		}
+
+		@Override
+		public String toString() {
+			return locator + (action == Action.SELECT ? " <- " : " += ") + value + (nativeTyping ? " (native)" : "");
+		}
+	}
+
+	private final Map<String, Field> fields = new LinkedHashMap<String, Field>();
+
+	/**
+	 * Adds the value to type into an input field if the value is not
+	 * <code>null</code>.
+	 *
+	 * @param locator
+	 *            the locator of an web element. The locator type can be
+	 *            specified by prefix ('id=', 'name=', 'css=', 'xpath=',
+	 *            'text='). If the identifier type is not specified, it will be
+	 *            taken as it's 'id='.
+	 * @param value
+	 *            value to type
+	 * @return this form data
+	 */
+	public FormData type(String locator, String value) {
+		return add(locator, Action.TYPE, value, false);
+	}
+
+	/**
+	 * Adds the value to type into an input field using real keystrokes if the
+	 * value is not <code>null</code>. Use it for fields reacting on key events,
+	 * e.g. auto-completion.
+	 *
+	 * @param locator
+	 *            the locator of an web element
+	 * @param value
+	 *            value to type
+	 * @return this form data
+	 */
+	public FormData typeNatively(String locator, String value) {
+		return add(locator, Action.TYPE, value, true);
+	}
+
+	/**
+	 * Adds the option to select in a drop-down if the option is not
+	 * <code>null</code>.
+	 *
+	 * @param locator
+	 *            the locator of an web element
+	 * @param option
+	 *            the value to be selected, the value can be specified by prefix
+	 *            ('label=' - the visible text, 'value=' - the option value,
+	 *            'index=' - index of the option). If the type is not specified
+	 *            it will taken as 'value='.
+	 * @return this form data
+	 */
+	public FormData select(String locator, String option) {
+		return add(locator, Action.SELECT, option, false);
+	}
+
+	private FormData add(String locator, Action action, String value, boolean nativeTyping) {
+		if (locator == null) {
+			throw new IllegalArgumentException("Locator must not be null.");
+		}
+		if (value != null) {
+			fields.put(locator, new Field(locator, action, value, nativeTyping));
+		}
+		return this;
+	}
+
+	/**
+	 * @return fields in the order they should be filled in
+	 */
+	public List<Field> getFields() {
+		return Collections.unmodifiableList(new ArrayList<Field>(fields.values()));
+	}
+
+	/**
+	 * @return number of fields
+	 */
+	public int size() {
+		return fields.size();
+	}
+
+	public boolean isEmpty() {
+		return fields.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "FormData " + fields.values();
+	}
+
+}
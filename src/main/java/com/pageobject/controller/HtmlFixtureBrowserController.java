@@ -0,0 +1,922 @@
+package com.pageobject.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.support.ui.UnexpectedTagNameException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * BrowserController working with static HTML fixtures parsed into an in-memory
+ * DOM, no browser process is started. Page objects and table controls can be
+ * tested against saved pages thousands of times per second.
+ *
+ * <pre>
+ * &lt;bean id="browser" class="com.pageobject.controller.HtmlFixtureBrowserController"&gt;
+ *     &lt;property name="fixtureBase" value="classpath:fixtures"/&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * Opened URLs are mapped to fixtures: the path of an http(s) URL is appended
+ * to the fixture base (property browser.fixture.base, default is the root of
+ * the classpath), other URLs are Spring resource locations. If there is no
+ * resource for a path without a file extension, '.html' is appended, a path
+ * ending with '/' gets 'index.html'. The page keeps the opened URL as its
+ * current URL, so page validation works the same as in a browser.
+ *
+ * <p>
+ * Locators are evaluated the same way as by {@link WebDriverBrowserImpl}:
+ * XPath by javax.xml.xpath, CSS by {@link CssSelector}, which supports the
+ * common subset of CSS. The user's actions are simulated on the DOM: typing
+ * and clearing changes the value of input fields and text areas, clicking
+ * checks check boxes and radio buttons, selects options and follows links and
+ * form submits (without parameters) including their target windows, selecting
+ * changes the selected options. There is no javascript, so
+ * {@link #executeScript(String)}, {@link #evaluateScript(String, Object...)}
+ * and {@link #waitUntil(String, long)} throw
+ * {@link UnsupportedOperationException} and
+ * {@link com.pageobject.util.TableControl} reads tables cell by cell. The
+ * document never changes by itself, so waits return immediately.
+ *
+ * <p>
+ * Instances are not thread-safe, use one browser per thread, e.g. by
+ * {@link PooledBrowserController} or the thread scope.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class HtmlFixtureBrowserController implements BrowserController {
+
+	/**
+	 * Maximum number of parsed fixtures cached by one browser.
+	 */
+	public static final int MAX_CACHED_FIXTURES = 64;
+
+	private static final String WINDOW_HANDLE_PREFIX = "fixture-window-";
+
+	protected Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Value("${browser.timeout:30000}")
+	private long timeout = 30000;
+
+	private String fixtureBase = "classpath:";
+
+	private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+	private LocatorCache locatorCache = new LocatorCache();
+
+	private final FixtureDocument.Parser parser = new FixtureDocument.Parser();
+
+	private final Map<String, FixtureDocument> fixtures = new LinkedHashMap<String, FixtureDocument>(16, 0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, FixtureDocument> eldest) {
+			return size() > MAX_CACHED_FIXTURES;
+		}
+	};
+
+	private final Map<String, Window> windows = new LinkedHashMap<String, Window>();
+
+	private Window currentWindow;
+
+	private int windowCount;
+
+	private long navigationEpoch;
+
+	private long parseCount;
+
+	/**
+	 * Opened window with its document.
+	 */
+	private static final class Window {
+
+		private final String handle;
+		private final String name;
+		private FixtureDocument document;
+
+		Window(String handle, String name) {
+			this.handle = handle;
+			this.name = name;
+		}
+
+		WindowInfo toWindowInfo() {
+			return new WindowInfo(handle, document == null ? "" : document.getTitle(), name, true);
+		}
+	}
+
+	/**
+	 * Sets up the location the paths of opened http(s) URLs are resolved
+	 * against, e.g. 'classpath:fixtures' or 'file:src/test/fixtures'. Can be
+	 * specified by property browser.fixture.base, default is the root of the
+	 * classpath.
+	 *
+	 * @param fixtureBase
+	 *            Spring resource location
+	 */
+	@Value("${browser.fixture.base:classpath:}")
+	public void setFixtureBase(String fixtureBase) {
+		this.fixtureBase = StringUtils.trimTrailingCharacter(fixtureBase, '/');
+	}
+
+	public String getFixtureBase() {
+		return fixtureBase;
+	}
+
+	/**
+	 * Sets up the loader of fixtures, by default the fixtures are loaded by
+	 * {@link DefaultResourceLoader}.
+	 *
+	 * @param resourceLoader
+	 *            loader of fixture resources
+	 */
+	public void setResourceLoader(ResourceLoader resourceLoader) {
+		this.resourceLoader = resourceLoader;
+	}
+
+	/**
+	 * Sets up the maximum number of parsed locators that are cached. Can be
+	 * specified by property browser.locator.cache.size, default is 1024.
+	 *
+	 * @param size
+	 *            maximum number of cached locators
+	 */
+	@Value("${browser.locator.cache.size:" + LocatorCache.DEFAULT_MAX_SIZE + "}")
+	public void setLocatorCacheSize(int size) {
+		this.locatorCache = new LocatorCache(size);
+	}
+
+	public LocatorCache getLocatorCache() {
+		return locatorCache;
+	}
+
+	/**
+	 * @return number of fixtures parsed by this browser, a fixture opened
+	 *         again is copied from the cache
+	 */
+	public long getParseCount() {
+		return parseCount;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Maps the URL to the location of its fixture.
+	 *
+	 * @param url
+	 *            opened URL
+	 * @return Spring resource location
+	 */
+	protected String getFixtureLocation(String url) {
+		String location = url;
+		int end = location.length();
+		for (char separator : new char[] { '#', '?' }) {
+			int index = location.indexOf(separator);
+			if (index != -1 && index < end) {
+				end = index;
+			}
+		}
+		location = location.substring(0, end);
+
+		if (location.startsWith("http://") || location.startsWith("https://")) {
+			int pathStart = location.indexOf('/', location.indexOf("//") + 2);
+			String path = pathStart == -1 ? "/" : location.substring(pathStart);
+			return fixtureBase + path;
+		}
+		if (location.indexOf(':') > 1) {
+			return location;
+		}
+		return fixtureBase + (location.startsWith("/") ? "" : "/") + location;
+	}
+
+	/**
+	 * Returns the document of the URL, parsed fixtures are copied from the
+	 * cache.
+	 */
+	private FixtureDocument load(String url) {
+		String location = getFixtureLocation(url);
+		FixtureDocument fixture = fixtures.get(location);
+		if (fixture == null) {
+			Resource resource = findResource(location);
+			if (resource == null) {
+				throw new IllegalArgumentException("There is no HTML fixture for URL " + url + " at " + location
+						+ ". The fixture base can be specified by property browser.fixture.base.");
+			}
+			fixture = parse(url, resource);
+			fixtures.put(location, fixture);
+		}
+		return fixture.copy(url);
+	}
+
+	private Resource findResource(String location) {
+		List<String> candidates = new ArrayList<String>(2);
+		if (location.endsWith("/") || location.endsWith(":")) {
+			candidates.add(location + "index.html");
+		} else {
+			candidates.add(location);
+			if (StringUtils.getFilenameExtension(location) == null) {
+				candidates.add(location + ".html");
+			}
+		}
+
+		for (String candidate : candidates) {
+			Resource resource = resourceLoader.getResource(candidate);
+			if (resource.exists()) {
+				return resource;
+			}
+		}
+		return null;
+	}
+
+	private FixtureDocument parse(String url, Resource resource) {
+		try {
+			InputStream in = resource.getInputStream();
+			try {
+				parseCount++;
+				logger.debug("Parsing HTML fixture " + resource.getDescription());
+				return parser.parse(url, in);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to read HTML fixture " + resource.getDescription()
+					+ " for URL " + url, e);
+		}
+	}
+
+	/**
+	 * Resolves a link of the current document against its URL.
+	 */
+	private String resolve(String href) {
+		String base = document().getUrl();
+		if (href.indexOf(':') > 1 && !href.startsWith("/")) {
+			return href;
+		}
+		try {
+			URI baseUri = new URI(base);
+			if (!baseUri.isOpaque()) {
+				return baseUri.resolve(href).toString();
+			}
+		} catch (URISyntaxException e) {
+			logger.debug("URL " + base + " is not an URI, resolving " + href + " as a path.");
+		} catch (IllegalArgumentException e) {
+			logger.debug("Link " + href + " is not an URI, resolving it as a path.");
+		}
+		if (href.startsWith("/")) {
+			return base.substring(0, base.indexOf(':') + 1) + href;
+		}
+		return StringUtils.applyRelativePath(base, href);
+	}
+
+	/**
+	 * Called whenever the current document may have changed.
+	 */
+	private void documentChanged() {
+		navigationEpoch++;
+	}
+
+	private Window window() {
+		if (currentWindow == null) {
+			throw new NoSuchWindowException("No window is selected, open a page or select a window first.");
+		}
+		return currentWindow;
+	}
+
+	private FixtureDocument document() {
+		Window window = window();
+		if (window.document == null) {
+			throw new NoSuchWindowException("No page is opened in window " + window.handle + ".");
+		}
+		return window.document;
+	}
+
+	private Window openWindow(String name) {
+		Window window = new Window(WINDOW_HANDLE_PREFIX + (++windowCount), name);
+		windows.put(window.handle, window);
+		return window;
+	}
+
+	private void navigate(Window window, String url) {
+		FixtureDocument document = load(url);
+		window.document = document;
+		documentChanged();
+	}
+
+	private Element findElement(String locator) {
+		Element element = document().find(locatorCache.compile(locator), parser);
+		if (element == null) {
+			throw new NoSuchElementException("Unable to locate element: " + locator);
+		}
+		return element;
+	}
+
+	private List<Element> findElements(String locator) {
+		return document().findAll(locatorCache.compile(locator), parser);
+	}
+
+	public void open(String url) {
+		if (currentWindow == null) {
+			currentWindow = openWindow("");
+		}
+		navigate(currentWindow, url);
+	}
+
+	public void openAndSelectWindow(String url) {
+		Window window = openWindow("");
+		navigate(window, url);
+		currentWindow = window;
+	}
+
+	public void type(String locator, String value) {
+		Element element = findElement(locator);
+		checkEditable(element);
+		setValue(element, getValue(element) + value);
+	}
+
+	public void clear(String locator) {
+		Element element = findElement(locator);
+		checkEditable(element);
+		setValue(element, "");
+	}
+
+	private void checkEditable(Element element) {
+		String name = element.getNodeName();
+		boolean editable = name.equals("textarea")
+				|| (name.equals("input") && !element.getAttribute("type").toLowerCase().matches(
+						"checkbox|radio|submit|reset|button|image|hidden|file"));
+		if (!editable) {
+			throw new InvalidElementStateException("Element <" + name + "> is not editable.");
+		}
+		if (element.hasAttribute("disabled") || element.hasAttribute("readonly")) {
+			throw new InvalidElementStateException("Element <" + name + "> is disabled or read only.");
+		}
+	}
+
+	/**
+	 * Returns the current value of the form field, as the DOM property
+	 * <code>value</code>.
+	 */
+	private static String getValue(Element element) {
+		String name = element.getNodeName();
+		if (name.equals("textarea")) {
+			return element.getTextContent();
+		} else if (name.equals("select")) {
+			List<Element> selected = getSelectedOptions(element);
+			return selected.isEmpty() ? "" : getValue(selected.get(0));
+		} else if (name.equals("option") && !element.hasAttribute("value")) {
+			return FixtureDocument.getText(element);
+		}
+		return element.getAttribute("value");
+	}
+
+	private static void setValue(Element element, String value) {
+		if (element.getNodeName().equals("textarea")) {
+			element.setTextContent(value);
+		} else {
+			element.setAttribute("value", value);
+		}
+	}
+
+	public void click(String locator) {
+		try {
+			Element element = findElement(locator);
+			if (!element.hasAttribute("disabled")) {
+				activate(element);
+			}
+		} finally {
+			documentChanged();
+		}
+	}
+
+	/**
+	 * Simulates the default action of a click on the element.
+	 */
+	private void activate(Element element) {
+		String name = element.getNodeName();
+		String type = element.getAttribute("type").toLowerCase();
+
+		if (name.equals("input") && type.equals("checkbox")) {
+			toggle(element, "checked", !element.hasAttribute("checked"));
+		} else if (name.equals("input") && type.equals("radio")) {
+			Element form = getAncestor(element, "form");
+			NodeList inputs = (form == null ? element.getOwnerDocument().getDocumentElement() : form)
+					.getElementsByTagName("input");
+			for (int i = 0; i < inputs.getLength(); i++) {
+				Element input = (Element) inputs.item(i);
+				if ("radio".equalsIgnoreCase(input.getAttribute("type"))
+						&& input.getAttribute("name").equals(element.getAttribute("name"))) {
+					toggle(input, "checked", input == element);
+				}
+			}
+		} else if (name.equals("option")) {
+			Element select = getAncestor(element, "select");
+			if (select != null) {
+				selectOption(select, element);
+			}
+		} else if (getAncestor(element, "a") != null && getAncestor(element, "a").hasAttribute("href")) {
+			Element link = getAncestor(element, "a");
+			follow(link.getAttribute("href"), link.getAttribute("target"));
+		} else if ((name.equals("input") && (type.equals("submit") || type.equals("image")))
+				|| (name.equals("button") && (type.length() == 0 || type.equals("submit")))) {
+			Element form = getAncestor(element, "form");
+			if (form != null && form.hasAttribute("action")) {
+				follow(form.getAttribute("action"), form.getAttribute("target"));
+			}
+		}
+	}
+
+	private void follow(String href, String target) {
+		String trimmed = href.trim();
+		if (trimmed.startsWith("#") || trimmed.toLowerCase().startsWith("javascript:")) {
+			return;
+		}
+
+		String url = resolve(trimmed);
+		if (target.length() == 0 || target.equals("_self") || target.equals("_parent") || target.equals("_top")) {
+			navigate(window(), url);
+			return;
+		}
+
+		Window window = null;
+		if (!target.equals("_blank")) {
+			for (Window opened : windows.values()) {
+				if (opened.name.equals(target)) {
+					window = opened;
+					break;
+				}
+			}
+		}
+		if (window == null) {
+			window = openWindow(target.equals("_blank") ? "" : target);
+		}
+		navigate(window, url);
+	}
+
+	private static Element getAncestor(Element element, String name) {
+		for (Node node = element; node instanceof Element; node = node.getParentNode()) {
+			if (node.getNodeName().equals(name)) {
+				return (Element) node;
+			}
+		}
+		return null;
+	}
+
+	private static void toggle(Element element, String attributeName, boolean on) {
+		if (on) {
+			element.setAttribute(attributeName, attributeName);
+		} else {
+			element.removeAttribute(attributeName);
+		}
+	}
+
+	public void select(String locator, String option) {
+		Element select = findElement(locator);
+		if (!select.getNodeName().equals("select")) {
+			throw new UnexpectedTagNameException("select", select.getNodeName());
+		}
+		selectOption(select, findOption(select, option));
+	}
+
+	private Element findOption(Element select, String option) {
+		int typeIndex = option.indexOf("=");
+		String val = option.substring(typeIndex + 1);
+		List<Element> options = getOptions(select);
+
+		if (option.startsWith("value=") || typeIndex == -1) {
+			for (Element candidate : options) {
+				if (getValue(candidate).equals(val)) {
+					return candidate;
+				}
+			}
+			throw new NoSuchElementException("Cannot locate option with value: " + val);
+		} else if (option.startsWith("label=")) {
+			for (Element candidate : options) {
+				if (FixtureDocument.getText(candidate).equals(val.trim())) {
+					return candidate;
+				}
+			}
+			throw new NoSuchElementException("Cannot locate element with text: " + val);
+		} else if (option.startsWith("index=")) {
+			int index = Integer.valueOf(val);
+			if (index < 0 || index >= options.size()) {
+				throw new NoSuchElementException("Cannot locate option with index: " + index);
+			}
+			return options.get(index);
+		}
+		throw new IllegalArgumentException("Value locator was not recognized. Value locator type: "
+				+ option.substring(0, typeIndex) + " Value identifier: " + val);
+	}
+
+	private static void selectOption(Element select, Element option) {
+		if (!select.hasAttribute("multiple")) {
+			for (Element other : getOptions(select)) {
+				other.removeAttribute("selected");
+			}
+		}
+		toggle(option, "selected", true);
+	}
+
+	private static List<Element> getOptions(Element select) {
+		NodeList nodes = select.getElementsByTagName("option");
+		List<Element> options = new ArrayList<Element>(nodes.getLength());
+		for (int i = 0; i < nodes.getLength(); i++) {
+			options.add((Element) nodes.item(i));
+		}
+		return options;
+	}
+
+	/**
+	 * Returns the selected options, a single-choice drop-down without a
+	 * selected option has its first option selected.
+	 */
+	private static List<Element> getSelectedOptions(Element select) {
+		List<Element> options = getOptions(select);
+		List<Element> selected = new ArrayList<Element>();
+		for (Element option : options) {
+			if (option.hasAttribute("selected")) {
+				selected.add(option);
+			}
+		}
+		if (selected.isEmpty() && !options.isEmpty() && !select.hasAttribute("multiple")) {
+			selected.add(options.get(0));
+		}
+		return selected;
+	}
+
+	private Element findSelect(String locator) {
+		Element select = findElement(locator);
+		if (!select.getNodeName().equals("select")) {
+			throw new UnexpectedTagNameException("select", select.getNodeName());
+		}
+		return select;
+	}
+
+	public void fillForm(FormData form) {
+		for (FormData.Field field : form.getFields()) {
+			if (document().find(locatorCache.compile(field.getLocator()), parser) == null) {
+				throw new NoSuchElementException("Unable to locate form field: " + field.getLocator());
+			}
+			if (field.getAction() == FormData.Action.SELECT) {
+				select(field.getLocator(), field.getValue());
+			} else {
+				type(field.getLocator(), field.getValue());
+			}
+		}
+	}
+
+	public void closePage() {
+		documentChanged();
+		windows.remove(window().handle);
+		currentWindow = null;
+	}
+
+	public void closeAllBut(String windowIdentifier) {
+		for (Window window : new ArrayList<Window>(windows.values())) {
+			if (!window.toWindowInfo().matches(windowIdentifier)) {
+				currentWindow = window;
+				closePage();
+			}
+		}
+		selectWindow(windowIdentifier);
+	}
+
+	public String getTitle() {
+		return document().getTitle();
+	}
+
+	public String[] getAllWindowTitles() {
+		List<String> titles = new ArrayList<String>(windows.size());
+		for (Window window : windows.values()) {
+			titles.add(window.toWindowInfo().getTitle());
+		}
+		return titles.toArray(new String[titles.size()]);
+	}
+
+	public String[] getAllWindowNames() {
+		List<String> names = new ArrayList<String>(windows.size());
+		for (Window window : windows.values()) {
+			names.add(window.name);
+		}
+		return names.toArray(new String[names.size()]);
+	}
+
+	public boolean isWindowOpened(String windowIdentifier) {
+		for (Window window : windows.values()) {
+			if (window.toWindowInfo().matches(windowIdentifier)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void waitUntilWindowIsPresent(String windowIdentifier) {
+		if (!isWindowOpened(windowIdentifier)) {
+			logger.info("Window " + windowIdentifier + " is not opened, fixture windows are opened only by the test.");
+		}
+	}
+
+	public void selectWindow(String windowIdentifier) {
+		int typeIndex = windowIdentifier.indexOf("=");
+		String identifier = windowIdentifier.substring(typeIndex + 1);
+
+		if (windowIdentifier.startsWith("title=") || typeIndex == -1) {
+			selectWindowByTitle(identifier);
+		} else if (windowIdentifier.startsWith("name=")) {
+			selectWindowByName(identifier);
+		} else {
+			Window window = windows.get(windowIdentifier);
+			if (window == null) {
+				throw new NoSuchWindowException("No window with handle " + windowIdentifier + ".");
+			}
+			switchToWindow(window);
+		}
+	}
+
+	public void selectWindowByTitle(String title) {
+		selectMatchingWindow("title=" + title);
+	}
+
+	public void selectWindowByName(String name) {
+		selectMatchingWindow("name=" + name);
+	}
+
+	/**
+	 * Selects the first window matching the identifier. If there is no such
+	 * window, the last opened window gets the focus.
+	 */
+	private void selectMatchingWindow(String windowIdentifier) {
+		if (windows.isEmpty()) {
+			return;
+		}
+
+		Window selected = null;
+		for (Window window : windows.values()) {
+			selected = window;
+			if (window.toWindowInfo().matches(windowIdentifier)) {
+				break;
+			}
+		}
+
+		if (selected != currentWindow) {
+			switchToWindow(selected);
+		}
+	}
+
+	private void switchToWindow(Window window) {
+		currentWindow = window;
+		navigationEpoch++;
+	}
+
+	/**
+	 * Does nothing, fixture windows have no size.
+	 */
+	public void maximizeWindow() {
+	}
+
+	public String getElementValue(String locator) {
+		return getElementAttribute(locator, "value");
+	}
+
+	/**
+	 * Returns the attribute the same way as WebDriver: value is the current
+	 * value of the field, boolean attributes are 'true' or <code>null</code>.
+	 */
+	public String getElementAttribute(String locator, String attributeName) {
+		return readAttribute(findElement(locator), attributeName);
+	}
+
+	private static String readAttribute(Element element, String attributeName) {
+		String name = attributeName.toLowerCase();
+		if (name.equals("value")) {
+			return getValue(element);
+		}
+		if (name.equals("selected") && element.getNodeName().equals("option")) {
+			Element select = getAncestor(element, "select");
+			boolean selected = select == null ? element.hasAttribute("selected") : getSelectedOptions(select)
+					.contains(element);
+			return selected ? "true" : null;
+		}
+		if (name.matches("checked|selected|disabled|readonly|multiple|required|hidden|autofocus")) {
+			return element.hasAttribute(name) ? "true" : null;
+		}
+		return element.hasAttribute(name) ? element.getAttribute(name) : null;
+	}
+
+	public String getSelectedValue(String locator) {
+		return firstSelected(locator, true);
+	}
+
+	public String getSelectedLabel(String locator) {
+		return firstSelected(locator, false);
+	}
+
+	private String firstSelected(String locator, boolean value) {
+		List<Element> selected = getSelectedOptions(findSelect(locator));
+		if (selected.isEmpty()) {
+			throw new NoSuchElementException("No options are selected in " + locator);
+		}
+		return value ? getValue(selected.get(0)) : FixtureDocument.getText(selected.get(0));
+	}
+
+	public String[] getSelectedValues(String locator) {
+		List<Element> selected = getSelectedOptions(findSelect(locator));
+		String[] values = new String[selected.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = getValue(selected.get(i));
+		}
+		return values;
+	}
+
+	public String[] getSelectedLabels(String locator) {
+		List<Element> selected = getSelectedOptions(findSelect(locator));
+		String[] labels = new String[selected.size()];
+		for (int i = 0; i < labels.length; i++) {
+			labels[i] = FixtureDocument.getText(selected.get(i));
+		}
+		return labels;
+	}
+
+	public String getText(String locator) {
+		return FixtureDocument.getText(findElement(locator));
+	}
+
+	public BatchReadResult read(BatchReadRequest request) {
+		int size = request.size();
+		String[] values = new String[size];
+		boolean[] found = new boolean[size];
+
+		int i = 0;
+		for (BatchReadRequest.Entry entry : request.getEntries()) {
+			Element element = document().find(locatorCache.compile(entry.getLocator()), parser);
+			if (element != null) {
+				found[i] = true;
+				switch (entry.getProperty()) {
+				case TEXT:
+					values[i] = FixtureDocument.getText(element);
+					break;
+				case VALUE:
+					values[i] = getValue(element);
+					break;
+				default:
+					values[i] = readAttribute(element, entry.getAttributeName());
+				}
+			}
+			i++;
+		}
+
+		return new BatchReadResult(request, values, found);
+	}
+
+	public boolean isTextPresent(String text) {
+		return isTextPresent(text, TextScope.VISIBLE);
+	}
+
+	public boolean isTextPresent(String text, TextScope scope) {
+		return countTextOccurrences(scope, text)[0] > 0;
+	}
+
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		FixtureDocument document = document();
+		String text = scope == TextScope.RAW ? document.getRawText() : FixtureDocument.getText(document.getBody());
+
+		int[] counts = new int[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			String needle = texts[i];
+			if (needle.length() == 0) {
+				counts[i] = 1;
+				continue;
+			}
+			for (int index = text.indexOf(needle); index != -1; index = text.indexOf(needle, index + needle.length())) {
+				counts[i]++;
+			}
+		}
+		return counts;
+	}
+
+	public boolean isElementPresent(String locator) {
+		return document().find(locatorCache.compile(locator), parser) != null;
+	}
+
+	public boolean isElementEnabled(String locator) {
+		Element element = findElement(locator);
+		if (element.getNodeName().equals("option")) {
+			Element select = getAncestor(element, "select");
+			if (select != null && select.hasAttribute("disabled")) {
+				return false;
+			}
+		}
+		return !element.hasAttribute("disabled");
+	}
+
+	public int getElementCount(String locator) {
+		return findElements(locator).size();
+	}
+
+	/**
+	 * Fixtures are not rendered.
+	 *
+	 * @throws UnsupportedOperationException
+	 *             always, the page source can be saved instead
+	 */
+	public void captureScreenshot(String screenshotPath) throws IOException {
+		throw new UnsupportedOperationException("HTML fixtures are not rendered, use getPageSource() instead.");
+	}
+
+	public String getPageState() {
+		return "complete";
+	}
+
+	public boolean isPageLoaded() {
+		return true;
+	}
+
+	public void waitForPageToLoad(long timeout) {
+	}
+
+	public void waitForElementPresent(String locator, long timeout) {
+		if (!isElementPresent(locator)) {
+			logger.info("Element " + locator + " is not present in the fixture " + document().getUrl() + ".");
+		}
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, fixtures don't run javascript
+	 */
+	public void waitUntil(String script, long timeout) {
+		throw new UnsupportedOperationException("HTML fixtures don't run javascript.");
+	}
+
+	/**
+	 * Returns immediately, the document never changes by itself.
+	 */
+	public void waitFor(long time) {
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, fixtures don't run javascript
+	 */
+	public Object executeScript(String script) {
+		throw new UnsupportedOperationException("HTML fixtures don't run javascript.");
+	}
+
+	/**
+	 * @throws UnsupportedOperationException
+	 *             always, fixtures don't run javascript
+	 */
+	public Object evaluateScript(String script, Object... args) {
+		throw new UnsupportedOperationException("HTML fixtures don't run javascript.");
+	}
+
+	public String getCurrentUrl() {
+		return document().getUrl();
+	}
+
+	public String getPageSource() {
+		return document().getSource();
+	}
+
+	/**
+	 * Opens the fixture again, the changes done by the test are lost.
+	 */
+	public void refresh() {
+		navigate(window(), document().getUrl());
+	}
+
+	/**
+	 * Does nothing, fixtures have no cookies.
+	 */
+	public void deleteAllCookies() {
+	}
+
+	public long getNavigationEpoch() {
+		return navigationEpoch;
+	}
+
+}
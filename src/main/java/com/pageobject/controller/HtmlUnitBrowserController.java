@@ -0,0 +1,83 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.WebDriver;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * WebDriver implementation of BrowserController running a headless HtmlUnit
+ * browser with javascript in the JVM of the tests, no browser process is
+ * started. Suits form and table tests which don't depend on rendering.
+ *
+ * <p>
+ * The browser is configured by the properties of {@link WebDriverBrowserImpl}
+ * and of {@link HtmlUnitDriverFactory}. WebDriver beans of the context are not
+ * injected, so the controller can replace a browser of another kind.
+ *
+ * <p>
+ * A test class can switch to HtmlUnit by adding
+ * <code>htmlunit-browser.xml</code> after its own context, which replaces
+ * the bean named 'browser':
+ *
+ * <pre>
+ * &#064;ContextConfiguration(locations = { "classpath:test-context.xml",
+ * 		"classpath:com/pageobject/controller/htmlunit-browser.xml" })
+ * public class LoginFormTest extends AbstractTest {
+ * </pre>
+ *
+ * @author michal.nahlik
+ *
+ */
+public class HtmlUnitBrowserController extends WebDriverBrowserImpl implements InitializingBean, DisposableBean {
+
+	private final HtmlUnitDriverFactory driverFactory = new HtmlUnitDriverFactory();
+
+	private boolean driverCreated;
+
+	/**
+	 * Sets a driver explicitly instead of starting a new HtmlUnit driver when
+	 * the controller is initialized. Not autowired.
+	 */
+	@Override
+	public void setDriver(WebDriver driver) {
+		super.setDriver(driver);
+	}
+
+	/**
+	 * @see HtmlUnitDriverFactory#setBrowserVersion(String)
+	 */
+	@Value("${browser.htmlunit.version:" + HtmlUnitDriverFactory.DEFAULT_BROWSER_VERSION + "}")
+	public void setBrowserVersion(String browserVersion) {
+		driverFactory.setBrowserVersion(browserVersion);
+	}
+
+	/**
+	 * @see HtmlUnitDriverFactory#setJavascriptEnabled(boolean)
+	 */
+	@Value("${browser.javascript.enabled:true}")
+	public void setJavascriptEnabled(boolean javascriptEnabled) {
+		driverFactory.setJavascriptEnabled(javascriptEnabled);
+	}
+
+	/**
+	 * Starts the HtmlUnit driver if no driver was set.
+	 */
+	public void afterPropertiesSet() {
+		if (getDriver() == null) {
+			setDriver(driverFactory.create());
+			driverCreated = true;
+		}
+	}
+
+	/**
+	 * Quits the driver started by this controller.
+	 */
+	public void destroy() {
+		if (driverCreated && getDriver() != null) {
+			logger.info("Quitting HtmlUnit.");
+			getDriver().quit();
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+/**
+ * Starts headless HtmlUnit browsers running in the JVM of the tests. Used by
+ * {@link HtmlUnitBrowserController}, or by {@link PooledBrowserController} to
+ * run tests in parallel:
+ *
+ * <pre>
+ * &lt;bean id="browser" class="com.pageobject.controller.PooledBrowserController"/&gt;
+ * &lt;bean class="com.pageobject.controller.HtmlUnitDriverFactory"/&gt;
+ * </pre>
+ *
+ * Properties: browser.htmlunit.version (name of the HtmlUnit
+ * {@link BrowserVersion} constant, default is FIREFOX_17) and
+ * browser.javascript.enabled (default is true).
+ *
+ * @author michal.nahlik
+ *
+ */
+public class HtmlUnitDriverFactory implements WebDriverFactory {
+
+	public static final String DEFAULT_BROWSER_VERSION = "FIREFOX_17";
+
+	private static Logger logger = LoggerFactory.getLogger(HtmlUnitDriverFactory.class);
+
+	private BrowserVersion browserVersion = BrowserVersion.FIREFOX_17;
+
+	private boolean javascriptEnabled = true;
+
+	/**
+	 * Sets up the browser emulated by HtmlUnit. Can be specified by property
+	 * browser.htmlunit.version, default is FIREFOX_17.
+	 *
+	 * @param browserVersion
+	 *            name of a {@link BrowserVersion} constant, e.g. FIREFOX_17 or
+	 *            INTERNET_EXPLORER_9
+	 * @throws IllegalArgumentException
+	 *             if there is no such browser version
+	 */
+	@Value("${browser.htmlunit.version:" + DEFAULT_BROWSER_VERSION + "}")
+	public void setBrowserVersion(String browserVersion) {
+		try {
+			Object version = BrowserVersion.class.getField(browserVersion.trim()).get(null);
+			if (!(version instanceof BrowserVersion)) {
+				throw new IllegalArgumentException("HtmlUnit browser version was not recognized: " + browserVersion);
+			}
+			this.browserVersion = (BrowserVersion) version;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalArgumentException("HtmlUnit browser version was not recognized: " + browserVersion);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("HtmlUnit browser version was not recognized: " + browserVersion);
+		}
+	}
+
+	public BrowserVersion getBrowserVersion() {
+		return browserVersion;
+	}
+
+	/**
+	 * Enables javascript. Can be specified by property
+	 * browser.javascript.enabled, default is true. Without javascript the
+	 * scripts of the framework can't run, e.g. tables are read cell by cell.
+	 *
+	 * @param javascriptEnabled
+	 *            true to run scripts of the pages and of the framework
+	 */
+	@Value("${browser.javascript.enabled:true}")
+	public void setJavascriptEnabled(boolean javascriptEnabled) {
+		this.javascriptEnabled = javascriptEnabled;
+	}
+
+	public boolean isJavascriptEnabled() {
+		return javascriptEnabled;
+	}
+
+	public WebDriver create() {
+		logger.info("Starting HtmlUnit emulating " + browserVersion + ", javascript "
+				+ (javascriptEnabled ? "enabled" : "disabled") + ".");
+		HtmlUnitDriver driver = new HtmlUnitDriver(browserVersion);
+		driver.setJavascriptEnabled(javascriptEnabled);
+		return driver;
+	}
+
+}
@@ -0,0 +1,544 @@
+package com.pageobject.controller;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * BrowserController decorator measuring the latency of every command of the
+ * decorated browser. Calls are recorded in {@link CommandMetrics} by command,
+ * locator type and the page class calling the command (see
+ * {@link PageContext}). The metrics are registered in JMX and their summary is
+ * logged after every test class by {@link com.pageobject.component.AbstractTest}.
+ *
+ * <pre>
+ * &lt;bean id="browser" class="com.pageobject.controller.InstrumentedBrowserController"&gt;
+ *     &lt;constructor-arg&gt;
+ *         &lt;bean class="com.pageobject.controller.PooledBrowserController"/&gt;
+ *     &lt;/constructor-arg&gt;
+ * &lt;/bean&gt;
+ * </pre>
+ *
+ * Recording costs two reads of the clock and a few atomic increments per
+ * command, so the decorator can stay on in CI. JMX registration can be turned
+ * off by property browser.metrics.jmx.
+ *
+ * <p>
+ * If a {@link BrowserTrace} is active in the calling thread, every command is
+ * also added to it as a span with the locator, URL or window of the command.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class InstrumentedBrowserController implements BrowserController, BeanNameAware, InitializingBean,
+		DisposableBean {
+
+	private static final LocatorType[] LOCATOR_TYPES = LocatorType.values();
+
+	private final BrowserController delegate;
+
+	private CommandMetrics metrics;
+
+	@Value("${browser.metrics.jmx:true}")
+	private boolean jmxEnabled = true;
+
+	/**
+	 * @param delegate
+	 *            measured browser
+	 */
+	public InstrumentedBrowserController(BrowserController delegate) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("Decorated browser must not be null.");
+		}
+		this.delegate = delegate;
+		this.metrics = new CommandMetrics(delegate.getClass().getSimpleName());
+	}
+
+	public BrowserController getDelegate() {
+		return delegate;
+	}
+
+	public CommandMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Names the metrics after the bean.
+	 */
+	public void setBeanName(String name) {
+		this.metrics = new CommandMetrics(name);
+	}
+
+	/**
+	 * Enables registration of the metrics in the platform MBean server. Can be
+	 * specified by property browser.metrics.jmx, default is true.
+	 *
+	 * @param jmxEnabled
+	 *            true to register the metrics
+	 */
+	public void setJmxEnabled(boolean jmxEnabled) {
+		this.jmxEnabled = jmxEnabled;
+	}
+
+	public void afterPropertiesSet() {
+		if (jmxEnabled) {
+			metrics.registerMBean();
+		}
+	}
+
+	public void destroy() {
+		metrics.unregisterMBean();
+	}
+
+	private void record(String command, String locator, long start) {
+		record(command, locator, locator, start);
+	}
+
+	private void record(String command, String locator, String detail, long start) {
+		long end = System.nanoTime();
+		metrics.record(command, locator == null ? null : getLocatorType(locator), PageContext.currentPageClass(),
+				end - start);
+		BrowserTrace trace = BrowserTrace.current();
+		if (trace != null) {
+			trace.addSpan(command.startsWith("wait") ? BrowserTrace.CATEGORY_WAIT : BrowserTrace.CATEGORY_COMMAND,
+					command, start, end, detail);
+		}
+	}
+
+	/**
+	 * Returns the type of the locator without parsing it, <code>null</code> if
+	 * the type was not recognized.
+	 */
+	static LocatorType getLocatorType(String locator) {
+		if (locator.indexOf('=') == -1) {
+			return LocatorType.ID;
+		}
+		for (LocatorType type : LOCATOR_TYPES) {
+			if (locator.startsWith(type.getPrefix())) {
+				return type;
+			}
+		}
+		return null;
+	}
+
+	public void setTimeout(long milliseconds) {
+		delegate.setTimeout(milliseconds);
+	}
+
+	public long getTimeout() {
+		return delegate.getTimeout();
+	}
+
+	public void type(String locator, String value) {
+		long start = System.nanoTime();
+		try {
+			delegate.type(locator, value);
+		} finally {
+			record("type", locator, start);
+		}
+	}
+
+	public void clear(String locator) {
+		long start = System.nanoTime();
+		try {
+			delegate.clear(locator);
+		} finally {
+			record("clear", locator, start);
+		}
+	}
+
+	public void click(String locator) {
+		long start = System.nanoTime();
+		try {
+			delegate.click(locator);
+		} finally {
+			record("click", locator, start);
+		}
+	}
+
+	public void select(String locator, String option) {
+		long start = System.nanoTime();
+		try {
+			delegate.select(locator, option);
+		} finally {
+			record("select", locator, start);
+		}
+	}
+
+	public void fillForm(FormData form) {
+		long start = System.nanoTime();
+		try {
+			delegate.fillForm(form);
+		} finally {
+			record("fillForm", null, start);
+		}
+	}
+
+	public void open(String url) {
+		long start = System.nanoTime();
+		try {
+			delegate.open(url);
+		} finally {
+			record("open", null, url, start);
+		}
+	}
+
+	public void openAndSelectWindow(String url) {
+		long start = System.nanoTime();
+		try {
+			delegate.openAndSelectWindow(url);
+		} finally {
+			record("openAndSelectWindow", null, url, start);
+		}
+	}
+
+	public void closePage() {
+		long start = System.nanoTime();
+		try {
+			delegate.closePage();
+		} finally {
+			record("closePage", null, start);
+		}
+	}
+
+	public void closeAllBut(String windowIdentifier) {
+		long start = System.nanoTime();
+		try {
+			delegate.closeAllBut(windowIdentifier);
+		} finally {
+			record("closeAllBut", null, windowIdentifier, start);
+		}
+	}
+
+	public String getTitle() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getTitle();
+		} finally {
+			record("getTitle", null, start);
+		}
+	}
+
+	public String[] getAllWindowTitles() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getAllWindowTitles();
+		} finally {
+			record("getAllWindowTitles", null, start);
+		}
+	}
+
+	public String[] getAllWindowNames() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getAllWindowNames();
+		} finally {
+			record("getAllWindowNames", null, start);
+		}
+	}
+
+	public boolean isWindowOpened(String windowIdentifier) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isWindowOpened(windowIdentifier);
+		} finally {
+			record("isWindowOpened", null, windowIdentifier, start);
+		}
+	}
+
+	public void waitUntilWindowIsPresent(String windowIdentifier) {
+		long start = System.nanoTime();
+		try {
+			delegate.waitUntilWindowIsPresent(windowIdentifier);
+		} finally {
+			record("waitUntilWindowIsPresent", null, windowIdentifier, start);
+		}
+	}
+
+	public void selectWindow(String windowIdentifier) {
+		long start = System.nanoTime();
+		try {
+			delegate.selectWindow(windowIdentifier);
+		} finally {
+			record("selectWindow", null, windowIdentifier, start);
+		}
+	}
+
+	public void selectWindowByTitle(String title) {
+		long start = System.nanoTime();
+		try {
+			delegate.selectWindowByTitle(title);
+		} finally {
+			record("selectWindowByTitle", null, title, start);
+		}
+	}
+
+	public void selectWindowByName(String name) {
+		long start = System.nanoTime();
+		try {
+			delegate.selectWindowByName(name);
+		} finally {
+			record("selectWindowByName", null, name, start);
+		}
+	}
+
+	public void maximizeWindow() {
+		long start = System.nanoTime();
+		try {
+			delegate.maximizeWindow();
+		} finally {
+			record("maximizeWindow", null, start);
+		}
+	}
+
+	public String getElementValue(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getElementValue(locator);
+		} finally {
+			record("getElementValue", locator, start);
+		}
+	}
+
+	public String getElementAttribute(String locator, String attributeName) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getElementAttribute(locator, attributeName);
+		} finally {
+			record("getElementAttribute", locator, start);
+		}
+	}
+
+	public String getSelectedValue(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getSelectedValue(locator);
+		} finally {
+			record("getSelectedValue", locator, start);
+		}
+	}
+
+	public String getSelectedLabel(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getSelectedLabel(locator);
+		} finally {
+			record("getSelectedLabel", locator, start);
+		}
+	}
+
+	public String[] getSelectedValues(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getSelectedValues(locator);
+		} finally {
+			record("getSelectedValues", locator, start);
+		}
+	}
+
+	public String[] getSelectedLabels(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getSelectedLabels(locator);
+		} finally {
+			record("getSelectedLabels", locator, start);
+		}
+	}
+
+	public String getText(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getText(locator);
+		} finally {
+			record("getText", locator, start);
+		}
+	}
+
+	public BatchReadResult read(BatchReadRequest request) {
+		long start = System.nanoTime();
+		try {
+			return delegate.read(request);
+		} finally {
+			record("read", null, start);
+		}
+	}
+
+	public boolean isTextPresent(String text) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isTextPresent(text);
+		} finally {
+			record("isTextPresent", null, text, start);
+		}
+	}
+
+	public boolean isTextPresent(String text, TextScope scope) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isTextPresent(text, scope);
+		} finally {
+			record("isTextPresent", null, text, start);
+		}
+	}
+
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		long start = System.nanoTime();
+		try {
+			return delegate.countTextOccurrences(scope, texts);
+		} finally {
+			record("countTextOccurrences", null, start);
+		}
+	}
+
+	public boolean isElementPresent(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isElementPresent(locator);
+		} finally {
+			record("isElementPresent", locator, start);
+		}
+	}
+
+	public boolean isElementEnabled(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.isElementEnabled(locator);
+		} finally {
+			record("isElementEnabled", locator, start);
+		}
+	}
+
+	public int getElementCount(String locator) {
+		long start = System.nanoTime();
+		try {
+			return delegate.getElementCount(locator);
+		} finally {
+			record("getElementCount", locator, start);
+		}
+	}
+
+	public void captureScreenshot(String screenshotPath) throws IOException {
+		long start = System.nanoTime();
+		try {
+			delegate.captureScreenshot(screenshotPath);
+		} finally {
+			record("captureScreenshot", null, screenshotPath, start);
+		}
+	}
+
+	public String getPageState() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getPageState();
+		} finally {
+			record("getPageState", null, start);
+		}
+	}
+
+	public boolean isPageLoaded() {
+		long start = System.nanoTime();
+		try {
+			return delegate.isPageLoaded();
+		} finally {
+			record("isPageLoaded", null, start);
+		}
+	}
+
+	public void waitForPageToLoad(long timeout) {
+		long start = System.nanoTime();
+		try {
+			delegate.waitForPageToLoad(timeout);
+		} finally {
+			record("waitForPageToLoad", null, timeout + " ms", start);
+		}
+	}
+
+	public void waitForElementPresent(String locator, long timeout) {
+		long start = System.nanoTime();
+		try {
+			delegate.waitForElementPresent(locator, timeout);
+		} finally {
+			record("waitForElementPresent", locator, start);
+		}
+	}
+
+	public void waitUntil(String script, long timeout) {
+		long start = System.nanoTime();
+		try {
+			delegate.waitUntil(script, timeout);
+		} finally {
+			record("waitUntil", null, script, start);
+		}
+	}
+
+	public void waitFor(long time) {
+		long start = System.nanoTime();
+		try {
+			delegate.waitFor(time);
+		} finally {
+			record("waitFor", null, time + " ms", start);
+		}
+	}
+
+	public Object executeScript(String script) {
+		long start = System.nanoTime();
+		try {
+			return delegate.executeScript(script);
+		} finally {
+			record("executeScript", null, start);
+		}
+	}
+
+	public Object evaluateScript(String script, Object... args) {
+		long start = System.nanoTime();
+		try {
+			return delegate.evaluateScript(script, args);
+		} finally {
+			record("evaluateScript", null, start);
+		}
+	}
+
+	public String getCurrentUrl() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getCurrentUrl();
+		} finally {
+			record("getCurrentUrl", null, start);
+		}
+	}
+
+	public String getPageSource() {
+		long start = System.nanoTime();
+		try {
+			return delegate.getPageSource();
+		} finally {
+			record("getPageSource", null, start);
+		}
+	}
+
+	public void refresh() {
+		long start = System.nanoTime();
+		try {
+			delegate.refresh();
+		} finally {
+			record("refresh", null, start);
+		}
+	}
+
+	public void deleteAllCookies() {
+		long start = System.nanoTime();
+		try {
+			delegate.deleteAllCookies();
+		} finally {
+			record("deleteAllCookies", null, start);
+		}
+	}
+
+	public long getNavigationEpoch() {
+		return delegate.getNavigationEpoch();
+	}
+
+}
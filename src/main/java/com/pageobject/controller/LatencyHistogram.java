@@ -0,0 +1,165 @@
+package com.pageobject.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe histogram of latencies in nanoseconds with log-linear buckets:
+ * every power of two is split into 16 buckets, so percentiles are precise to
+ * 1/16 (6.25 %) of the value. Recording a value costs a few atomic
+ * increments and no allocation.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records one latency.
+	 *
+	 * @param nanos
+	 *            latency in nanoseconds, negative values are recorded as 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucket(value));
+		count.incrementAndGet();
+		totalNanos.addAndGet(value);
+		long max = maxNanos.get();
+		while (value > max && !maxNanos.compareAndSet(max, value)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Adds all latencies recorded by another histogram.
+	 *
+	 * @param other
+	 *            histogram to add
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long bucketCount = other.counts.get(i);
+			if (bucketCount > 0) {
+				counts.addAndGet(i, bucketCount);
+			}
+		}
+		count.addAndGet(other.count.get());
+		totalNanos.addAndGet(other.totalNanos.get());
+		long otherMax = other.maxNanos.get();
+		long max = maxNanos.get();
+		while (otherMax > max && !maxNanos.compareAndSet(max, otherMax)) {
+			max = maxNanos.get();
+		}
+	}
+
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @return the highest value falling into the bucket
+	 */
+	static long highestValue(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * @return number of recorded latencies
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return sum of all latencies in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	/**
+	 * @return the highest latency in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @return average latency in nanoseconds, 0 if nothing was recorded
+	 */
+	public double getMeanNanos() {
+		long recorded = count.get();
+		return recorded == 0 ? 0 : (double) totalNanos.get() / recorded;
+	}
+
+	/**
+	 * Returns the latency not exceeded by the given share of the calls.
+	 *
+	 * @param percentile
+	 *            percentile between 0 and 100, e.g. 99 for p99
+	 * @return the upper bound of the bucket holding the percentile, at most the
+	 *         highest latency, in nanoseconds; 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile has to be between 0 and 100: " + percentile);
+		}
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValue(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+
+	/**
+	 * Drops all recorded latencies.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		totalNanos.set(0);
+		maxNanos.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.2f ms, p50=%.2f ms, p95=%.2f ms, p99=%.2f ms, max=%.2f ms",
+				getCount(), getMeanNanos() / 1e6, getPercentileNanos(50) / 1e6, getPercentileNanos(95) / 1e6,
+				getPercentileNanos(99) / 1e6, getMaxNanos() / 1e6);
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Makes all WebDriver beans of the context lazy, so a browser defined by the
+ * base test context is started only if some bean still asks for it. Used by
+ * <code>htmlunit-browser.xml</code>, where the replaced browser bean was the
+ * only user of the driver and the tests must not start a real browser.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class LazyWebDriverPostProcessor implements BeanFactoryPostProcessor {
+
+	private static Logger logger = LoggerFactory.getLogger(LazyWebDriverPostProcessor.class);
+
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+		for (String name : beanFactory.getBeanNamesForType(WebDriver.class, true, false)) {
+			if (!beanFactory.containsBeanDefinition(name)) {
+				continue;
+			}
+			BeanDefinition definition = beanFactory.getBeanDefinition(name);
+			if (!definition.isLazyInit()) {
+				definition.setLazyInit(true);
+				logger.debug("WebDriver bean '" + name + "' is created only on demand.");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.pageobject.controller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded, thread safe cache of {@link CompiledLocator}s keyed by their string
+ * representation. When the cache is full the oldest entries are evicted.
+ *
+ * <p>
+ * Locators with unrecognized type prefix are remembered as well. The problem
+ * is logged only when the locator is seen for the first time, every further
+ * use is rejected with {@link IllegalArgumentException} straight from the
+ * cache.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class LocatorCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private static Logger logger = LoggerFactory.getLogger(LocatorCache.class);
+
+	private final int maxSize;
+
+	/**
+	 * Values are either {@link CompiledLocator} or a String with the reason
+	 * why the locator was rejected.
+	 */
+	private final ConcurrentMap<String, Object> entries = new ConcurrentHashMap<String, Object>();
+	private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<String>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	private final AtomicLong rejections = new AtomicLong();
+
+	public LocatorCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * @param maxSize
+	 *            maximum number of locators kept in the cache
+	 */
+	public LocatorCache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size of the locator cache has to be positive: " + maxSize);
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns compiled form of the locator, parsing it only if it is not
+	 * cached yet.
+	 *
+	 * @param locator
+	 *            String representation of the locator.
+	 *
+	 * @return compiled locator
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the locator type was not recognized
+	 */
+	public CompiledLocator compile(String locator) {
+		if (locator == null) {
+			throw new IllegalArgumentException("Locator must not be null.");
+		}
+
+		Object entry = entries.get(locator);
+		if (entry != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+			entry = put(locator, parse(locator));
+		}
+
+		if (entry instanceof CompiledLocator) {
+			return (CompiledLocator) entry;
+		}
+		rejections.incrementAndGet();
+		throw new IllegalArgumentException((String) entry);
+	}
+
+	private Object parse(String locator) {
+		try {
+			return CompiledLocator.compile(locator);
+		} catch (IllegalArgumentException e) {
+			logger.error(e.getMessage());
+			return e.getMessage();
+		}
+	}
+
+	private Object put(String locator, Object entry) {
+		Object previous = entries.putIfAbsent(locator, entry);
+		if (previous != null) {
+			return previous;
+		}
+
+		insertionOrder.add(locator);
+		while (entries.size() > maxSize) {
+			String eldest = insertionOrder.poll();
+			if (eldest == null) {
+				break;
+			}
+			if (entries.remove(eldest) != null) {
+				evictions.incrementAndGet();
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes all cached locators. Statistics are kept.
+	 */
+	public void clear() {
+		entries.clear();
+		insertionOrder.clear();
+	}
+
+	/**
+	 * @return maximum number of cached locators
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return current number of cached locators
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return how many times the locator was found in the cache
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * @return how many times the locator had to be parsed
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+	/**
+	 * @return how many locators were evicted because the cache was full
+	 */
+	public long getEvictionCount() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return how many times a locator with unrecognized type was rejected
+	 */
+	public long getRejectionCount() {
+		return rejections.get();
+	}
+
+	@Override
+	public String toString() {
+		return "LocatorCache [size=" + size() + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses="
+				+ getMissCount() + ", evictions=" + getEvictionCount() + ", rejections=" + getRejectionCount() + "]";
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.By;
+
+/**
+ * Types of string locators understood by {@link BrowserController}
+ * implementations. The type is specified by a prefix of the locator ('id=',
+ * 'name=', 'css=', 'xpath=', 'text='). A locator without any prefix is taken
+ * as 'id='.
+ *
+ * @author michal.nahlik
+ *
+ */
+public enum LocatorType {
+
+	ID("id=") {
+		@Override
+		public By createBy(String identifier) {
+			return By.id(identifier);
+		}
+	},
+
+	NAME("name=") {
+		@Override
+		public By createBy(String identifier) {
+			return By.name(identifier);
+		}
+	},
+
+	CSS("css=") {
+		@Override
+		public By createBy(String identifier) {
+			return By.cssSelector(identifier);
+		}
+	},
+
+	XPATH("xpath=") {
+		@Override
+		public By createBy(String identifier) {
+			return By.xpath(identifier);
+		}
+	},
+
+	TEXT("text=") {
+		@Override
+		public By createBy(String identifier) {
+			return By.linkText(identifier);
+		}
+	};
+
+	private final String prefix;
+
+	private LocatorType(String prefix) {
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Returns the prefix identifying this locator type, including the '='
+	 * character.
+	 *
+	 * @return the locator prefix, e.g. 'xpath='
+	 */
+	public String getPrefix() {
+		return prefix;
+	}
+
+	/**
+	 * Creates the WebDriver locator for the given identifier.
+	 *
+	 * @param identifier
+	 *            the locator without its type prefix
+	 * @return By locator used by WebDriver
+	 */
+	public abstract By createBy(String identifier);
+
+}
@@ -0,0 +1,97 @@
+package com.pageobject.controller;
+
+/**
+ * Page method currently running in the thread, so that browser commands can be
+ * attributed to the page object issuing them. Entered and exited by
+ * {@link com.pageobject.component.ValidPageAspect} around every public page
+ * method, nested page calls form a chain through {@link #getParent()}. If the
+ * thread is traced, every exited page method is added to the
+ * {@link BrowserTrace} as a span enclosing its browser commands.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class PageContext {
+
+	private static final ThreadLocal<PageContext> CURRENT = new ThreadLocal<PageContext>();
+
+	private final Class<?> pageClass;
+	private final String methodName;
+	private final PageContext parent;
+	private final long startNanos = System.nanoTime();
+
+	private PageContext(Class<?> pageClass, String methodName, PageContext parent) {
+		this.pageClass = pageClass;
+		this.methodName = methodName;
+		this.parent = parent;
+	}
+
+	/**
+	 * Makes the page method the current context of the thread.
+	 *
+	 * @param pageClass
+	 *            class of the page
+	 * @param methodName
+	 *            name of the called method
+	 * @return the entered context, has to be exited by {@link #exit()}
+	 */
+	public static PageContext enter(Class<?> pageClass, String methodName) {
+		PageContext context = new PageContext(pageClass, methodName, CURRENT.get());
+		CURRENT.set(context);
+		return context;
+	}
+
+	/**
+	 * Restores the context of the calling page method, if there is any.
+	 */
+	public void exit() {
+		BrowserTrace trace = BrowserTrace.current();
+		if (trace != null) {
+			trace.addSpan(BrowserTrace.CATEGORY_PAGE, toString(), startNanos, System.nanoTime(), null);
+		}
+		if (parent == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(parent);
+		}
+	}
+
+	/**
+	 * @return the page method running in the current thread or
+	 *         <code>null</code> if the browser is used outside of pages
+	 */
+	public static PageContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * @return class of the page running in the current thread or
+	 *         <code>null</code> if the browser is used outside of pages
+	 */
+	public static Class<?> currentPageClass() {
+		PageContext context = CURRENT.get();
+		return context == null ? null : context.pageClass;
+	}
+
+	public Class<?> getPageClass() {
+		return pageClass;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * @return context of the page method which called this one or
+	 *         <code>null</code>
+	 */
+	public PageContext getParent() {
+		return parent;
+	}
+
+	@Override
+	public String toString() {
+		return pageClass.getSimpleName() + "." + methodName;
+	}
+
+}
@@ -0,0 +1,440 @@
+package com.pageobject.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * BrowserController backed by a {@link WebDriverPool}, so tests running in
+ * several threads can use one controller bean and still get a browser each.
+ * Every thread leases its own driver when it first touches the browser and
+ * keeps it until {@link #release()} is called. Drivers are started by the
+ * {@link WebDriverFactory} bean.
+ *
+ * <pre>
+ * &lt;bean id="browser" class="com.pageobject.controller.PooledBrowserController"/&gt;
+ * &lt;bean class="com.example.FirefoxDriverFactory"/&gt;
+ * </pre>
+ *
+ * Properties: browser.pool.size (0 means number of processors),
+ * browser.pool.wait.timeout, browser.pool.idle.timeout and the settings known
+ * from {@link WebDriverBrowserImpl} (timeouts, wait mode and backoff, element
+ * and locator caches), which are passed to the controller of every leased
+ * driver.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class PooledBrowserController implements BrowserController, DisposableBean {
+
+	private static Logger logger = LoggerFactory.getLogger(PooledBrowserController.class);
+
+	@Value("${browser.pool.size:0}")
+	private int poolSize;
+
+	@Value("${browser.pool.wait.timeout:300000}")
+	private long leaseTimeout = 300000;
+
+	@Value("${browser.pool.idle.timeout:600000}")
+	private long idleTimeout = 600000;
+
+	@Value("${browser.implicit.timeout:5000}")
+	private long implicitTimeout = 5000;
+
+	@Value("${browser.script.timeout:15000}")
+	private long scriptTimeout = 15000;
+
+	@Value("${browser.timeout:30000}")
+	private long timeout = 30000;
+
+	@Value("${browser.element.cache:false}")
+	private boolean elementCacheEnabled;
+
+	@Value("${browser.locator.cache.size:" + LocatorCache.DEFAULT_MAX_SIZE + "}")
+	private int locatorCacheSize = LocatorCache.DEFAULT_MAX_SIZE;
+
+	@Value("${browser.wait.initial.delay:" + BackoffPolicy.DEFAULT_INITIAL_DELAY + "}")
+	private long waitInitialDelay = BackoffPolicy.DEFAULT_INITIAL_DELAY;
+
+	@Value("${browser.wait.fast.probes:" + BackoffPolicy.DEFAULT_FAST_PROBES + "}")
+	private int waitFastProbes = BackoffPolicy.DEFAULT_FAST_PROBES;
+
+	@Value("${browser.wait.multiplier:" + BackoffPolicy.DEFAULT_MULTIPLIER + "}")
+	private double waitMultiplier = BackoffPolicy.DEFAULT_MULTIPLIER;
+
+	@Value("${browser.wait.max.delay:" + BackoffPolicy.DEFAULT_MAX_DELAY + "}")
+	private long waitMaxDelay = BackoffPolicy.DEFAULT_MAX_DELAY;
+
+	private WaitMode waitMode = WaitMode.POLL;
+
+	private WebDriverFactory driverFactory;
+
+	private volatile WebDriverPool pool;
+
+	private final ThreadLocal<WebDriverBrowserImpl> lease = new ThreadLocal<WebDriverBrowserImpl>();
+
+	private final Map<WebDriverBrowserImpl, Thread> leases = new ConcurrentHashMap<WebDriverBrowserImpl, Thread>();
+
+	@Autowired
+	public void setDriverFactory(WebDriverFactory driverFactory) {
+		this.driverFactory = driverFactory;
+	}
+
+	/**
+	 * Sets the maximum number of browsers. Has to be called before the first
+	 * browser is leased.
+	 *
+	 * @param poolSize
+	 *            maximum number of browsers, 0 means number of processors
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	public void setLeaseTimeout(long leaseTimeout) {
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	@Value("${browser.wait.mode:poll}")
+	public void setWaitMode(String waitMode) {
+		this.waitMode = WaitMode.fromString(waitMode);
+	}
+
+	public void setElementCacheEnabled(boolean elementCacheEnabled) {
+		this.elementCacheEnabled = elementCacheEnabled;
+	}
+
+	public void setLocatorCacheSize(int locatorCacheSize) {
+		this.locatorCacheSize = locatorCacheSize;
+	}
+
+	/**
+	 * Sets the page load timeout for browsers leased from now on and for the
+	 * browser of the current thread, if it has one.
+	 */
+	public void setTimeout(long milliseconds) {
+		this.timeout = milliseconds;
+		WebDriverBrowserImpl browser = lease.get();
+		if (browser != null) {
+			browser.setTimeout(milliseconds);
+		}
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Leases a browser for the current thread unless it already has one.
+	 *
+	 * @return browser of the current thread
+	 */
+	public WebDriverBrowserImpl acquire() {
+		return current();
+	}
+
+	/**
+	 * Gives the browser of the current thread back to the pool. Should be
+	 * called when the thread finishes its tests.
+	 */
+	public void release() {
+		WebDriverBrowserImpl browser = lease.get();
+		if (browser != null) {
+			lease.remove();
+			leases.remove(browser);
+			getPool().release(browser.getDriver());
+		}
+	}
+
+	/**
+	 * @return true if the current thread holds a browser
+	 */
+	public boolean isAcquired() {
+		return lease.get() != null;
+	}
+
+	/**
+	 * @return the pool, created with the first call
+	 */
+	public WebDriverPool getPool() {
+		WebDriverPool result = pool;
+		if (result == null) {
+			synchronized (this) {
+				result = pool;
+				if (result == null) {
+					if (driverFactory == null) {
+						throw new IllegalStateException("WebDriver factory is not set.");
+					}
+					int size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+					logger.info("Creating WebDriver pool of " + size
+							+ " browsers. Can be specified by property browser.pool.size");
+					result = new WebDriverPool(driverFactory, size, idleTimeout);
+					pool = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return current statistics of the pool
+	 */
+	public WebDriverPoolMetrics getMetrics() {
+		return getPool().getMetrics();
+	}
+
+	/**
+	 * Gives back all leased browsers and quits them.
+	 */
+	public void destroy() {
+		WebDriverPool result = pool;
+		if (result == null) {
+			return;
+		}
+		for (Map.Entry<WebDriverBrowserImpl, Thread> entry : leases.entrySet()) {
+			logger.warn("Browser leased by thread " + entry.getValue().getName() + " was not released.");
+			result.release(entry.getKey().getDriver());
+		}
+		leases.clear();
+		lease.remove();
+		result.close();
+		logger.info("WebDriver pool closed. " + result.getMetrics());
+	}
+
+	/**
+	 * Creates the controller for a newly leased driver. Can be overridden to
+	 * set up the controller differently.
+	 *
+	 * @param driver
+	 *            leased driver
+	 * @return controller of the driver
+	 */
+	protected WebDriverBrowserImpl createBrowser(WebDriver driver) {
+		WebDriverBrowserImpl browser = new WebDriverBrowserImpl();
+		browser.setImplicitTimeout(implicitTimeout);
+		browser.setScriptTimeout(scriptTimeout);
+		browser.setTimeout(timeout);
+		browser.setWaitMode(waitMode.name());
+		browser.setBackoffPolicy(new BackoffPolicy(waitInitialDelay, waitFastProbes, waitMultiplier, waitMaxDelay));
+		browser.setElementCacheEnabled(elementCacheEnabled);
+		browser.setLocatorCacheSize(locatorCacheSize);
+		browser.setDriver(driver);
+		return browser;
+	}
+
+	/**
+	 * @return browser of the current thread, leased if the thread does not
+	 *         have one yet
+	 */
+	protected WebDriverBrowserImpl current() {
+		WebDriverBrowserImpl browser = lease.get();
+		if (browser == null) {
+			WebDriver driver = getPool().lease(leaseTimeout);
+			try {
+				browser = createBrowser(driver);
+			} catch (RuntimeException e) {
+				getPool().release(driver);
+				throw e;
+			}
+			lease.set(browser);
+			leases.put(browser, Thread.currentThread());
+		}
+		return browser;
+	}
+
+	public void type(String locator, String value) {
+		current().type(locator, value);
+	}
+
+	public void clear(String locator) {
+		current().clear(locator);
+	}
+
+	public void click(String locator) {
+		current().click(locator);
+	}
+
+	public void select(String locator, String option) {
+		current().select(locator, option);
+	}
+
+	public void fillForm(FormData form) {
+		current().fillForm(form);
+	}
+
+	public void open(String url) {
+		current().open(url);
+	}
+
+	public void openAndSelectWindow(String url) {
+		current().openAndSelectWindow(url);
+	}
+
+	public void closePage() {
+		current().closePage();
+	}
+
+	public void closeAllBut(String windowIdentifier) {
+		current().closeAllBut(windowIdentifier);
+	}
+
+	public String getTitle() {
+		return current().getTitle();
+	}
+
+	public String[] getAllWindowTitles() {
+		return current().getAllWindowTitles();
+	}
+
+	public String[] getAllWindowNames() {
+		return current().getAllWindowNames();
+	}
+
+	public boolean isWindowOpened(String windowIdentifier) {
+		return current().isWindowOpened(windowIdentifier);
+	}
+
+	public void waitUntilWindowIsPresent(String windowIdentifier) {
+		current().waitUntilWindowIsPresent(windowIdentifier);
+	}
+
+	public void selectWindow(String windowIdentifier) {
+		current().selectWindow(windowIdentifier);
+	}
+
+	public void selectWindowByTitle(String title) {
+		current().selectWindowByTitle(title);
+	}
+
+	public void selectWindowByName(String name) {
+		current().selectWindowByName(name);
+	}
+
+	public void maximizeWindow() {
+		current().maximizeWindow();
+	}
+
+	public String getElementValue(String locator) {
+		return current().getElementValue(locator);
+	}
+
+	public String getElementAttribute(String locator, String attributeName) {
+		return current().getElementAttribute(locator, attributeName);
+	}
+
+	public String getSelectedValue(String locator) {
+		return current().getSelectedValue(locator);
+	}
+
+	public String getSelectedLabel(String locator) {
+		return current().getSelectedLabel(locator);
+	}
+
+	public String[] getSelectedValues(String locator) {
+		return current().getSelectedValues(locator);
+	}
+
+	public String[] getSelectedLabels(String locator) {
+		return current().getSelectedLabels(locator);
+	}
+
+	public String getText(String locator) {
+		return current().getText(locator);
+	}
+
+	public BatchReadResult read(BatchReadRequest request) {
+		return current().read(request);
+	}
+
+	public boolean isTextPresent(String text) {
+		return current().isTextPresent(text);
+	}
+
+	public boolean isTextPresent(String text, TextScope scope) {
+		return current().isTextPresent(text, scope);
+	}
+
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		return current().countTextOccurrences(scope, texts);
+	}
+
+	public boolean isElementPresent(String locator) {
+		return current().isElementPresent(locator);
+	}
+
+	public boolean isElementEnabled(String locator) {
+		return current().isElementEnabled(locator);
+	}
+
+	public int getElementCount(String locator) {
+		return current().getElementCount(locator);
+	}
+
+	public void captureScreenshot(String screenshotPath) throws IOException {
+		current().captureScreenshot(screenshotPath);
+	}
+
+	public String getPageState() {
+		return current().getPageState();
+	}
+
+	public boolean isPageLoaded() {
+		return current().isPageLoaded();
+	}
+
+	public void waitForPageToLoad(long timeout) {
+		current().waitForPageToLoad(timeout);
+	}
+
+	public void waitForElementPresent(String locator, long timeout) {
+		current().waitForElementPresent(locator, timeout);
+	}
+
+	public void waitUntil(String script, long timeout) {
+		current().waitUntil(script, timeout);
+	}
+
+	public void waitFor(long time) {
+		current().waitFor(time);
+	}
+
+	public Object executeScript(String script) {
+		return current().executeScript(script);
+	}
+
+	public Object evaluateScript(String script, Object... args) {
+		return current().evaluateScript(script, args);
+	}
+
+	public String getCurrentUrl() {
+		return current().getCurrentUrl();
+	}
+
+	public String getPageSource() {
+		return current().getPageSource();
+	}
+
+	public void refresh() {
+		current().refresh();
+	}
+
+	public void deleteAllCookies() {
+		current().deleteAllCookies();
+	}
+
+	public long getNavigationEpoch() {
+		return current().getNavigationEpoch();
+	}
+
+}
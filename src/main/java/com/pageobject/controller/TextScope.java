@@ -0,0 +1,25 @@
+package com.pageobject.controller;
+
+/**
+ * Which text of the current web page is searched by
+ * {@link BrowserController#isTextPresent(String, TextScope)} and
+ * {@link BrowserController#countTextOccurrences(TextScope, String...)}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public enum TextScope {
+
+	/**
+	 * The text visible to the user, as returned by
+	 * {@link BrowserController#getText(String)}.
+	 */
+	VISIBLE,
+
+	/**
+	 * The raw text content of the document including hidden elements, without
+	 * rendering. Cheaper to compute than the visible text.
+	 */
+	RAW
+
+}
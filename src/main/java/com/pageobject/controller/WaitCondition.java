@@ -0,0 +1,18 @@
+package com.pageobject.controller;
+
+/**
+ * Condition checked repeatedly by {@link WaitEngine}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public interface WaitCondition {
+
+	/**
+	 * Checks the condition once.
+	 *
+	 * @return true if the condition is fulfilled and the waiting should end
+	 */
+	public boolean isSatisfied();
+
+}
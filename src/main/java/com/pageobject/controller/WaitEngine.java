@@ -0,0 +1,81 @@
+package com.pageobject.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits until a condition is fulfilled or a deadline passes. The time is
+ * measured by the monotonic clock ({@link System#nanoTime()}) and the delays
+ * between checks are driven by {@link BackoffPolicy}. The condition is always
+ * checked once more when the deadline is reached.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class WaitEngine {
+
+	private static Logger logger = LoggerFactory.getLogger(WaitEngine.class);
+
+	private final BackoffPolicy backoffPolicy;
+
+	public WaitEngine() {
+		this(new BackoffPolicy());
+	}
+
+	/**
+	 * @param backoffPolicy
+	 *            policy of delays between checks
+	 */
+	public WaitEngine(BackoffPolicy backoffPolicy) {
+		if (backoffPolicy == null) {
+			throw new IllegalArgumentException("Backoff policy must not be null.");
+		}
+		this.backoffPolicy = backoffPolicy;
+	}
+
+	public BackoffPolicy getBackoffPolicy() {
+		return backoffPolicy;
+	}
+
+	/**
+	 * Checks the condition until it is fulfilled or the timeout expires. If the
+	 * waiting thread is interrupted, the wait ends as unsatisfied and the
+	 * interrupted status of the thread is kept.
+	 *
+	 * @param condition
+	 *            the condition that is supposed to be fulfilled
+	 * @param timeout
+	 *            the amount of time that should be waited at top, expressed in
+	 *            milliseconds.
+	 * @return result of the wait
+	 */
+	public WaitResult waitUntil(WaitCondition condition, long timeout) {
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0));
+		int attempt = 0;
+
+		while (true) {
+			attempt++;
+			if (condition.isSatisfied()) {
+				return new WaitResult(true, attempt, System.nanoTime() - start);
+			}
+
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return new WaitResult(false, attempt, System.nanoTime() - start);
+			}
+
+			long delay = Math.min(TimeUnit.MILLISECONDS.toNanos(backoffPolicy.getDelay(attempt)), remaining);
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			} catch (InterruptedException ie) {
+				logger.error("Interrupted while waiting: " + ie.getMessage());
+				Thread.currentThread().interrupt();
+				return new WaitResult(false, attempt, System.nanoTime() - start);
+			}
+		}
+	}
+
+}
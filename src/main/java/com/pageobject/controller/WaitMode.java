@@ -0,0 +1,41 @@
+package com.pageobject.controller;
+
+/**
+ * Strategies of waiting for elements, page load and script conditions.
+ *
+ * @author michal.nahlik
+ *
+ */
+public enum WaitMode {
+
+	/**
+	 * The condition is checked from the test repeatedly, every check costs one
+	 * call to the browser.
+	 */
+	POLL,
+
+	/**
+	 * The condition is watched inside the browser by an asynchronous script
+	 * (MutationObserver, page events or an in-page poller) which returns as
+	 * soon as the condition is fulfilled. The whole wait costs one call to the
+	 * browser.
+	 */
+	PUSH;
+
+	/**
+	 * Case insensitive variant of {@link #valueOf(String)}.
+	 *
+	 * @param mode
+	 *            name of the wait mode, e.g. 'poll' or 'push'
+	 * @return the wait mode
+	 * @throws IllegalArgumentException
+	 *             if there is no such wait mode
+	 */
+	public static WaitMode fromString(String mode) {
+		if (mode == null) {
+			throw new IllegalArgumentException("Wait mode must not be null.");
+		}
+		return valueOf(mode.trim().toUpperCase());
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.pageobject.controller;
+
+/**
+ * Outcome of a wait performed by {@link WaitEngine}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class WaitResult {
+
+	private final boolean satisfied;
+	private final int attempts;
+	private final long elapsedNanos;
+
+	/**
+	 * @param satisfied
+	 *            whether the condition was fulfilled before the timeout
+	 * @param attempts
+	 *            how many times the condition was checked
+	 * @param elapsedNanos
+	 *            how long the wait took in nanoseconds
+	 */
+	public WaitResult(boolean satisfied, int attempts, long elapsedNanos) {
+		this.satisfied = satisfied;
+		this.attempts = attempts;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * @return true if the condition was fulfilled, false if the timeout
+	 *         expired
+	 */
+	public boolean isSatisfied() {
+		return satisfied;
+	}
+
+	/**
+	 * @return how many times the condition was checked
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	/**
+	 * @return how long the wait took in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return elapsedNanos / 1000000L;
+	}
+
+	/**
+	 * @return how long the wait took in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "WaitResult [satisfied=" + satisfied + ", attempts=" + attempts + ", elapsed=" + getElapsedMillis()
+				+ " ms]";
+	}
+
+}
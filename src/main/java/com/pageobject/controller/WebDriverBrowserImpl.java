@@ -3,18 +3,22 @@ package com.pageobject.controller;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Keys;
 import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.remote.Augmenter;
 import org.openqa.selenium.support.ui.Select;
@@ -32,15 +36,50 @@ import org.springframework.beans.factory.annotation.Value;
 public class WebDriverBrowserImpl implements BrowserController {
 
 	@Value("${browser.implicit.timeout:5000}")
-	private long implicitTimeout;
+	private long implicitTimeout = 5000;
 	
 	@Value("${browser.script.timeout:15000}")
-	private long scriptTimeout; 
+	private long scriptTimeout = 15000; 
 	
 	@Value("${browser.timeout:30000}")
-	private long timeout;
+	private long timeout = 30000;
 	
-	private long waitStep = 100;
+	@Value("${browser.wait.initial.delay:" + BackoffPolicy.DEFAULT_INITIAL_DELAY + "}")
+	private long waitInitialDelay = BackoffPolicy.DEFAULT_INITIAL_DELAY;
+	
+	@Value("${browser.wait.fast.probes:" + BackoffPolicy.DEFAULT_FAST_PROBES + "}")
+	private int waitFastProbes = BackoffPolicy.DEFAULT_FAST_PROBES;
+	
+	@Value("${browser.wait.multiplier:" + BackoffPolicy.DEFAULT_MULTIPLIER + "}")
+	private double waitMultiplier = BackoffPolicy.DEFAULT_MULTIPLIER;
+	
+	@Value("${browser.wait.max.delay:" + BackoffPolicy.DEFAULT_MAX_DELAY + "}")
+	private long waitMaxDelay = BackoffPolicy.DEFAULT_MAX_DELAY;
+	
+	private WaitEngine waitEngine;
+	
+	/**
+	 * Part of the script timeout reserved for the round trip of an
+	 * asynchronous wait script, so the script finishes before the timeout.
+	 */
+	private static final long SCRIPT_TIMEOUT_RESERVE = 500;
+	
+	private WaitMode waitMode = WaitMode.POLL;
+	
+	private LocatorCache locatorCache = new LocatorCache();
+	
+	private ElementCache elementCache;
+	
+	private final WindowRegistry windowRegistry = new WindowRegistry();
+	
+	/**
+	 * Source of navigation epochs shared by all browsers, so a browser
+	 * replacing another one, e.g. a browser of a new pool lease, never repeats
+	 * an epoch the page objects may remember.
+	 */
+	private static final AtomicLong EPOCHS = new AtomicLong();
+	
+	private volatile long navigationEpoch = EPOCHS.incrementAndGet();
 	
 	private WebDriver driver;
 	protected Logger logger = LoggerFactory.getLogger(getClass());
@@ -66,78 +105,376 @@ public class WebDriverBrowserImpl implements BrowserController {
 
 	public void setTimeout(long timeout) {
 		this.timeout = timeout;
-		logger.info("Setting up the page load timeout to " +  timeout + " ms");
-		driver.manage().timeouts().pageLoadTimeout(timeout, TimeUnit.MILLISECONDS);
+		if (driver != null) {
+			logger.info("Setting up the page load timeout to " +  timeout + " ms");
+			driver.manage().timeouts().pageLoadTimeout(timeout, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Sets up the implicit timeout of the driver. When the browser is
+	 * configured by Spring, the timeout is specified by property
+	 * browser.implicit.timeout.
+	 * 
+	 * @param implicitTimeout
+	 *            the timeout in milliseconds
+	 */
+	public void setImplicitTimeout(long implicitTimeout) {
+		this.implicitTimeout = implicitTimeout;
+		if (driver != null) {
+			driver.manage().timeouts().implicitlyWait(implicitTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	public long getImplicitTimeout() {
+		return implicitTimeout;
+	}
+	
+	/**
+	 * Sets up the timeout of asynchronous scripts. When the browser is
+	 * configured by Spring, the timeout is specified by property
+	 * browser.script.timeout.
+	 * 
+	 * @param scriptTimeout
+	 *            the timeout in milliseconds
+	 */
+	public void setScriptTimeout(long scriptTimeout) {
+		this.scriptTimeout = scriptTimeout;
+		if (driver != null) {
+			driver.manage().timeouts().setScriptTimeout(scriptTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	public long getScriptTimeout() {
+		return scriptTimeout;
 	}
 	
 	public long getTimeout() {
 		return timeout;
 	}
 	
+	/**
+	 * Sets up the maximum number of parsed locators that are cached. Can be
+	 * specified by property browser.locator.cache.size, default is 1024.
+	 * 
+	 * @param size
+	 *            maximum number of cached locators
+	 */
+	@Value("${browser.locator.cache.size:" + LocatorCache.DEFAULT_MAX_SIZE + "}")
+	public void setLocatorCacheSize(int size) {
+		this.locatorCache = new LocatorCache(size);
+	}
+	
+	/**
+	 * Returns the cache of parsed locators, e.g. to inspect its hit, miss and
+	 * eviction counts.
+	 * 
+	 * @return locator cache used by this browser
+	 */
+	public LocatorCache getLocatorCache() {
+		return locatorCache;
+	}
+	
+	/**
+	 * Sets up the way of waiting for elements, page load and script
+	 * conditions. Can be specified by property browser.wait.mode ('poll' or
+	 * 'push'), default is 'poll'.
+	 * 
+	 * @see WaitMode
+	 * 
+	 * @param waitMode
+	 *            name of the wait mode
+	 */
+	@Value("${browser.wait.mode:poll}")
+	public void setWaitMode(String waitMode) {
+		this.waitMode = WaitMode.fromString(waitMode);
+	}
+	
+	public WaitMode getWaitMode() {
+		return waitMode;
+	}
+	
+	/**
+	 * Sets up the policy of delays between checks when polling for elements,
+	 * page load, script conditions and windows. By default the policy is
+	 * configured by properties browser.wait.initial.delay,
+	 * browser.wait.fast.probes, browser.wait.multiplier and
+	 * browser.wait.max.delay.
+	 * 
+	 * @param backoffPolicy
+	 *            policy of delays between checks
+	 */
+	public void setBackoffPolicy(BackoffPolicy backoffPolicy) {
+		this.waitEngine = new WaitEngine(backoffPolicy);
+	}
+	
+	/**
+	 * Returns the engine used for all waits of this browser. Can be used to
+	 * wait for custom conditions.
+	 * 
+	 * @return wait engine
+	 */
+	public WaitEngine getWaitEngine() {
+		if (waitEngine == null) {
+			waitEngine = new WaitEngine(new BackoffPolicy(waitInitialDelay, waitFastProbes, waitMultiplier,
+					waitMaxDelay));
+		}
+		return waitEngine;
+	}
+	
+	/**
+	 * Enables caching of resolved web elements within the current document.
+	 * Can be specified by property browser.element.cache, default is false.
+	 * The cache is invalidated whenever a page is opened, refreshed, clicked
+	 * on, submitted by Enter or another window is selected. Stale element
+	 * handles are looked up again transparently.
+	 * 
+	 * @param enabled
+	 *            true to cache resolved web elements
+	 */
+	@Value("${browser.element.cache:false}")
+	public void setElementCacheEnabled(boolean enabled) {
+		this.elementCache = enabled ? new ElementCache() : null;
+	}
+	
+	public boolean isElementCacheEnabled() {
+		return elementCache != null;
+	}
+	
+	/**
+	 * Returns the cache of resolved web elements, e.g. to inspect its hit and
+	 * miss counts.
+	 * 
+	 * @return element cache or <code>null</code> if it is not enabled
+	 */
+	public ElementCache getElementCache() {
+		return elementCache;
+	}
+	
+	/**
+	 * Returns the registry of opened windows and their titles and names.
+	 * 
+	 * @return window registry
+	 */
+	public WindowRegistry getWindowRegistry() {
+		return windowRegistry;
+	}
+	
 	/**
 	 * Private method to obtain the locator used by Web Driver to locate web
-	 * elements.
+	 * elements. Parsed locators are cached in {@link #getLocatorCache()}.
 	 * 
 	 * @param locator
 	 *            String representation of the locator.
 	 *            
 	 * @return By locator - locator type used by WebDriver that was created
 	 *         based on the string representation.
+	 *         
+	 * @throws IllegalArgumentException
+	 *             if the locator type was not recognized
 	 */
 	private By locatorPreprocessor(String locator) {
-		By byLocator = null;
-		String identifier;
-		int typeIndex = locator.indexOf("=");
-		
-		identifier = locator.substring(typeIndex + 1);
-		
-		if(locator.startsWith("id=") || typeIndex == -1) {
-			byLocator = By.id(identifier);
-		} else if (locator.startsWith("name=")) {
-			byLocator = By.name(identifier);
-		} else if (locator.startsWith("css=")) {
-			byLocator = By.cssSelector(identifier);
-		} else if (locator.startsWith("xpath=")) {
-			byLocator = By.xpath(identifier);
-		} else if (locator.startsWith("text=")) {
-			byLocator = By.linkText(identifier);
+		return locatorCache.compile(locator).getBy();
+	}
+
+	/**
+	 * Callback working with a web element found by
+	 * {@link WebDriverBrowserImpl#withElement(String, ElementCallback)}.
+	 */
+	private interface ElementCallback<T> {
+		T doWithElement(WebElement element);
+	}
+	
+	/**
+	 * Finds the web element and passes it to the callback. If the element
+	 * cache is enabled, cached element handle is used and the element is
+	 * looked up again if the handle turns out to be stale.
+	 * 
+	 * @param locator
+	 *            String representation of the locator.
+	 * @param callback
+	 *            work to do with the element
+	 * @return result of the callback
+	 */
+	private <T> T withElement(String locator, ElementCallback<T> callback) {
+		CompiledLocator compiledLocator = locatorCache.compile(locator);
+		
+		if (elementCache == null) {
+			return callback.doWithElement(driver.findElement(compiledLocator.getBy()));
+		}
+		
+		WebElement element = elementCache.get(compiledLocator);
+		if (element != null) {
+			try {
+				return callback.doWithElement(element);
+			} catch (StaleElementReferenceException sere) {
+				logger.debug("Cached element " + locator + " is stale, looking it up again.");
+				elementCache.evictStale(compiledLocator);
+			}
+		}
+		
+		element = driver.findElement(compiledLocator.getBy());
+		elementCache.put(compiledLocator, element);
+		return callback.doWithElement(element);
+	}
+	
+	/**
+	 * Called whenever the current document may have changed.
+	 */
+	private void documentChanged() {
+		if (elementCache != null) {
+			elementCache.invalidate();
+		}
+		windowRegistry.currentWindowChanged();
+		navigationEpoch = EPOCHS.incrementAndGet();
+	}
+	
+	/**
+	 * Switches the focus to the window with the given handle.
+	 * 
+	 * @param handle
+	 *            window handle
+	 */
+	private void switchToWindow(String handle) {
+		focusWindow(handle);
+		navigationEpoch = EPOCHS.incrementAndGet();
+	}
+	
+	/**
+	 * Switches the focus to the window with the given handle without changing
+	 * the navigation epoch. Used when windows are only inspected and the
+	 * focus is returned afterwards.
+	 * 
+	 * @param handle
+	 *            window handle
+	 */
+	private void focusWindow(String handle) {
+		if (elementCache != null) {
+			elementCache.invalidate();
+		}
+		driver.switchTo().window(handle);
+		windowRegistry.setCurrentHandle(handle);
+	}
+	
+	/**
+	 * Executes a script of this implementation, which does not change the
+	 * document, so the navigation epoch is kept.
+	 */
+	private Object runScript(String script, Object... args) {
+		return ((JavascriptExecutor) driver).executeScript(script, args);
+	}
+	
+	/**
+	 * Synchronizes the window registry with the browser. Costs one call for
+	 * the window handles, windows are switched to only if their title or name
+	 * may have changed since they were read last time. The focus is returned
+	 * to the current window.
+	 * 
+	 * @return all opened windows
+	 */
+	private List<WindowInfo> getWindows() {
+		List<String> outdated = windowRegistry.sync(driver.getWindowHandles());
+		if (outdated.isEmpty()) {
+			return windowRegistry.getWindows();
+		}
+		
+		String current = windowRegistry.getCurrentHandle();
+		if (current == null) {
+			try {
+				current = driver.getWindowHandle();
+			} catch (NoSuchWindowException nswe) {
+				logger.info("No current window selected.");
+			}
+		}
+		
+		String focused = current;
+		for (String handle : outdated) {
+			if (!handle.equals(focused)) {
+				focusWindow(handle);
+				focused = handle;
+			}
+			List<?> metadata = (List<?>) runScript(BrowserScripts.WINDOW_METADATA);
+			windowRegistry.update(new WindowInfo(handle, (String) metadata.get(0), (String) metadata.get(1),
+					"complete".equals(metadata.get(2))));
+		}
+		
+		if (current != null && !current.equals(focused)) {
+			focusWindow(current);
 		} else {
-			logger.error("Locator type was not recognized. Locator type: "
-					+ locator.substring(0, typeIndex) + ". Identifier: "
-					+ identifier + ".");
+			windowRegistry.setCurrentHandle(focused);
 		}
 		
-		return byLocator;
+		return windowRegistry.getWindows();
 	}
 
 	public void open(String url) {
+		documentChanged();
 		driver.get(url);
 	}
 	
-	public void type(String locator, String value) {
-		By byLocator = locatorPreprocessor(locator);
-		
-		WebElement element = driver.findElement(byLocator); 
-		element.sendKeys(value);
+	public void type(String locator, final String value) {
+		try {
+			withElement(locator, new ElementCallback<Void>() {
+				public Void doWithElement(WebElement element) {
+					element.sendKeys(value);
+					return null;
+				}
+			});
+		} finally {
+			if (isSubmitting(value)) {
+				documentChanged();
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether typing the value presses Enter, which submits the form
+	 * and navigates like a click. Other typing keeps the navigation epoch and
+	 * the cached elements, elements replaced by scripts are looked up again
+	 * when they turn out to be stale.
+	 */
+	private static boolean isSubmitting(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\n' || c == '\r' || c == Keys.ENTER.charAt(0) || c == Keys.RETURN.charAt(0)) {
+				return true;
+			}
+		}
+		return false;
 	}
 	
 	public void clear(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		
-		WebElement element = driver.findElement(byLocator);
-		element.clear();
+		withElement(locator, new ElementCallback<Void>() {
+			public Void doWithElement(WebElement element) {
+				element.clear();
+				return null;
+			}
+		});
 	}
 
 	public void click(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		driver.findElement(byLocator).click();
+		try {
+			withElement(locator, new ElementCallback<Void>() {
+				public Void doWithElement(WebElement element) {
+					element.click();
+					return null;
+				}
+			});
+		} finally {
+			documentChanged();
+		}
 	}
 		
-	public void select(String locator, String option) {
-		By byLocator = locatorPreprocessor(locator);
-		WebElement element = driver.findElement(byLocator);
-		Select select = new Select(element);
-		
+	public void select(String locator, final String option) {
+		withElement(locator, new ElementCallback<Void>() {
+			public Void doWithElement(WebElement element) {
+				selectOption(new Select(element), option);
+				return null;
+			}
+		});
+	}
+	
+	private void selectOption(Select select, String option) {
 		int typeIndex = option.indexOf("=");
 		String val = option.substring(typeIndex + 1);
 		
@@ -156,28 +493,168 @@ public class WebDriverBrowserImpl implements BrowserController {
 		
 	}
 
-	public void waitForPageToLoad(long timeout) {
-		long waitingFor = 0;
-
-		while(!isPageLoaded()) {
-			waitFor(waitStep);
-			waitingFor += waitStep;
-			if(waitingFor >= timeout) {
-				logger.error("The page wasn't loaded yet. Time waited: " + waitingFor);
+	public void fillForm(FormData form) {
+		fillFields(form.getFields());
+	}
+	
+	private void fillFields(List<FormData.Field> fields) {
+		int index = 0;
+		
+		while (index < fields.size()) {
+			if (fields.get(index).isNativeTyping()) {
+				fillFieldNatively(fields.get(index));
+				index++;
+				continue;
+			}
+			
+			int end = index;
+			while (end < fields.size() && !fields.get(end).isNativeTyping()) {
+				end++;
+			}
+			
+			List<FormData.Field> batch = fields.subList(index, end);
+			List<String> types = new ArrayList<String>(batch.size());
+			List<String> identifiers = new ArrayList<String>(batch.size());
+			List<String> actions = new ArrayList<String>(batch.size());
+			List<String> values = new ArrayList<String>(batch.size());
+			for (FormData.Field field : batch) {
+				CompiledLocator compiledLocator = locatorCache.compile(field.getLocator());
+				types.add(compiledLocator.getType().name());
+				identifiers.add(compiledLocator.getIdentifier());
+				actions.add(field.getAction().name());
+				values.add(field.getValue());
+			}
+			
+			List<?> outcome = (List<?>) runScript(BrowserScripts.FILL_FORM, types, identifiers, actions, values);
+			index += ((Number) outcome.get(0)).intValue();
+			
+			if (index < end) {
+				// a missing field may not be rendered yet, the native typing
+				// waits for it like type() does
+				FormData.Field field = fields.get(index);
+				logger.debug("Form field " + field + " can't be filled in by a script (" + outcome.get(1)
+						+ "), typing it natively.");
+				fillFieldNatively(field);
+				index++;
 			}
 		}
 	}
+	
+	private void fillFieldNatively(FormData.Field field) {
+		if (field.getAction() == FormData.Action.SELECT) {
+			select(field.getLocator(), field.getValue());
+		} else {
+			type(field.getLocator(), field.getValue());
+		}
+	}
 
-	public void waitForElementPresent(String locator, long timeout) {
-		long waitingFor = 0;
-				
-		logger.info("Waiting for element " + locator + " present.");
+	/**
+	 * Waits until the condition is fulfilled or the timeout expires. In
+	 * {@link WaitMode#PUSH} mode the condition is watched inside the browser
+	 * by the wait script first, the condition is polled by
+	 * {@link #getWaitEngine()} only if the browser is not able to run the
+	 * script.
+	 * 
+	 * @param condition
+	 *            condition polled from the test
+	 * @param timeout
+	 *            the amount of time that should be waited at top, expressed in
+	 *            milliseconds.
+	 * @param script
+	 *            asynchronous script waiting for the same condition in the
+	 *            browser, see {@link #waitInBrowser(String, long, Object...)}
+	 * @param args
+	 *            script arguments preceding the timeout
+	 * @return result of the wait
+	 */
+	private WaitResult await(WaitCondition condition, long timeout, String script, Object... args) {
+		if (waitMode != WaitMode.PUSH) {
+			return getWaitEngine().waitUntil(condition, timeout);
+		}
+		
+		long start = System.nanoTime();
+		WaitResult result = waitInBrowser(script, timeout, args);
+		if (result != null) {
+			return result;
+		}
+		
+		long elapsed = System.nanoTime() - start;
+		result = getWaitEngine().waitUntil(condition, timeout - TimeUnit.NANOSECONDS.toMillis(elapsed));
+		return new WaitResult(result.isSatisfied(), result.getAttempts(), elapsed + result.getElapsedNanos());
+	}
+	
+	/**
+	 * Waits for a condition inside the browser using an asynchronous script.
+	 * The script gets the timeout in milliseconds as the last argument and has
+	 * to return true when the condition is fulfilled. Long waits are split
+	 * into several calls so that none of them exceeds the script timeout.
+	 * 
+	 * @param script
+	 *            asynchronous wait script
+	 * @param timeout
+	 *            the amount of time that should be waited at top, expressed in
+	 *            milliseconds.
+	 * @param args
+	 *            script arguments preceding the timeout
+	 * 
+	 * @return result of the wait, the attempts are the calls of the script, or
+	 *         <code>null</code> if the browser was not able to wait this way
+	 *         and the condition has to be polled.
+	 */
+	private WaitResult waitInBrowser(String script, long timeout, Object... args) {
+		long chunk = Math.max(scriptTimeout - SCRIPT_TIMEOUT_RESERVE, scriptTimeout / 2);
+		if (chunk <= 0) {
+			return null;
+		}
 		
-		while(!isElementPresent(locator) && waitingFor < timeout) {
-			waitFor(waitStep);
-			waitingFor += waitStep;
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, 0));
+		long remaining = timeout;
+		int attempts = 0;
+		Object[] arguments = Arrays.copyOf(args, args.length + 1);
+		
+		try {
+			do {
+				attempts++;
+				arguments[args.length] = Math.max(0, Math.min(remaining, chunk));
+				Object result = ((JavascriptExecutor) driver).executeAsyncScript(script, arguments);
+				if (Boolean.TRUE.equals(result)) {
+					return new WaitResult(true, attempts, System.nanoTime() - start);
+				}
+				remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			} while (remaining > 0);
+		} catch (WebDriverException wde) {
+			logger.debug("Unable to wait in the browser, falling back to polling: " + wde.getMessage());
+			return null;
 		}
+		
+		return new WaitResult(false, attempts, System.nanoTime() - start);
+	}
 
+	public void waitForPageToLoad(long timeout) {
+		WaitResult result = await(new WaitCondition() {
+			public boolean isSatisfied() {
+				return isPageLoaded();
+			}
+		}, timeout, BrowserScripts.WAIT_FOR_PAGE_LOAD);
+		
+		if (!result.isSatisfied()) {
+			logger.error("The page wasn't loaded yet. Time waited: " + result.getElapsedMillis());
+		}
+	}
+
+	public void waitForElementPresent(final String locator, long timeout) {
+		logger.info("Waiting for element " + locator + " present.");
+		
+		CompiledLocator compiledLocator = locatorCache.compile(locator);
+		WaitResult result = await(new WaitCondition() {
+			public boolean isSatisfied() {
+				return isElementPresent(locator);
+			}
+		}, timeout, BrowserScripts.WAIT_FOR_ELEMENT, compiledLocator.getType().name(),
+				compiledLocator.getIdentifier());
+		
+		logger.debug("Waited for element " + locator + ": " + result);
 	}
 	
 	public void waitFor(long time) {
@@ -189,25 +666,43 @@ public class WebDriverBrowserImpl implements BrowserController {
 		}
 	}
 	
-	public void waitUntil(String script, long timeout) {
-		long waitingFor = 0;
-		
+	public void waitUntil(final String script, long timeout) {
 		logger.info("Waiting until the script: " + script + " returns true.");
 		
-		while(!(executeScript("return " + script).toString()).equalsIgnoreCase("true") && waitingFor < timeout) {
-			waitFor(waitStep);
-			waitingFor += waitStep;
-		}
+		WaitResult result = await(new WaitCondition() {
+			public boolean isSatisfied() {
+				return String.valueOf(runScript("return " + script)).equalsIgnoreCase("true");
+			}
+		}, timeout, BrowserScripts.WAIT_UNTIL, script);
+		
+		logger.debug("Waited until the script " + script + " returns true: " + result);
 	}
 	
 	public boolean isTextPresent(String text) {
-		return getText("css=BODY").contains(text);
+		return isTextPresent(text, TextScope.VISIBLE);
+	}
+	
+	public boolean isTextPresent(String text, TextScope scope) {
+		return countTextOccurrences(scope, text)[0] > 0;
+	}
+	
+	public int[] countTextOccurrences(TextScope scope, String... texts) {
+		List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(BrowserScripts.COUNT_TEXT,
+				scope.name(), Arrays.asList(texts));
+		
+		int[] counts = new int[texts.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = ((Number) result.get(i)).intValue();
+		}
+		return counts;
 	}
 
 	public boolean isElementEnabled(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		WebElement element = driver.findElement(byLocator);
-		return element.isEnabled();
+		return withElement(locator, new ElementCallback<Boolean>() {
+			public Boolean doWithElement(WebElement element) {
+				return element.isEnabled();
+			}
+		});
 	}
 
 	public boolean isElementPresent(String locator) {
@@ -229,65 +724,80 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 
 	public void closePage() {
+		documentChanged();
+		String current = windowRegistry.getCurrentHandle();
 		driver.close();
+		if (current != null) {
+			windowRegistry.remove(current);
+		}
+		windowRegistry.setCurrentHandle(null);
 	}
 
-	public boolean isWindowOpened(String windowIdentifier) {
-		int typeIndex = windowIdentifier.indexOf("=");
-		String identifier = windowIdentifier.substring(typeIndex + 1);
-		String currentWindow = null;
-		
-		try {
-			currentWindow = driver.getWindowHandle();
-		} catch (NoSuchWindowException nswe) {
-			logger.info("No current window selected.");
+	/**
+	 * Finds the first window matching the identifier. If no window matches
+	 * the known metadata, all windows are read again before giving up.
+	 * 
+	 * @param windowIdentifier
+	 *            window identifier with 'title=' or 'name=' prefix
+	 * @return the window or <code>null</code> if none matches
+	 */
+	private WindowInfo findWindow(String windowIdentifier) {
+		WindowInfo window = findWindow(windowIdentifier, false);
+		if (window == null) {
+			window = findWindow(windowIdentifier, true);
 		}
-		
-		Set<String> windowHandles = driver.getWindowHandles();
-		Iterator<String> iterator = windowHandles.iterator();
-		
-		logger.info("Currently opened windows: " + windowHandles.size());
-		
-		while (iterator.hasNext()) {
-			
-			driver.switchTo().window(iterator.next());
-			
-			if(windowIdentifier.startsWith("title=") || typeIndex == -1) {
-				if(driver.getTitle().contains(identifier)) {
-					return true;
-				}
-			} else if (windowIdentifier.startsWith("name=")) {
-				String windowName = executeScript("return document.name").toString();
-			    if(windowName.contains(identifier)) {
-			    	return true;
-			    }
-			} else {
-				logger.warn("The window identifier type was not recognized. Trying to use the defualt method");
-				if(driver.getWindowHandle().equals(identifier)) {
-					return true;
-				}
-			}
+		return window;
+	}
+	
+	/**
+	 * Finds the first window matching the identifier. Only new windows and
+	 * windows which may have navigated are read, unless all windows are
+	 * required to be read again.
+	 * 
+	 * @param windowIdentifier
+	 *            window identifier with 'title=' or 'name=' prefix
+	 * @param readAll
+	 *            whether the metadata of all windows should be read again
+	 * @return the window or <code>null</code> if none matches
+	 */
+	private WindowInfo findWindow(String windowIdentifier, boolean readAll) {
+		if (readAll) {
+			windowRegistry.allWindowsChanged();
 		}
-		
-		if(currentWindow != null) {
-			driver.switchTo().window(currentWindow);
+		for (WindowInfo window : getWindows()) {
+			if (window.matches(windowIdentifier)) {
+				return window;
+			}
 		}
-		
-		return false;
+		return null;
 	}
 	
-	public void waitUntilWindowIsPresent(String windowIdentifier) {
-		long waitedFor = 0;
-		
+	public boolean isWindowOpened(String windowIdentifier) {
+		WindowInfo window = findWindow(windowIdentifier);
+		logger.info("Currently opened windows: " + windowRegistry.getWindows().size());
+		return window != null;
+	}
+	
+	/**
+	 * Waits for a window matching the identifier. Every check reads only the
+	 * newly opened windows, all windows are read again only once the timeout
+	 * expired.
+	 */
+	public void waitUntilWindowIsPresent(final String windowIdentifier) {
 		logger.info("Waiting for a window " + windowIdentifier + " to be present.");
 		
-		while(!isWindowOpened(windowIdentifier) && waitedFor < getTimeout()) {
-			waitedFor += waitStep;
-			waitFor(waitStep);
-			
+		WaitResult result = getWaitEngine().waitUntil(new WaitCondition() {
+			public boolean isSatisfied() {
+				return findWindow(windowIdentifier, false) != null;
+			}
+		}, getTimeout());
+		if (!result.isSatisfied() && findWindow(windowIdentifier, true) == null) {
+			logger.info("Window " + windowIdentifier + " is not present, currently opened windows: "
+					+ windowRegistry.getWindows().size());
 		}
 		
-		logger.info("Waited for a window " + windowIdentifier + " for " + waitedFor + " milliseconds.");
+		logger.info("Waited for a window " + windowIdentifier + " for " + result.getElapsedMillis()
+				+ " milliseconds.");
 	}
 	
 	public void selectWindow(String windowIdentifier) {
@@ -300,23 +810,38 @@ public class WebDriverBrowserImpl implements BrowserController {
 			selectWindowByName(identifier);
 		} else {
 			logger.warn("The window identifier type was not recognized. Trying to use the defualt method");
-			driver.switchTo().window(windowIdentifier);
+			switchToWindow(windowIdentifier);
 		}
 
 	}
 	
 	public void selectWindowByTitle(String title) {
-		for(String handle : driver.getWindowHandles()) {
-			driver.switchTo().window(handle);
-			if(driver.getTitle().contains(title)) break;
-		}
+		selectMatchingWindow("title=" + title);
 	}
 	
 	public void selectWindowByName(String windowName) {
-		for (String handle : driver.getWindowHandles()) {
-			driver.switchTo().window(handle);
-		    String name = executeScript("return document.name").toString();
-		    if(name.contains(windowName)) break;
+		selectMatchingWindow("name=" + windowName);
+	}
+	
+	/**
+	 * Selects the first window matching the identifier. If there is no such
+	 * window, the last opened window gets the focus.
+	 * 
+	 * @param windowIdentifier
+	 *            window identifier with 'title=' or 'name=' prefix
+	 */
+	private void selectMatchingWindow(String windowIdentifier) {
+		WindowInfo selected = findWindow(windowIdentifier);
+		if (selected == null) {
+			List<WindowInfo> windows = windowRegistry.getWindows();
+			if (windows.isEmpty()) {
+				return;
+			}
+			selected = windows.get(windows.size() - 1);
+		}
+		
+		if (!selected.getHandle().equals(windowRegistry.getCurrentHandle())) {
+			switchToWindow(selected.getHandle());
 		}
 	}
 	
@@ -341,28 +866,36 @@ public class WebDriverBrowserImpl implements BrowserController {
 		return getElementAttribute(locator, "value");
 	}
 	
-	public String getElementAttribute(String locator, String attributeName) {
-		By byLocator = locatorPreprocessor(locator);
-		
-		return driver.findElement(byLocator).getAttribute(attributeName);
+	public String getElementAttribute(String locator, final String attributeName) {
+		return withElement(locator, new ElementCallback<String>() {
+			public String doWithElement(WebElement element) {
+				return element.getAttribute(attributeName);
+			}
+		});
 	}
 	
 	public String getSelectedValue(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		Select select = new Select(driver.findElement(byLocator));
-		return select.getFirstSelectedOption().getAttribute("value");
+		return withElement(locator, new ElementCallback<String>() {
+			public String doWithElement(WebElement element) {
+				return new Select(element).getFirstSelectedOption().getAttribute("value");
+			}
+		});
 	}
 	
 	public String getSelectedLabel(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		Select select = new Select(driver.findElement(byLocator));
-		return select.getFirstSelectedOption().getText();
+		return withElement(locator, new ElementCallback<String>() {
+			public String doWithElement(WebElement element) {
+				return new Select(element).getFirstSelectedOption().getText();
+			}
+		});
 	}
 	
 	public String[] getSelectedValues(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		Select select = new Select(driver.findElement(byLocator));
-		List<WebElement> allSelectedOptions = select.getAllSelectedOptions();
+		List<WebElement> allSelectedOptions = withElement(locator, new ElementCallback<List<WebElement>>() {
+			public List<WebElement> doWithElement(WebElement element) {
+				return new Select(element).getAllSelectedOptions();
+			}
+		});
 		List<String> allSelectedValues = new ArrayList<String> (allSelectedOptions.size());
 		
 		for (WebElement option : allSelectedOptions) {
@@ -373,9 +906,11 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 	
 	public String[] getSelectedLabels(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		Select select = new Select(driver.findElement(byLocator));
-		List<WebElement> allSelectedOptions = select.getAllSelectedOptions();
+		List<WebElement> allSelectedOptions = withElement(locator, new ElementCallback<List<WebElement>>() {
+			public List<WebElement> doWithElement(WebElement element) {
+				return new Select(element).getAllSelectedOptions();
+			}
+		});
 		List<String> allSelectedLabels = new ArrayList<String> (allSelectedOptions.size());
 		
 		for (WebElement option : allSelectedOptions) {
@@ -386,8 +921,42 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 
 	public String getText(String locator) {
-		By byLocator = locatorPreprocessor(locator);
-		return driver.findElement(byLocator).getText();
+		return withElement(locator, new ElementCallback<String>() {
+			public String doWithElement(WebElement element) {
+				return element.getText();
+			}
+		});
+	}
+
+	public BatchReadResult read(BatchReadRequest request) {
+		int size = request.size();
+		List<String> types = new ArrayList<String>(size);
+		List<String> identifiers = new ArrayList<String>(size);
+		List<String> properties = new ArrayList<String>(size);
+		List<String> attributeNames = new ArrayList<String>(size);
+		
+		for (BatchReadRequest.Entry entry : request.getEntries()) {
+			CompiledLocator compiledLocator = locatorCache.compile(entry.getLocator());
+			types.add(compiledLocator.getType().name());
+			identifiers.add(compiledLocator.getIdentifier());
+			properties.add(entry.getProperty().name());
+			attributeNames.add(entry.getAttributeName() == null ? "" : entry.getAttributeName());
+		}
+		
+		List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(BrowserScripts.BATCH_READ, types,
+				identifiers, properties, attributeNames);
+		
+		String[] values = new String[size];
+		boolean[] found = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			List<?> value = (List<?>) result.get(i);
+			if (value != null) {
+				found[i] = true;
+				values[i] = value.get(0) == null ? null : value.get(0).toString();
+			}
+		}
+		
+		return new BatchReadResult(request, values, found);
 	}
 
 	public String getTitle() {
@@ -395,7 +964,7 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 	
 	public String getPageState() {
-		return executeScript("return document.readyState").toString();
+		return runScript("return document.readyState").toString();
 	}
 	
 	public boolean isPageLoaded() {
@@ -404,41 +973,32 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 
 	public String[] getAllWindowNames() {
-		String current = driver.getWindowHandle();
-
-	    List<String> windowNames = new ArrayList<String>();
-	    for (String handle : driver.getWindowHandles()) {
-	      driver.switchTo().window(handle);
-	      windowNames.add(executeScript("return window.document.name").toString());
-	    }
-
-	    driver.switchTo().window(current);
-
-	    return windowNames.toArray(new String[windowNames.size()]);
+		List<WindowInfo> windows = getWindows();
+		List<String> windowNames = new ArrayList<String>(windows.size());
+		for (WindowInfo window : windows) {
+			windowNames.add(window.getName());
+		}
+		
+		return windowNames.toArray(new String[windowNames.size()]);
 	}
 
 	public String[] getAllWindowTitles() {
-		String current = driver.getWindowHandle();
-
-	    List<String> windowTitles = new ArrayList<String>();
-	    for (String handle : driver.getWindowHandles()) {
-	      driver.switchTo().window(handle);
-	      windowTitles.add(driver.getTitle());
-	    }
-
-	    driver.switchTo().window(current);
-
-	    return windowTitles.toArray(new String[windowTitles.size()]);
+		List<WindowInfo> windows = getWindows();
+		List<String> windowTitles = new ArrayList<String>(windows.size());
+		for (WindowInfo window : windows) {
+			windowTitles.add(window.getTitle());
+		}
+		
+		return windowTitles.toArray(new String[windowTitles.size()]);
 	}
 
 	public void closeAllBut(String windowIdentifier) {
-		String identifierType = windowIdentifier.substring(0, windowIdentifier.indexOf("="));
-		String identifier = windowIdentifier.substring(windowIdentifier.indexOf("=") + 1);
-		for (String handle : driver.getWindowHandles()) {
-			driver.switchTo().window(handle.toString());
-			
-			String result = executeScript("return window.document." + identifierType).toString();
-			if(!result.contains(identifier)) {
+		// the metadata of all windows are read again, a stale title must not
+		// close the wrong window
+		windowRegistry.allWindowsChanged();
+		for (WindowInfo window : getWindows()) {
+			if (!window.matches(windowIdentifier)) {
+				switchToWindow(window.getHandle());
 				closePage();
 			}
 		}
@@ -451,12 +1011,19 @@ public class WebDriverBrowserImpl implements BrowserController {
 		Set<String> windowsAfter = driver.getWindowHandles();
 		windowsAfter.removeAll(windowsBefore);
 		
-		driver.switchTo().window(windowsAfter.iterator().next());
-		
+		switchToWindow(windowsAfter.iterator().next());
 	}
 	
 	public Object executeScript(String script) {
-		return ((JavascriptExecutor) driver).executeScript(script);
+		try {
+			return runScript(script);
+		} finally {
+			documentChanged();
+		}
+	}
+	
+	public Object evaluateScript(String script, Object... args) {
+		return runScript(script, args);
 	}
 	
 	public String getCurrentUrl() {
@@ -468,6 +1035,7 @@ public class WebDriverBrowserImpl implements BrowserController {
 	}
 	
 	public void refresh(){
+		documentChanged();
 		driver.navigate().refresh();
 	}
 	
@@ -475,4 +1043,8 @@ public class WebDriverBrowserImpl implements BrowserController {
 		driver.manage().deleteAllCookies();
 	}
 	
+	public long getNavigationEpoch() {
+		return navigationEpoch;
+	}
+	
 }
@@ -0,0 +1,20 @@
+package com.pageobject.controller;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Creates new WebDriver instances for {@link WebDriverPool}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public interface WebDriverFactory {
+
+	/**
+	 * Starts a new browser.
+	 *
+	 * @return new WebDriver instance
+	 */
+	public WebDriver create();
+
+}
@@ -0,0 +1,248 @@
+package com.pageobject.controller;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of WebDriver instances created by {@link WebDriverFactory}.
+ * Drivers are leased by {@link #lease(long)} and given back by
+ * {@link #release(WebDriver)}. New drivers are started lazily, up to the
+ * maximum size of the pool. A driver is checked when it is given back and
+ * quit if it is not healthy. Drivers idle for longer than the idle timeout
+ * are quit as well.
+ *
+ * @see PooledBrowserController
+ *
+ * @author michal.nahlik
+ *
+ */
+public class WebDriverPool {
+
+	private static Logger logger = LoggerFactory.getLogger(WebDriverPool.class);
+
+	private final WebDriverFactory factory;
+	private final int maxSize;
+	private final long idleTimeoutNanos;
+
+	private final Semaphore permits;
+	private final BlockingDeque<IdleDriver> idleDrivers = new LinkedBlockingDeque<IdleDriver>();
+	private final ConcurrentMap<WebDriver, Long> leasedDrivers = new ConcurrentHashMap<WebDriver, Long>();
+	private volatile boolean closed;
+
+	private final long createdAt = System.nanoTime();
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong destroyed = new AtomicLong();
+	private final AtomicLong leases = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+	private final AtomicLong busyNanos = new AtomicLong();
+
+	private static final class IdleDriver {
+		private final WebDriver driver;
+		private final long since = System.nanoTime();
+
+		private IdleDriver(WebDriver driver) {
+			this.driver = driver;
+		}
+	}
+
+	/**
+	 * @param factory
+	 *            factory starting new drivers
+	 * @param maxSize
+	 *            maximum number of drivers
+	 * @param idleTimeout
+	 *            how long a driver can wait in the pool before it is quit, in
+	 *            milliseconds
+	 */
+	public WebDriverPool(WebDriverFactory factory, int maxSize, long idleTimeout) {
+		if (factory == null) {
+			throw new IllegalArgumentException("WebDriver factory must not be null.");
+		}
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum size of the pool has to be positive: " + maxSize);
+		}
+		this.factory = factory;
+		this.maxSize = maxSize;
+		this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * Leases a driver, waiting for one to be given back if all drivers are
+	 * leased.
+	 *
+	 * @param timeout
+	 *            the amount of time that should be waited at top, expressed in
+	 *            milliseconds.
+	 * @return leased driver
+	 * @throws IllegalStateException
+	 *             if no driver was available within the timeout, the waiting
+	 *             thread was interrupted or the pool is closed
+	 */
+	public WebDriver lease(long timeout) {
+		checkOpen();
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+				throw new IllegalStateException("No WebDriver available within " + timeout + " ms. " + getMetrics());
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a WebDriver.", ie);
+		}
+		recordWait(System.nanoTime() - start);
+
+		try {
+			WebDriver driver = takeIdleDriver();
+			if (driver == null) {
+				driver = factory.create();
+				created.incrementAndGet();
+				logger.info("Started a new WebDriver for the pool. " + getMetrics());
+			}
+			leasedDrivers.put(driver, System.nanoTime());
+			leases.incrementAndGet();
+			return driver;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives the driver back to the pool. Unhealthy drivers are quit.
+	 *
+	 * @param driver
+	 *            driver leased from this pool
+	 * @throws IllegalArgumentException
+	 *             if the driver was not leased from this pool
+	 */
+	public void release(WebDriver driver) {
+		Long leasedAt = leasedDrivers.remove(driver);
+		if (leasedAt == null) {
+			throw new IllegalArgumentException("The WebDriver was not leased from this pool.");
+		}
+		busyNanos.addAndGet(System.nanoTime() - leasedAt);
+
+		try {
+			if (!closed && isHealthy(driver)) {
+				idleDrivers.offerFirst(new IdleDriver(driver));
+			} else {
+				destroy(driver);
+			}
+		} finally {
+			permits.release();
+		}
+		evictIdle();
+	}
+
+	/**
+	 * Quits drivers which are idle for longer than the idle timeout.
+	 */
+	public void evictIdle() {
+		long now = System.nanoTime();
+		Iterator<IdleDriver> iterator = idleDrivers.descendingIterator();
+		while (iterator.hasNext()) {
+			IdleDriver idle = iterator.next();
+			if (now - idle.since > idleTimeoutNanos && idleDrivers.removeFirstOccurrence(idle)) {
+				logger.info("Quitting WebDriver idle for " + TimeUnit.NANOSECONDS.toSeconds(now - idle.since) + " s.");
+				destroy(idle.driver);
+			}
+		}
+	}
+
+	/**
+	 * Quits all idle drivers and refuses further leases. Leased drivers are
+	 * quit when they are given back.
+	 */
+	public void close() {
+		closed = true;
+		IdleDriver idle;
+		while ((idle = idleDrivers.pollFirst()) != null) {
+			destroy(idle.driver);
+		}
+	}
+
+	/**
+	 * Checks whether the driver can be leased again. This implementation asks
+	 * the browser for its window handles.
+	 *
+	 * @param driver
+	 *            driver given back to the pool
+	 * @return true if the driver is healthy
+	 */
+	protected boolean isHealthy(WebDriver driver) {
+		try {
+			return !driver.getWindowHandles().isEmpty();
+		} catch (RuntimeException e) {
+			logger.warn("WebDriver given back to the pool is not healthy: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * @return current statistics of the pool
+	 */
+	public WebDriverPoolMetrics getMetrics() {
+		long now = System.nanoTime();
+		long busy = busyNanos.get();
+		for (Long leasedAt : leasedDrivers.values()) {
+			busy += now - leasedAt;
+		}
+		double capacity = (double) (now - createdAt) * maxSize;
+		double utilization = capacity <= 0 ? 0 : Math.min(1.0, busy / capacity);
+
+		return new WebDriverPoolMetrics(maxSize, leasedDrivers.size(), idleDrivers.size(), created.get(),
+				destroyed.get(), leases.get(), totalWaitNanos.get(), maxWaitNanos.get(), utilization);
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	private WebDriver takeIdleDriver() {
+		long now = System.nanoTime();
+		IdleDriver idle;
+		while ((idle = idleDrivers.pollFirst()) != null) {
+			if (now - idle.since <= idleTimeoutNanos) {
+				return idle.driver;
+			}
+			destroy(idle.driver);
+		}
+		return null;
+	}
+
+	private void recordWait(long waitNanos) {
+		totalWaitNanos.addAndGet(waitNanos);
+		long max = maxWaitNanos.get();
+		while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+			max = maxWaitNanos.get();
+		}
+	}
+
+	private void destroy(WebDriver driver) {
+		destroyed.incrementAndGet();
+		try {
+			driver.quit();
+		} catch (RuntimeException e) {
+			logger.warn("Unable to quit WebDriver: " + e.getMessage());
+		}
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException("The WebDriver pool is closed.");
+		}
+	}
+
+}
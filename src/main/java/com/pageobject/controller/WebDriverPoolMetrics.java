@@ -0,0 +1,114 @@
+package com.pageobject.controller;
+
+/**
+ * Immutable snapshot of {@link WebDriverPool} statistics.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class WebDriverPoolMetrics {
+
+	private final int maxSize;
+	private final int active;
+	private final int idle;
+	private final long created;
+	private final long destroyed;
+	private final long leases;
+	private final long totalWaitNanos;
+	private final long maxWaitNanos;
+	private final double utilization;
+
+	WebDriverPoolMetrics(int maxSize, int active, int idle, long created, long destroyed, long leases,
+			long totalWaitNanos, long maxWaitNanos, double utilization) {
+		this.maxSize = maxSize;
+		this.active = active;
+		this.idle = idle;
+		this.created = created;
+		this.destroyed = destroyed;
+		this.leases = leases;
+		this.totalWaitNanos = totalWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+		this.utilization = utilization;
+	}
+
+	/**
+	 * @return maximum number of drivers in the pool
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of currently leased drivers
+	 */
+	public int getActive() {
+		return active;
+	}
+
+	/**
+	 * @return number of drivers waiting in the pool for a lease
+	 */
+	public int getIdle() {
+		return idle;
+	}
+
+	/**
+	 * @return how many drivers were started
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * @return how many drivers were quit because they were unhealthy, idle for
+	 *         too long or the pool was closed
+	 */
+	public long getDestroyed() {
+		return destroyed;
+	}
+
+	/**
+	 * @return how many times a driver was leased
+	 */
+	public long getLeases() {
+		return leases;
+	}
+
+	/**
+	 * @return total time spent waiting for a free driver in milliseconds
+	 */
+	public long getTotalWaitMillis() {
+		return totalWaitNanos / 1000000L;
+	}
+
+	/**
+	 * @return average time of waiting for a free driver in milliseconds
+	 */
+	public double getAverageWaitMillis() {
+		return leases == 0 ? 0 : totalWaitNanos / 1000000.0 / leases;
+	}
+
+	/**
+	 * @return the longest time of waiting for a free driver in milliseconds
+	 */
+	public long getMaxWaitMillis() {
+		return maxWaitNanos / 1000000L;
+	}
+
+	/**
+	 * @return share of the pool capacity that was leased since the pool was
+	 *         created, between 0 and 1
+	 */
+	public double getUtilization() {
+		return utilization;
+	}
+
+	@Override
+	public String toString() {
+		return "WebDriverPoolMetrics [maxSize=" + maxSize + ", active=" + active + ", idle=" + idle + ", created="
+				+ created + ", destroyed=" + destroyed + ", leases=" + leases + ", averageWait="
+				+ String.format("%.1f", getAverageWaitMillis()) + " ms, maxWait=" + getMaxWaitMillis()
+				+ " ms, utilization=" + String.format("%.1f", utilization * 100) + " %]";
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.pageobject.controller;
+
+/**
+ * Immutable metadata of an opened browser window kept by
+ * {@link WindowRegistry}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class WindowInfo {
+
+	private final String handle;
+	private final String title;
+	private final String name;
+	private final boolean loaded;
+
+	/**
+	 * @param handle
+	 *            WebDriver window handle
+	 * @param title
+	 *            title of the web page in the window
+	 * @param name
+	 *            document name of the web page in the window
+	 * @param loaded
+	 *            whether the web page was fully loaded when the metadata were
+	 *            read
+	 */
+	public WindowInfo(String handle, String title, String name, boolean loaded) {
+		this.handle = handle;
+		this.title = title == null ? "" : title;
+		this.name = name == null ? "" : name;
+		this.loaded = loaded;
+	}
+
+	public String getHandle() {
+		return handle;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return true if the web page was fully loaded when the metadata were
+	 *         read, otherwise the title and name may still change
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Checks whether the window matches the window identifier.
+	 *
+	 * @param windowIdentifier
+	 *            the window identifier can be a web page title or a name
+	 *            specified by prefix ('name=', 'title='). Doesn't have to be
+	 *            the whole text a partial is enough. If the type is not
+	 *            specified it will be taken as 'title='. Identifier with other
+	 *            prefix is compared with the window handle.
+	 * @return true if the window matches
+	 */
+	public boolean matches(String windowIdentifier) {
+		int typeIndex = windowIdentifier.indexOf("=");
+		String identifier = windowIdentifier.substring(typeIndex + 1);
+
+		if (windowIdentifier.startsWith("title=") || typeIndex == -1) {
+			return title.contains(identifier);
+		} else if (windowIdentifier.startsWith("name=")) {
+			return name.contains(identifier);
+		}
+		return handle.equals(identifier);
+	}
+
+	@Override
+	public String toString() {
+		return "WindowInfo [handle=" + handle + ", title=" + title + ", name=" + name + ", loaded=" + loaded + "]";
+	}
+
+}
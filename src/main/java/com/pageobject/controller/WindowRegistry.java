@@ -0,0 +1,191 @@
+package com.pageobject.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of opened browser windows and their titles and names. The registry
+ * is updated incrementally: {@link #sync(Collection)} compares the current
+ * window handles with the known ones and returns only the windows whose
+ * metadata have to be read again, i.e. new windows, windows where the current
+ * document may have changed and windows which were not fully loaded when
+ * they were read last time.
+ *
+ * <p>
+ * The registry itself does not talk to the browser, reading the metadata is
+ * up to the {@link BrowserController} implementation.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class WindowRegistry {
+
+	private final Map<String, WindowInfo> windows = new LinkedHashMap<String, WindowInfo>();
+	private final Set<String> dirtyWindows = new HashSet<String>();
+	private String currentHandle;
+
+	private long syncs;
+	private long reads;
+
+	/**
+	 * Updates the registry with the current set of window handles. Closed
+	 * windows are forgotten.
+	 *
+	 * @param handles
+	 *            handles of all currently opened windows in their natural order
+	 * @return handles of windows whose metadata have to be read and passed to
+	 *         {@link #update(WindowInfo)}
+	 */
+	public synchronized List<String> sync(Collection<String> handles) {
+		syncs++;
+		windows.keySet().retainAll(handles);
+		dirtyWindows.retainAll(handles);
+
+		List<String> outdated = new ArrayList<String>();
+		Map<String, WindowInfo> ordered = new LinkedHashMap<String, WindowInfo>();
+		for (String handle : handles) {
+			WindowInfo window = windows.get(handle);
+			if (window == null || !window.isLoaded() || dirtyWindows.contains(handle)) {
+				outdated.add(handle);
+			}
+			ordered.put(handle, window);
+		}
+
+		windows.clear();
+		windows.putAll(ordered);
+		return outdated;
+	}
+
+	/**
+	 * Stores freshly read metadata of a window.
+	 *
+	 * @param window
+	 *            window metadata
+	 */
+	public synchronized void update(WindowInfo window) {
+		reads++;
+		windows.put(window.getHandle(), window);
+		dirtyWindows.remove(window.getHandle());
+	}
+
+	/**
+	 * Forgets a closed window.
+	 *
+	 * @param handle
+	 *            window handle
+	 */
+	public synchronized void remove(String handle) {
+		windows.remove(handle);
+		dirtyWindows.remove(handle);
+		if (handle.equals(currentHandle)) {
+			currentHandle = null;
+		}
+	}
+
+	/**
+	 * Marks the current window as changed, e.g. after a click or an opened
+	 * URL, so its metadata will be read again. If the current window is not
+	 * known, all windows are marked.
+	 */
+	public synchronized void currentWindowChanged() {
+		if (currentHandle != null) {
+			dirtyWindows.add(currentHandle);
+		} else {
+			dirtyWindows.addAll(windows.keySet());
+		}
+	}
+
+	/**
+	 * Marks all windows as changed, so their metadata will be read again.
+	 * Titles and names may also change without the registry noticing, e.g. by
+	 * a script or by navigation inside a popup, so this is used before giving
+	 * up a lookup which matched no known window.
+	 */
+	public synchronized void allWindowsChanged() {
+		dirtyWindows.addAll(windows.keySet());
+	}
+
+	/**
+	 * @return handle of the window which has the focus, <code>null</code> if
+	 *         not known
+	 */
+	public synchronized String getCurrentHandle() {
+		return currentHandle;
+	}
+
+	/**
+	 * @param handle
+	 *            handle of the window which has the focus, <code>null</code>
+	 *            if not known
+	 */
+	public synchronized void setCurrentHandle(String handle) {
+		this.currentHandle = handle;
+	}
+
+	/**
+	 * @return metadata of all known windows in the order of the last
+	 *         {@link #sync(Collection)}, windows not read yet are skipped
+	 */
+	public synchronized List<WindowInfo> getWindows() {
+		List<WindowInfo> result = new ArrayList<WindowInfo>(windows.size());
+		for (WindowInfo window : windows.values()) {
+			if (window != null) {
+				result.add(window);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first known window matching the identifier.
+	 *
+	 * @see WindowInfo#matches(String)
+	 *
+	 * @param windowIdentifier
+	 *            the window identifier
+	 * @return the window or <code>null</code> if none matches
+	 */
+	public synchronized WindowInfo find(String windowIdentifier) {
+		for (WindowInfo window : getWindows()) {
+			if (window.matches(windowIdentifier)) {
+				return window;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Forgets all windows.
+	 */
+	public synchronized void clear() {
+		windows.clear();
+		dirtyWindows.clear();
+		currentHandle = null;
+	}
+
+	/**
+	 * @return how many times the registry was synchronized with the browser
+	 */
+	public synchronized long getSyncCount() {
+		return syncs;
+	}
+
+	/**
+	 * @return how many times metadata of a window had to be read
+	 */
+	public synchronized long getReadCount() {
+		return reads;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "WindowRegistry [windows=" + windows.size() + ", current=" + currentHandle + ", syncs=" + syncs
+				+ ", reads=" + reads + "]";
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.pageobject.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses distinct cell texts of a column for {@link TypedColumn}s. Large
+ * columns of thread-safe parsers are split into chunks parsed by a shared
+ * pool of daemon threads.
+ *
+ * @author michal.nahlik
+ *
+ */
+final class ColumnParser {
+
+	/**
+	 * Minimum number of texts parsed in parallel.
+	 */
+	static final int PARALLEL_THRESHOLD = 2048;
+
+	private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static ExecutorService executor;
+
+	/**
+	 * Converts one text.
+	 */
+	interface Parser {
+
+		/**
+		 * @param text
+		 *            cell text, not empty
+		 * @return parsed value
+		 * @throws IllegalArgumentException
+		 *             if the text can't be parsed
+		 */
+		Object parse(String text);
+	}
+
+	private ColumnParser() {
+	}
+
+	/**
+	 * Returns whether the formatting service can be called from the threads
+	 * of the pool. Only {@link DefaultFormattingService} and its subclasses
+	 * are known to be thread-safe, other services are called from the
+	 * calling thread only.
+	 */
+	static boolean isThreadSafe(FormattingService formattingService) {
+		return formattingService instanceof DefaultFormattingService;
+	}
+
+	/**
+	 * Parses the texts. Empty texts and <code>null</code>s give
+	 * <code>null</code> without an error.
+	 *
+	 * @param texts
+	 *            texts to parse
+	 * @param parser
+	 *            converter of one text
+	 * @param parallel
+	 *            whether the parser is thread-safe and large columns can be
+	 *            parsed in parallel
+	 * @param errors
+	 *            array of the same length receiving the messages of the
+	 *            failed texts
+	 * @return parsed values, <code>null</code> for empty or failed texts
+	 */
+	static Object[] parse(final String[] texts, final Parser parser, boolean parallel, final String[] errors) {
+		final Object[] values = new Object[texts.length];
+		if (!parallel || texts.length < PARALLEL_THRESHOLD || THREADS == 1) {
+			parse(texts, parser, values, errors, 0, texts.length);
+			return values;
+		}
+
+		int chunk = (texts.length + THREADS - 1) / THREADS;
+		List<Future<?>> futures = new ArrayList<Future<?>>(THREADS);
+		for (int from = 0; from < texts.length; from += chunk) {
+			final int start = from;
+			final int end = Math.min(from + chunk, texts.length);
+			futures.add(getExecutor().submit(new Runnable() {
+				public void run() {
+					parse(texts, parser, values, errors, start, end);
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while parsing a column.", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Parsing of a column failed.", e.getCause());
+			}
+		}
+		return values;
+	}
+
+	private static void parse(String[] texts, Parser parser, Object[] values, String[] errors, int from, int to) {
+		for (int i = from; i < to; i++) {
+			String text = texts[i];
+			if (text == null || text.trim().length() == 0) {
+				continue;
+			}
+			try {
+				values[i] = parser.parse(text.trim());
+			} catch (RuntimeException e) {
+				errors[i] = e.getMessage() == null ? e.toString() : e.getMessage();
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+				private final AtomicInteger counter = new AtomicInteger();
+
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "pageobject-column-parser-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.pageobject.util;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Column of dates parsed by {@link FormattingService#parseDate(String)},
+ * see {@link TableSnapshot#getDateColumn(int, FormattingService)}. Dates are
+ * kept as milliseconds since the epoch.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class DateColumn extends TypedColumn {
+
+	private final long[] times;
+
+	DateColumn(TableSnapshot snapshot, int cellNumber, final FormattingService formattingService) {
+		super(snapshot.getFirstRowNumber(), snapshot.getRowCount());
+		times = new long[snapshot.getRowCount()];
+		load(snapshot, cellNumber, formattingService, new ColumnParser.Parser() {
+			public Object parse(String text) {
+				return formattingService.parseDate(text);
+			}
+		});
+	}
+
+	@Override
+	void set(int index, Object value) {
+		times[index] = ((Date) value).getTime();
+	}
+
+	@Override
+	int compare(int index1, int index2) {
+		return times[index1] < times[index2] ? -1 : (times[index1] == times[index2] ? 0 : 1);
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return date of the cell or <code>null</code> if the cell has no value
+	 */
+	public Date getDate(int rowNumber) {
+		int index = index(rowNumber);
+		return isPresent(index) ? new Date(times[index]) : null;
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return date of the cell in milliseconds since the epoch
+	 * @throws IllegalStateException
+	 *             if the cell has no value
+	 */
+	public long getTime(int rowNumber) {
+		int index = index(rowNumber);
+		if (!isPresent(index)) {
+			throw new IllegalStateException("Row " + rowNumber + " has no value.");
+		}
+		return times[index];
+	}
+
+	/**
+	 * @return the earliest date or <code>null</code> if there is no value
+	 */
+	public Date min() {
+		int min = -1;
+		for (int i = 0; i < times.length; i++) {
+			if (isPresent(i) && (min < 0 || times[i] < times[min])) {
+				min = i;
+			}
+		}
+		return min < 0 ? null : new Date(times[min]);
+	}
+
+	/**
+	 * @return the latest date or <code>null</code> if there is no value
+	 */
+	public Date max() {
+		int max = -1;
+		for (int i = 0; i < times.length; i++) {
+			if (isPresent(i) && (max < 0 || times[i] > times[max])) {
+				max = i;
+			}
+		}
+		return max < 0 ? null : new Date(times[max]);
+	}
+
+	/**
+	 * @param from
+	 *            the earliest allowed date
+	 * @param to
+	 *            the latest allowed date
+	 * @return row numbers of the dates out of the range, empty list if all
+	 *         dates are in the range
+	 */
+	public List<Integer> getRowsOutOfRange(Date from, Date to) {
+		final long fromTime = from.getTime();
+		final long toTime = to.getTime();
+		return rowsWhere(new Condition() {
+			public boolean matches(int index) {
+				return times[index] < fromTime || times[index] > toTime;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.pageobject.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Column of decimal numbers parsed by {@link FormattingService#parseNumber(String)},
+ * see {@link TableSnapshot#getDecimalColumn(int, FormattingService)}. Numbers
+ * are kept as {@link BigDecimal}s, so sums of amounts are exact. Parsed
+ * doubles are converted by their shortest decimal representation.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class DecimalColumn extends TypedColumn {
+
+	private final BigDecimal[] values;
+
+	DecimalColumn(TableSnapshot snapshot, int cellNumber, final FormattingService formattingService) {
+		super(snapshot.getFirstRowNumber(), snapshot.getRowCount());
+		values = new BigDecimal[snapshot.getRowCount()];
+		load(snapshot, cellNumber, formattingService, new ColumnParser.Parser() {
+			public Object parse(String text) {
+				return toBigDecimal(formattingService.parseNumber(text));
+			}
+		});
+	}
+
+	private static BigDecimal toBigDecimal(Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+		if (number instanceof BigInteger) {
+			return new BigDecimal((BigInteger) number);
+		}
+		if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+			return BigDecimal.valueOf(number.longValue());
+		}
+		try {
+			return new BigDecimal(number.toString());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a decimal number: " + number);
+		}
+	}
+
+	@Override
+	void set(int index, Object value) {
+		values[index] = (BigDecimal) value;
+	}
+
+	@Override
+	int compare(int index1, int index2) {
+		return values[index1].compareTo(values[index2]);
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return value of the cell
+	 * @throws IllegalStateException
+	 *             if the cell has no value
+	 */
+	public BigDecimal getValue(int rowNumber) {
+		int index = index(rowNumber);
+		if (!isPresent(index)) {
+			throw new IllegalStateException("Row " + rowNumber + " has no value.");
+		}
+		return values[index];
+	}
+
+	/**
+	 * @return values of all rows, 0 for cells without a value
+	 */
+	public BigDecimal[] getValues() {
+		BigDecimal[] copy = values.clone();
+		for (int i = 0; i < copy.length; i++) {
+			if (!isPresent(i)) {
+				copy[i] = BigDecimal.ZERO;
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * @return sum of the values, 0 if there is no value
+	 */
+	public BigDecimal sum() {
+		BigDecimal sum = BigDecimal.ZERO;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i)) {
+				sum = sum.add(values[i]);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the lowest value or <code>null</code> if there is no value
+	 */
+	public BigDecimal min() {
+		BigDecimal min = null;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i) && (min == null || values[i].compareTo(min) < 0)) {
+				min = values[i];
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * @return the highest value or <code>null</code> if there is no value
+	 */
+	public BigDecimal max() {
+		BigDecimal max = null;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i) && (max == null || values[i].compareTo(max) > 0)) {
+				max = values[i];
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @param min
+	 *            the lowest allowed value
+	 * @param max
+	 *            the highest allowed value
+	 * @return row numbers of the values out of the range, empty list if all
+	 *         values are in the range
+	 */
+	public List<Integer> getRowsOutOfRange(final BigDecimal min, final BigDecimal max) {
+		return rowsWhere(new Condition() {
+			public boolean matches(int index) {
+				return values[index].compareTo(min) < 0 || values[index].compareTo(max) > 0;
+			}
+		});
+	}
+
+}
@@ -6,15 +6,21 @@
 package com.pageobject.util;
 
 import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
 
 /**
  * Default formatting service using Czech date and number formats.
  * 
  * <p>Date format: dd.MM.yyyy and number format using <code>1 234,56</code> number format.
+ * 
+ * <p>Formats are taken from {@link FormatterRegistry}, so they are created once
+ * per thread and the service can be shared by parallel tests.
  *
  * @author Pavel Muller
  * @version $Revision: 102464 $
@@ -22,6 +28,7 @@ import java.util.Date;
 public class DefaultFormattingService implements FormattingService {
 	private static final String DEFAULT_NUMBER_FORMAT = ".00";
 	private static final String DEFAULT_DATE_FORMAT = "dd.MM.yyyy";
+	private static final Pattern NUMBER_SPACES = Pattern.compile("[\\s\\u00a0]");
 
 	/**
 	 * @see cz.cmhb.olin.selenium.FormattingService#formatDate(java.util.Date)
@@ -30,7 +37,7 @@ public class DefaultFormattingService implements FormattingService {
 		if (date == null) {
 			return null;
 		}
-		SimpleDateFormat dateFormat = new SimpleDateFormat(getDateFormat());
+		SimpleDateFormat dateFormat = FormatterRegistry.getDateFormat(getDateFormat(), getLocale());
 		return dateFormat.format(date);
 	}
 	
@@ -41,11 +48,15 @@ public class DefaultFormattingService implements FormattingService {
 		if (str == null) {
 			return null;
 		}
-		SimpleDateFormat dateFormat = new SimpleDateFormat(getDateFormat());
+		SimpleDateFormat dateFormat = FormatterRegistry.getDateFormat(getDateFormat(), getLocale());
+		// a time zone in the text changes the zone of the shared format
+		TimeZone timeZone = dateFormat.getTimeZone();
 		try {
 			return dateFormat.parse(str);
 		} catch (ParseException e) {
 			throw new IllegalArgumentException("Error parsing date: " + str);
+		} finally {
+			dateFormat.setTimeZone(timeZone);
 		}
 	}
 
@@ -56,13 +67,39 @@ public class DefaultFormattingService implements FormattingService {
 		if (number == null) {
 			return null;
 		}
-		DecimalFormat numberFormat = new DecimalFormat(getNumberFormat());
-		DecimalFormatSymbols decimalFormatSymbols = numberFormat.getDecimalFormatSymbols();
-		decimalFormatSymbols.setDecimalSeparator(getDecimalSeparator());
-		numberFormat.setDecimalFormatSymbols(decimalFormatSymbols);
+		DecimalFormat numberFormat = FormatterRegistry.getNumberFormat(getNumberFormat(), getLocale(),
+				getDecimalSeparator());
 		return numberFormat.format(number);
 	}
 	
+	/**
+	 * Parses the number ignoring spaces used as grouping separators.
+	 * @return {@link java.math.BigDecimal} value
+	 * @see com.pageobject.util.FormattingService#parseNumber(String)
+	 */
+	public Number parseNumber(String str) {
+		if (str == null) {
+			return null;
+		}
+		String text = NUMBER_SPACES.matcher(str).replaceAll("");
+		DecimalFormat numberFormat = FormatterRegistry.getNumberFormat(getNumberFormat(), getLocale(),
+				getDecimalSeparator());
+		ParsePosition position = new ParsePosition(0);
+		Number number = numberFormat.parse(text, position);
+		if (number == null || position.getIndex() != text.length()) {
+			throw new IllegalArgumentException("Error parsing number: " + str);
+		}
+		return number;
+	}
+	
+	/**
+	 * Returns locale of the formats. This implementation returns the default locale.
+	 * @return locale
+	 */
+	protected Locale getLocale() {
+		return Locale.getDefault();
+	}
+	
 	/**
 	 * Returns decimal separator. This implementation returns comma.
 	 * @return decimal separator
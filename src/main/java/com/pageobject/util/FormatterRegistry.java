@@ -0,0 +1,145 @@
+package com.pageobject.util;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.Format;
+import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache of date and number formats by their pattern, locale and decimal
+ * separator. Formats are not thread-safe, so every thread gets its own
+ * instances, created once and reused by all {@link FormattingService}s
+ * running in the thread.
+ *
+ * <p>
+ * A returned format belongs to the calling thread. Use it right away and
+ * don't keep it or pass it to another thread.
+ *
+ * @author michal.nahlik
+ *
+ */
+public final class FormatterRegistry {
+
+	/**
+	 * Maximum number of formats cached per thread, least recently used
+	 * formats are dropped.
+	 */
+	static final int MAX_FORMATS_PER_THREAD = 64;
+
+	private static final ThreadLocal<Map<Key, Format>> FORMATS = new ThreadLocal<Map<Key, Format>>() {
+		@Override
+		protected Map<Key, Format> initialValue() {
+			return new LinkedHashMap<Key, Format>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Format> eldest) {
+					return size() > MAX_FORMATS_PER_THREAD;
+				}
+			};
+		}
+	};
+
+	private FormatterRegistry() {
+	}
+
+	/**
+	 * Returns the date format of the calling thread.
+	 *
+	 * @param pattern
+	 *            {@link SimpleDateFormat} pattern
+	 * @param locale
+	 *            locale of the format
+	 * @return cached format
+	 */
+	public static SimpleDateFormat getDateFormat(String pattern, Locale locale) {
+		Key key = new Key(Key.DATE, pattern, locale, '\0');
+		Map<Key, Format> formats = FORMATS.get();
+		SimpleDateFormat format = (SimpleDateFormat) formats.get(key);
+		if (format == null) {
+			format = new SimpleDateFormat(pattern, locale);
+			formats.put(key, format);
+		}
+		return format;
+	}
+
+	/**
+	 * Returns the number format of the calling thread. Numbers parsed by the
+	 * format are {@link java.math.BigDecimal}s.
+	 *
+	 * @param pattern
+	 *            {@link DecimalFormat} pattern
+	 * @param locale
+	 *            locale of the format symbols
+	 * @param decimalSeparator
+	 *            decimal separator replacing the one of the locale
+	 * @return cached format
+	 */
+	public static DecimalFormat getNumberFormat(String pattern, Locale locale, char decimalSeparator) {
+		Key key = new Key(Key.NUMBER, pattern, locale, decimalSeparator);
+		Map<Key, Format> formats = FORMATS.get();
+		DecimalFormat format = (DecimalFormat) formats.get(key);
+		if (format == null) {
+			DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+			symbols.setDecimalSeparator(decimalSeparator);
+			format = new DecimalFormat(pattern, symbols);
+			format.setParseBigDecimal(true);
+			formats.put(key, format);
+		}
+		return format;
+	}
+
+	/**
+	 * Drops all formats cached by the calling thread.
+	 */
+	public static void clear() {
+		FORMATS.remove();
+	}
+
+	private static final class Key {
+
+		static final int DATE = 1;
+		static final int NUMBER = 2;
+
+		private final int type;
+		private final String pattern;
+		private final Locale locale;
+		private final char decimalSeparator;
+
+		Key(int type, String pattern, Locale locale, char decimalSeparator) {
+			if (pattern == null || locale == null) {
+				throw new IllegalArgumentException("Pattern and locale must not be null.");
+			}
+			this.type = type;
+			this.pattern = pattern;
+			this.locale = locale;
+			this.decimalSeparator = decimalSeparator;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return type == other.type && decimalSeparator == other.decimalSeparator && pattern.equals(other.pattern)
+					&& locale.equals(other.locale);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = type;
+			result = 31 * result + pattern.hashCode();
+			result = 31 * result + locale.hashCode();
+			result = 31 * result + decimalSeparator;
+			return result;
+		}
+	}
+
+}
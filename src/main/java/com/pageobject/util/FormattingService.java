@@ -9,6 +9,10 @@ import java.util.Date;
 
 /**
  * Service for formatting and type conversion.
+ * 
+ * <p>Implementations need not be thread-safe. {@link TypedColumn}s parse
+ * large columns in parallel only by {@link DefaultFormattingService}, which
+ * keeps its formats per thread; its subclasses must stay thread-safe.
  *
  * @author Pavel Muller
  * @version $Revision: 102464 $
@@ -33,4 +37,12 @@ public interface FormattingService {
 	 */
 	public String formatNumber(Number number);
 
+	/**
+	 * Parses a number formatted by {@link #formatNumber(Number)}.
+	 * @param str formatted number, may be <code>null</code>
+	 * @return the number or <code>null</code> if the text is <code>null</code>
+	 * @throws IllegalArgumentException if the text is not a number
+	 */
+	public Number parseNumber(String str);
+
 }
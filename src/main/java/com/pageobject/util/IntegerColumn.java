@@ -0,0 +1,132 @@
+package com.pageobject.util;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Column of whole numbers parsed by {@link FormattingService#parseNumber(String)},
+ * see {@link TableSnapshot#getIntegerColumn(int, FormattingService)}. Numbers
+ * with a fraction are reported as errors.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class IntegerColumn extends TypedColumn {
+
+	private final long[] values;
+
+	IntegerColumn(TableSnapshot snapshot, int cellNumber, final FormattingService formattingService) {
+		super(snapshot.getFirstRowNumber(), snapshot.getRowCount());
+		values = new long[snapshot.getRowCount()];
+		load(snapshot, cellNumber, formattingService, new ColumnParser.Parser() {
+			public Object parse(String text) {
+				return toLong(formattingService.parseNumber(text));
+			}
+		});
+	}
+
+	private static Long toLong(Number number) {
+		if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+			return number.longValue();
+		}
+		try {
+			return new BigDecimal(number.toString()).longValueExact();
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Not a whole number: " + number);
+		}
+	}
+
+	@Override
+	void set(int index, Object value) {
+		values[index] = (Long) value;
+	}
+
+	@Override
+	int compare(int index1, int index2) {
+		return values[index1] < values[index2] ? -1 : (values[index1] == values[index2] ? 0 : 1);
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return value of the cell
+	 * @throws IllegalStateException
+	 *             if the cell has no value
+	 */
+	public long getValue(int rowNumber) {
+		int index = index(rowNumber);
+		if (!isPresent(index)) {
+			throw new IllegalStateException("Row " + rowNumber + " has no value.");
+		}
+		return values[index];
+	}
+
+	/**
+	 * @return values of all rows, 0 for cells without a value
+	 */
+	public long[] getValues() {
+		long[] copy = values.clone();
+		for (int i = 0; i < copy.length; i++) {
+			if (!isPresent(i)) {
+				copy[i] = 0;
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * @return sum of the values, 0 if there is no value
+	 */
+	public long sum() {
+		long sum = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i)) {
+				sum += values[i];
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the lowest value or <code>null</code> if there is no value
+	 */
+	public Long min() {
+		Long min = null;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i) && (min == null || values[i] < min)) {
+				min = values[i];
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * @return the highest value or <code>null</code> if there is no value
+	 */
+	public Long max() {
+		Long max = null;
+		for (int i = 0; i < values.length; i++) {
+			if (isPresent(i) && (max == null || values[i] > max)) {
+				max = values[i];
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @param min
+	 *            the lowest allowed value
+	 * @param max
+	 *            the highest allowed value
+	 * @return row numbers of the values out of the range, empty list if all
+	 *         values are in the range
+	 */
+	public List<Integer> getRowsOutOfRange(final long min, final long max) {
+		return rowsWhere(new Condition() {
+			public boolean matches(int index) {
+				return values[index] < min || values[index] > max;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,284 @@
+package com.pageobject.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Conditions a table row has to fulfill to be found by
+ * {@link TableControl#findRow(RowCriteria)}. All conditions have to be
+ * fulfilled. A page of the table is read or searched by one call to the
+ * browser, cached pages are searched in Java.
+ *
+ * <pre>
+ * table.findRow(new RowCriteria()
+ * 		.column("Name", "Doe")
+ * 		.columnMatches("Date", "^2013-0[1-6]")
+ * 		.contains("Prague"));
+ * </pre>
+ *
+ * Regular expressions are evaluated by javascript in the browser or by Java,
+ * use the syntax common to javascript and Java (no look-behind, named groups or
+ * possessive quantifiers).
+ *
+ * @author michal.nahlik
+ *
+ */
+public class RowCriteria {
+
+	/**
+	 * Kind of condition.
+	 */
+	public enum Type {
+
+		/**
+		 * The text contains the value.
+		 */
+		CONTAINS,
+
+		/**
+		 * The regular expression is found in the text.
+		 */
+		MATCHES
+	}
+
+	/**
+	 * One condition. The text of a row condition is the texts of all cells
+	 * joined by spaces, the text of a column condition is the text of the
+	 * cell in the column. If the browser can't run scripts, row conditions
+	 * are evaluated against the row text returned by the browser, where the
+	 * cells may be separated by tabs.
+	 */
+	public static final class Condition {
+
+		private final Type type;
+		private final String columnHeader;
+		private final String value;
+		private final Pattern pattern;
+
+		private Condition(Type type, String columnHeader, String value) {
+			if (value == null) {
+				throw new IllegalArgumentException("Searched value must not be null.");
+			}
+			this.type = type;
+			this.columnHeader = columnHeader;
+			this.value = value;
+			this.pattern = type == Type.MATCHES ? Pattern.compile(value) : null;
+		}
+
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * @return text contained in the header of the column or
+		 *         <code>null</code> for a row condition
+		 */
+		public String getColumnHeader() {
+			return columnHeader;
+		}
+
+		/**
+		 * @return searched value or regular expression
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		boolean isFulfilled(String text) {
+			if (text == null) {
+				return false;
+			}
+			return type == Type.MATCHES ? pattern.matcher(text).find() : text.contains(value);
+		}
+
+		@Override
+		public String toString() {
+			return (columnHeader == null ? "row" : "column '" + columnHeader + "'") + " "
+					+ type.name().toLowerCase() + " '" + value + "'";
+		}
+	}
+
+	private final List<Condition> conditions = new ArrayList<Condition>();
+
+	/**
+	 * Creates criteria of rows containing all given values, the same search
+	 * as {@link TableControl#findRow(String[])}.
+	 *
+	 * @param values
+	 *            values contained in the row
+	 * @return the criteria
+	 */
+	public static RowCriteria containing(String... values) {
+		RowCriteria criteria = new RowCriteria();
+		for (String value : values) {
+			criteria.contains(value);
+		}
+		return criteria;
+	}
+
+	/**
+	 * The row contains the value in any cell.
+	 *
+	 * @param value
+	 *            searched value, a substring of the row text
+	 * @return this criteria
+	 */
+	public RowCriteria contains(String value) {
+		return add(Type.CONTAINS, null, value);
+	}
+
+	/**
+	 * The regular expression is found in the row text.
+	 *
+	 * @param regex
+	 *            regular expression
+	 * @return this criteria
+	 */
+	public RowCriteria matches(String regex) {
+		return add(Type.MATCHES, null, regex);
+	}
+
+	/**
+	 * The cell in the column contains the value.
+	 *
+	 * @param columnHeader
+	 *            text contained in the header cell of the column
+	 * @param value
+	 *            searched value, a substring of the cell text
+	 * @return this criteria
+	 */
+	public RowCriteria column(String columnHeader, String value) {
+		return add(Type.CONTAINS, requireHeader(columnHeader), value);
+	}
+
+	/**
+	 * The regular expression is found in the cell of the column.
+	 *
+	 * @param columnHeader
+	 *            text contained in the header cell of the column
+	 * @param regex
+	 *            regular expression
+	 * @return this criteria
+	 */
+	public RowCriteria columnMatches(String columnHeader, String regex) {
+		return add(Type.MATCHES, requireHeader(columnHeader), regex);
+	}
+
+	private RowCriteria add(Type type, String columnHeader, String value) {
+		conditions.add(new Condition(type, columnHeader, value));
+		return this;
+	}
+
+	private static String requireHeader(String columnHeader) {
+		if (columnHeader == null || columnHeader.length() == 0) {
+			throw new IllegalArgumentException("Column header must not be empty.");
+		}
+		return columnHeader;
+	}
+
+	/**
+	 * @return all conditions in the order they were added
+	 */
+	public List<Condition> getConditions() {
+		return Collections.unmodifiableList(conditions);
+	}
+
+	/**
+	 * @return true if some condition refers to a column
+	 */
+	public boolean hasColumnConditions() {
+		for (Condition condition : conditions) {
+			if (condition.getColumnHeader() != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Evaluates the criteria in Java, used when the browser can't search.
+	 *
+	 * @param headers
+	 *            header texts of the table
+	 * @param cells
+	 *            cell texts of the row
+	 * @return true if the row fulfills all conditions
+	 * @throws IllegalArgumentException
+	 *             if a column was not found in the headers
+	 */
+	public boolean isFulfilled(List<String> headers, List<String> cells) {
+		String rowText = null;
+		for (Condition condition : conditions) {
+			String text;
+			if (condition.getColumnHeader() == null) {
+				if (rowText == null) {
+					rowText = join(cells);
+				}
+				text = rowText;
+			} else {
+				int column = findColumn(headers, condition.getColumnHeader());
+				text = column < cells.size() ? cells.get(column) : null;
+			}
+			if (!condition.isFulfilled(text)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Evaluates row conditions against the text of the whole row.
+	 *
+	 * @param rowText
+	 *            text of the row
+	 * @return true if the row fulfills all conditions
+	 * @throws IllegalStateException
+	 *             if there are column conditions
+	 */
+	boolean isFulfilled(String rowText) {
+		if (hasColumnConditions()) {
+			throw new IllegalStateException("Column conditions need cell texts.");
+		}
+		for (Condition condition : conditions) {
+			if (!condition.isFulfilled(rowText)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int findColumn(List<String> headers, String columnHeader) {
+		for (int i = 0; i < headers.size(); i++) {
+			if (headers.get(i).contains(columnHeader)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Column '" + columnHeader + "' was not found in headers " + headers);
+	}
+
+	/**
+	 * Joins the cell texts by a space the same way as the table script does
+	 * in JavaScript, <code>null</code> cells are joined as empty texts.
+	 */
+	static String join(List<String> cells) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < cells.size(); i++) {
+			if (i > 0) {
+				builder.append(' ');
+			}
+			String cell = cells.get(i);
+			if (cell != null) {
+				builder.append(cell);
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "RowCriteria " + conditions;
+	}
+
+}
@@ -6,8 +6,16 @@
 package com.pageobject.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.StringUtils;
 
 import com.pageobject.component.AbstractComponent;
@@ -16,6 +24,30 @@ import com.pageobject.component.Component;
 /**
  * Control for simple manipulation with HTML table.
  * 
+ * <p>Rows and headers are read by one script call per table page, see
+ * {@link #getSnapshot()}. If the browser can't run scripts, the table is read
+ * cell by cell.
+ * 
+ * <p>Large paginated tables can be read row by row by {@link #rows()}, which
+ * reads the rows in chunks and goes to the next page only when needed. Many
+ * rows can be looked up by their key columns in {@link #getIndex(String...)}.
+ * 
+ * <p>Operations on the whole table ({@link #getRowCount()}, {@link #findRow(RowCriteria)},
+ * {@link #getAllRows()}, {@link #rows()}) start at the first page. Read pages
+ * are cached by their page number together with the position of the displayed
+ * page, so repeated queries don't turn the pages again. The cache is discarded
+ * whenever the navigation epoch of the browser changes (a click, a submit,
+ * a script, ...) except for the page turns done by this control, see
+ * {@link #getCacheGeneration()}. Before cached data are used, the number of
+ * rows on the displayed page is compared with the cached one, so the cache is
+ * discarded also when a script changes the table without a browser command,
+ * e.g. a delayed filter. The check is done once at the start of each of
+ * these operations. Until the control turns to the first page itself, the
+ * displayed page is unknown, so the first operation rewinds the table. The
+ * control assumes that nobody else turns the pages of the table.
+ * Call {@link #invalidateCache()} if rows may change in place without the
+ * browser noticing it.
+ * 
  * @author Pavel Muller
  * @version $Revision: 103519 $
  */
@@ -30,6 +62,238 @@ public class TableControl extends AbstractComponent {
 	private String selectedRowAttributeName;
 	private String selectedRowAttributeValue;
 	
+	/** page number of an unknown page */
+	private static final int UNKNOWN_PAGE = 0;
+	/** navigation epoch before the first use of the control */
+	private static final long NO_EPOCH = Long.MIN_VALUE;
+	
+	private boolean snapshotEnabled = true;
+	private int chunkSize = 100;
+	private int cachePages = 20;
+	
+	/** snapshots of whole pages by page number, least recently used pages are evicted */
+	private final Map<Integer, TableSnapshot> pageCache = new LinkedHashMap<Integer, TableSnapshot>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, TableSnapshot> eldest) {
+			return size() > cachePages;
+		}
+	};
+	private final Map<Integer, Integer> pageRowCounts = new HashMap<Integer, Integer>();
+	/** header texts read cell by cell */
+	private List<String> cachedHeaders;
+	/** indexes of the table by matching and key headers */
+	private final Map<String, TableIndex> indexes = new HashMap<String, TableIndex>();
+	/** number of the last page, {@link #UNKNOWN_PAGE} until the last page was displayed */
+	private int lastPage = UNKNOWN_PAGE;
+	/** number of the displayed page, pages turned by this control are tracked */
+	private int currentPage = UNKNOWN_PAGE;
+	/** navigation epoch the cache belongs to */
+	private long cacheEpoch = NO_EPOCH;
+	private long cacheGeneration;
+	
+	/**
+	 * Enables reading of the table by one script call per page. Enabled by
+	 * default, the property is table.snapshot.
+	 * @param snapshotEnabled false to read the table cell by cell
+	 */
+	@Value("${table.snapshot:true}")
+	public void setSnapshotEnabled(boolean snapshotEnabled) {
+		this.snapshotEnabled = snapshotEnabled;
+	}
+	
+	public boolean isSnapshotEnabled() {
+		return snapshotEnabled;
+	}
+	
+	/**
+	 * Sets the number of rows read by one script call when the table is
+	 * iterated by {@link #rows()}. Default is 100, the property is table.chunk.size.
+	 * @param chunkSize number of rows, at least 1
+	 */
+	@Value("${table.chunk.size:100}")
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be at least 1.");
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	public int getChunkSize() {
+		return chunkSize;
+	}
+	
+	/**
+	 * Sets the maximum number of table pages kept in the cache. Default is 20,
+	 * the property is table.cache.pages.
+	 * @param cachePages number of pages, 0 disables the cache
+	 */
+	@Value("${table.cache.pages:20}")
+	public void setCachePages(int cachePages) {
+		if (cachePages < 0) {
+			throw new IllegalArgumentException("Number of cached pages must not be negative.");
+		}
+		this.cachePages = cachePages;
+		invalidateCache();
+	}
+	
+	public int getCachePages() {
+		return cachePages;
+	}
+	
+	/**
+	 * Returns the generation of the cached table contents. The generation
+	 * changes whenever the cache is discarded, so values derived from the
+	 * table contents can be reused while the generation stays the same.
+	 * @return current cache generation
+	 */
+	public long getCacheGeneration() {
+		checkTable();
+		return cacheGeneration;
+	}
+	
+	/**
+	 * Discards all cached pages and forgets the position of the displayed
+	 * page, so the next operation on the whole table rewinds it.
+	 */
+	public void invalidateCache() {
+		pageCache.clear();
+		pageRowCounts.clear();
+		cachedHeaders = null;
+		indexes.clear();
+		lastPage = UNKNOWN_PAGE;
+		currentPage = UNKNOWN_PAGE;
+		cacheGeneration++;
+	}
+	
+	/**
+	 * Discards the cache if the document changed since it was filled.
+	 */
+	private void checkCache() {
+		long epoch = browser.getNavigationEpoch();
+		if (epoch != cacheEpoch) {
+			if (cacheEpoch != NO_EPOCH) {
+				invalidateCache();
+			}
+			cacheEpoch = epoch;
+		}
+	}
+	
+	/**
+	 * Discards the cache if the document or the rows on the displayed page
+	 * changed. Called once at the start of a public operation, the operation
+	 * itself relies on {@link #checkCache()} only.
+	 */
+	private void checkTable() {
+		checkCache();
+		checkDisplayedPage();
+	}
+	
+	/**
+	 * Discards the cache if the number of rows on the displayed page differs
+	 * from the cached one, the table changed without changing the navigation
+	 * epoch.
+	 */
+	private void checkDisplayedPage() {
+		Integer cachedRowCount = currentPage == UNKNOWN_PAGE ? null : pageRowCounts.get(currentPage);
+		if (cachedRowCount != null && cachedRowCount.intValue() != getRowCountOnPage()) {
+			logger.debug("Rows on page " + currentPage + " of the table changed, discarding the cache.");
+			invalidateCache();
+		}
+	}
+	
+	private TableSnapshot cachedPage(int page) {
+		checkCache();
+		if (page == UNKNOWN_PAGE || !pageCache.containsKey(page)) {
+			return null;
+		}
+		return pageCache.get(page);
+	}
+	
+	private void cachePage(int page, TableSnapshot snapshot) {
+		if (page != UNKNOWN_PAGE && cachePages > 0) {
+			pageCache.put(page, snapshot);
+			pageRowCounts.put(page, snapshot.getPageRowCount());
+		}
+	}
+	
+	/**
+	 * Clicks on a page button and remembers the displayed page.
+	 * @param button locator of the button
+	 * @param page number of the page displayed after the click
+	 */
+	private void turnPage(String button, int page) {
+		checkCache();
+		click(button);
+		currentPage = page;
+		cacheEpoch = browser.getNavigationEpoch();
+	}
+	
+	/**
+	 * Displays the first page. Clicks the first page button or the previous
+	 * page button until it disappears.
+	 */
+	private void rewind() {
+		checkCache();
+		if (currentPage == 1) {
+			return;
+		}
+		if (isElementPresent(firstPageButton)) {
+			turnPage(firstPageButton, 1);
+			return;
+		}
+		while (isElementPresent(previousPageButton)) {
+			turnPage(previousPageButton, UNKNOWN_PAGE);
+		}
+		currentPage = 1;
+	}
+	
+	/**
+	 * Displays the page of the table, e.g. the page of a row found in
+	 * {@link TableIndex}. Pages are turned from the tracked position of the
+	 * displayed page, the page must exist.
+	 * @param page page number starting from 1
+	 */
+	public void gotoPage(int page) {
+		checkCache();
+		if (currentPage != UNKNOWN_PAGE && currentPage > page && currentPage - page < page
+				&& isElementPresent(previousPageButton)) {
+			while (currentPage > page) {
+				turnPage(previousPageButton, currentPage - 1);
+			}
+		}
+		if (currentPage == UNKNOWN_PAGE || currentPage > page) {
+			rewind();
+		}
+		while (currentPage < page) {
+			turnPage(nextPageButton, currentPage + 1);
+		}
+	}
+	
+	/**
+	 * Returns whether the table has the page. Displays the previous page
+	 * if it is not known whether it is the last one.
+	 * @param page page number starting from 2
+	 */
+	private boolean hasPage(int page) {
+		checkCache();
+		if (lastPage != UNKNOWN_PAGE) {
+			return page <= lastPage;
+		}
+		if (pageRowCounts.containsKey(page)) {
+			return true;
+		}
+		gotoPage(page - 1);
+		if (isElementPresent(nextPageButton)) {
+			return true;
+		}
+		if (cachePages > 0) {
+			lastPage = page - 1;
+		}
+		return false;
+	}
+	
 	/**
 	 * Configures location of a table within a page.
 	 * Set this property before use.
@@ -197,16 +461,20 @@ public class TableControl extends AbstractComponent {
 	 * @return column number starting from 1 or <code>null</code> if not found
 	 */
 	public Integer findColumn(String headerCellText) {
-		String headerCellLocator = tableLocator + getHeaderLocator() + getHeaderCellLocator();
-		int columnNumber = 1;
+		checkTable();
+		TableSnapshot snapshot = cachedPage(currentPage);
+		if (snapshot == null) {
+			snapshot = snapshot(1, 0);
+		}
+		if (snapshot != null) {
+			return snapshot.findColumn(headerCellText);
+		}
 		
-		while(isElementPresent(headerCellLocator + "[" + columnNumber + "]")) {
-			String thText = getText(headerCellLocator + "[" + columnNumber + "]");
-			if(thText.contains(headerCellText)) {
-				return columnNumber;
+		List<String> headers = getHeadersByCells();
+		for (int i = 0; i < headers.size(); i++) {
+			if (headers.get(i).contains(headerCellText)) {
+				return i + 1;
 			}
-			
-			columnNumber++;
 		}
 		
 		return null;
@@ -243,15 +511,28 @@ public class TableControl extends AbstractComponent {
 	 * @return row count, 0 for empty table
 	 */
 	public int getRowCount() {
-		int rowCount = getRowCountOnPage();
-		while (isElementPresent(nextPageButton)) {
-			click(nextPageButton);
-			rowCount += getRowCountOnPage();
+		checkTable();
+		int rowCount = 0;
+		for (int page = 1; page == 1 || hasPage(page); page++) {
+			rowCount += getRowCountOnPage(page);
 		}
 		
 		return rowCount;
 	}
 	
+	private int getRowCountOnPage(int page) {
+		checkCache();
+		Integer rowCount = pageRowCounts.get(page);
+		if (rowCount == null) {
+			gotoPage(page);
+			rowCount = getRowCountOnPage();
+			if (cachePages > 0) {
+				pageRowCounts.put(page, rowCount);
+			}
+		}
+		return rowCount;
+	}
+	
 	/**
 	 * @return
 	 */
@@ -287,14 +568,33 @@ public class TableControl extends AbstractComponent {
 	 * @return row number starting from 1 or <code>null</code> if not found
 	 */
 	public Integer findRow(String[] cellValues) {
-		Integer rowNumber = findRowOnPage(cellValues);
-		if (rowNumber != null) {
-			return rowNumber;
-		}
-		
-		while (isElementPresent(nextPageButton)) {
-			click(nextPageButton);
-			rowNumber = findRowOnPage(cellValues);
+		return findRow(RowCriteria.containing(cellValues));
+	}
+	
+	/**
+	 * Finds the first row fulfilling the criteria, going through the pages
+	 * of the table from the first one. Pages in the cache are searched in
+	 * Java, other pages are searched by one script call inside the browser,
+	 * which returns only the number of the matching row. The page with the
+	 * found row stays displayed. Returns <code>null</code> if row not found.
+	 * @param criteria conditions of the row
+	 * @return row number on its page starting from 1 or <code>null</code> if not found
+	 * @throws IllegalArgumentException if a column of the criteria was not found
+	 */
+	public Integer findRow(RowCriteria criteria) {
+		checkTable();
+		for (int page = 1; page == 1 || hasPage(page); page++) {
+			Integer rowNumber = null;
+			TableSnapshot snapshot = cachedPage(page);
+			if (snapshot != null) {
+				rowNumber = snapshot.findRow(criteria);
+				if (rowNumber != null) {
+					gotoPage(page);
+				}
+			} else {
+				gotoPage(page);
+				rowNumber = findRowOnPage(criteria);
+			}
 			if (rowNumber != null) {
 				return rowNumber;
 			}
@@ -303,19 +603,44 @@ public class TableControl extends AbstractComponent {
 		return null;
 	}
 	
-	private Integer findRowOnPage(String[] cellValues) {
+	/**
+	 * Returns the snapshot of the page from the cache or reads it.
+	 * @return the snapshot or <code>null</code> if the table should be read cell by cell
+	 */
+	private TableSnapshot getPageSnapshot(int page) {
+		TableSnapshot snapshot = cachedPage(page);
+		if (snapshot == null) {
+			gotoPage(page);
+			snapshot = snapshot(1, TableSnapshot.ALL_ROWS);
+			if (snapshot != null) {
+				cachePage(page, snapshot);
+			}
+		}
+		return snapshot;
+	}
+	
+	private Integer findRowOnPage(RowCriteria criteria) {
+		if (snapshotEnabled) {
+			try {
+				return searchRow(criteria);
+			} catch (UnsupportedOperationException e) {
+				logger.info("Browser can't search the table by a script, reading it cell by cell. " + e.getMessage());
+				snapshotEnabled = false;
+			}
+		}
+		
 		String rowLocator = getTableLocator() + getRowLocator(); 
+		List<String> headers = criteria.hasColumnConditions() ? getHeadersByCells() : null;
 
 		int rowNumber = 1;
 		while (isElementPresent("xpath=" + rowLocator + "[" + rowNumber + "]")) {
-			String rowContent = getText("xpath=" + rowLocator + "[" + rowNumber + "]");
-			boolean result = true;
-			for (String cell : cellValues) {
-				if (rowContent.indexOf(cell) == -1) {
-					result = false;
-				}
+			boolean result;
+			if (headers == null) {
+				result = criteria.isFulfilled(getText("xpath=" + rowLocator + "[" + rowNumber + "]"));
+			} else {
+				result = criteria.isFulfilled(headers, readRowByCells(rowNumber));
 			}
-			if (result == true) {
+			if (result) {
 				return rowNumber;
 			}
 			rowNumber++;
@@ -324,6 +649,35 @@ public class TableControl extends AbstractComponent {
 		return null;
 	}
 	
+	/**
+	 * Searches the current page of the table for the first row fulfilling
+	 * the criteria by one script call.
+	 * @param criteria conditions of the row
+	 * @return row number starting from 1 or <code>null</code> if not found
+	 * @throws IllegalArgumentException if a column of the criteria was not found
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	protected Integer searchRow(RowCriteria criteria) {
+		List<RowCriteria.Condition> conditions = criteria.getConditions();
+		List<String> types = new ArrayList<String>(conditions.size());
+		List<String> columnHeaders = new ArrayList<String>(conditions.size());
+		List<String> values = new ArrayList<String>(conditions.size());
+		for (RowCriteria.Condition condition : conditions) {
+			types.add(condition.getType().name());
+			columnHeaders.add(condition.getColumnHeader() == null ? "" : condition.getColumnHeader());
+			values.add(condition.getValue());
+		}
+		
+		List<?> result = (List<?>) browser.evaluateScript(TableScripts.FIND_ROW, getTableLocator(), getRowLocator(),
+				getCellLocator(), getHeaderLocator(), getHeaderCellLocator(), types, columnHeaders, values);
+		checkScriptResult(result);
+		if (result.get(1) != null) {
+			throw new IllegalArgumentException("Column '" + result.get(1) + "' was not found in the table headers.");
+		}
+		int rowNumber = ((Number) result.get(0)).intValue();
+		return rowNumber == 0 ? null : rowNumber;
+	}
+	
 	/**
 	 * @param entity
 	 * @return
@@ -350,12 +704,22 @@ public class TableControl extends AbstractComponent {
 	 * @return row contents or <code>null</code> if not found
 	 */
 	public TableRow getRow(String[] cellValues) {
-		Integer rowNumber = findRow(cellValues);
+		return getRow(RowCriteria.containing(cellValues));
+	}
+	
+	/**
+	 * Returns a row content of the first row fulfilling the criteria.
+	 * Returns <code>null</code> if row not found.
+	 * @param criteria conditions of the row
+	 * @return row contents or <code>null</code> if not found
+	 */
+	public TableRow getRow(RowCriteria criteria) {
+		Integer rowNumber = findRow(criteria);
 		if (rowNumber == null) {
 			return null;
 		}
 		
-		return getRow(rowNumber);
+		return readRow(rowNumber);
 	}
 
 	/**
@@ -364,41 +728,461 @@ public class TableControl extends AbstractComponent {
 	 * @return row control
 	 */
 	public TableRow getRow(int rowNumber) {
-		TableRow row = new TableRow();
+		checkTable();
+		return readRow(rowNumber);
+	}
+	
+	private TableRow readRow(int rowNumber) {
+		TableSnapshot snapshot = cachedPage(currentPage);
+		if (snapshot == null) {
+			snapshot = snapshot(rowNumber, rowNumber);
+		}
+		if (snapshot != null) {
+			return snapshot.containsRow(rowNumber) ? snapshot.getRow(rowNumber) : new TableRow();
+		}
 		
+		return toTableRow(readRowByCells(rowNumber));
+	}
+	
+	private static TableRow toTableRow(List<String> cells) {
+		TableRow row = new TableRow();
+		for (int i = 0; i < cells.size(); i++) {
+			row.addCell(i + 1, cells.get(i));
+		}
+		return row;
+	}
+	
+	private List<String> readRowByCells(int rowNumber) {
+		List<String> cells = new ArrayList<String>();
 		String cellLocator = getTableLocator() + getRowLocator() + "[" + rowNumber + "]" + getCellLocator();
 		int cellNumber = 1;
 		while (isElementPresent("xpath=" + cellLocator + "[" + cellNumber + "]")) {
-			String cellContent = getText("xpath=" + cellLocator + "[" + cellNumber + "]");
-			row.addCell(cellNumber, cellContent);
+			cells.add(getText("xpath=" + cellLocator + "[" + cellNumber + "]"));
 			cellNumber++;
 		}
-		
-		return row;
+		return cells;
+	}
+	
+	/**
+	 * Returns the header texts read cell by cell, kept until the cache is discarded.
+	 */
+	private List<String> getHeadersByCells() {
+		checkCache();
+		if (cachedHeaders == null) {
+			List<String> headers = readHeadersByCells();
+			if (cachePages == 0) {
+				return headers;
+			}
+			cachedHeaders = headers;
+		}
+		return cachedHeaders;
+	}
+	
+	private List<String> readHeadersByCells() {
+		List<String> headers = new ArrayList<String>();
+		String headerCellLocator = "xpath=" + getTableLocator() + getHeaderLocator() + getHeaderCellLocator();
+		int columnNumber = 1;
+		while (isElementPresent(headerCellLocator + "[" + columnNumber + "]")) {
+			headers.add(getText(headerCellLocator + "[" + columnNumber + "]"));
+			columnNumber++;
+		}
+		return headers;
 	}
 
 	/**
-	 * Returns all rows in a table.
+	 * Returns the index of all rows in the table keyed by exact texts of the
+	 * given columns.
+	 * @param headerCellTexts texts contained in the header cells of the key columns
+	 * @return the index
+	 * @throws IllegalArgumentException if a column was not found
+	 * @see #getIndex(TableIndex.Matching, String...)
+	 */
+	public TableIndex getIndex(String... headerCellTexts) {
+		return getIndex(TableIndex.Matching.EXACT, headerCellTexts);
+	}
+	
+	/**
+	 * Returns the index of all rows in the table keyed by texts of the given
+	 * columns. The index is built from all pages of the table once per cache
+	 * generation, lookups in it don't call the browser. If the cache is
+	 * discarded while the pages are read, the index is built once more; an
+	 * index which still mixes generations is returned with the generation of
+	 * its first page and is not cached.
+	 * @param matching how the key values are compared with the cell texts
+	 * @param headerCellTexts texts contained in the header cells of the key columns
+	 * @return the index
+	 * @throws IllegalArgumentException if a column was not found
+	 */
+	public TableIndex getIndex(TableIndex.Matching matching, String... headerCellTexts) {
+		checkTable();
+		String key = matching + " " + Arrays.asList(headerCellTexts);
+		TableIndex index = indexes.get(key);
+		if (index == null) {
+			index = buildIndex(matching, headerCellTexts);
+			if (index.getGeneration() != cacheGeneration) {
+				logger.debug("Table changed while it was indexed, building the index again.");
+				index = buildIndex(matching, headerCellTexts);
+			}
+			if (cachePages > 0 && index.getGeneration() == cacheGeneration) {
+				indexes.put(key, index);
+			}
+		}
+		return index;
+	}
+	
+	/**
+	 * Reads all pages into a new index. The index gets the cache generation
+	 * of its first page, so it differs from the current generation if the
+	 * cache was discarded while the pages were read.
+	 */
+	private TableIndex buildIndex(TableIndex.Matching matching, String[] headerCellTexts) {
+		TableIndex index = null;
+		for (int page = 1; page == 1 || hasPage(page); page++) {
+			TableSnapshot snapshot = getPageSnapshot(page);
+			if (index == null) {
+				List<String> headers = snapshot != null ? snapshot.getHeaders() : getHeadersByCells();
+				index = new TableIndex(matching, Arrays.asList(headerCellTexts), findColumns(headers, headerCellTexts),
+						cacheGeneration);
+			}
+			if (snapshot != null) {
+				for (int rowNumber = 1; rowNumber <= snapshot.getRowCount(); rowNumber++) {
+					index.add(page, rowNumber, snapshot.getRow(rowNumber));
+				}
+			} else {
+				int rowCount = getRowCountOnPage(page);
+				gotoPage(page);
+				for (int rowNumber = 1; rowNumber <= rowCount; rowNumber++) {
+					index.add(page, rowNumber, toTableRow(readRowByCells(rowNumber)));
+				}
+			}
+		}
+		return index;
+	}
+	
+	private static int[] findColumns(List<String> headers, String[] headerCellTexts) {
+		int[] columns = new int[headerCellTexts.length];
+		for (int i = 0; i < headerCellTexts.length; i++) {
+			for (int c = 0; c < headers.size() && columns[i] == 0; c++) {
+				if (headers.get(c).contains(headerCellTexts[i])) {
+					columns[i] = c + 1;
+				}
+			}
+			if (columns[i] == 0) {
+				throw new IllegalArgumentException("Column '" + headerCellTexts[i] + "' was not found in headers " + headers);
+			}
+		}
+		return columns;
+	}
+	
+	/**
+	 * Returns all rows in a table, in the order of the pages.
+	 * Use {@link #rows()} for large tables which should not be held in memory at once.
 	 * @return all row controls, empty list if the table is empty
 	 */
 	public List<TableRow> getAllRows() {
 		List<TableRow> table = new ArrayList<TableRow>();
+		for (TableRow row : rows()) {
+			table.add(row);
+		}
+		return table;
+	}
+	
+	/**
+	 * Returns a lazy view of all rows in the table starting at the first page.
+	 * Rows are read in chunks of {@link #getChunkSize()} rows and the next page
+	 * is displayed only when the rows of the previous page were consumed, so
+	 * apart from the page cache only one chunk is held in memory and leaving
+	 * the loop early saves the reading of the remaining rows and pages. Cached
+	 * pages are not read again and pages read by one chunk are cached.
+	 * 
+	 * <pre>
+	 * for (TableRow row : table.rows()) {
+	 *     if (row.getCell(2).equals("Prague")) {
+	 *         break;
+	 *     }
+	 * }
+	 * </pre>
+	 * 
+	 * @return rows of all pages
+	 */
+	public Iterable<TableRow> rows() {
+		return rows(new RowCriteria());
+	}
+	
+	/**
+	 * Returns a lazy view of the rows fulfilling the criteria starting at the
+	 * first page, see {@link #rows()}. The criteria are evaluated in Java on
+	 * the read rows.
+	 * @param criteria conditions of the rows
+	 * @return matching rows of all pages
+	 * @throws IllegalArgumentException when iterated if a column of the criteria was not found
+	 */
+	public Iterable<TableRow> rows(final RowCriteria criteria) {
+		return new Iterable<TableRow>() {
+			public Iterator<TableRow> iterator() {
+				return new RowIterator(criteria, chunkSize);
+			}
+		};
+	}
+	
+	/**
+	 * Iterator reading the table in chunks, page by page.
+	 */
+	private class RowIterator implements Iterator<TableRow> {
 		
-		int rowCount = getRowCountOnPage();
-		for (int i = rowCount; i > 0 ; i--) {
-			TableRow row = getRow(i);
-			table.add(0, row);
+		private final RowCriteria criteria;
+		private final int chunkSize;
+		
+		private List<TableRow> chunk = Collections.emptyList();
+		private int chunkIndex;
+		/** number of the page being read */
+		private int page = 1;
+		/** number of the next row to read on the page */
+		private int nextRowNumber = 1;
+		/** number of rows on the page, -1 if not known yet */
+		private int pageRowCount = -1;
+		private List<String> headers = Collections.emptyList();
+		private TableRow next;
+		private boolean started;
+		private boolean finished;
+		
+		RowIterator(RowCriteria criteria, int chunkSize) {
+			this.criteria = criteria;
+			this.chunkSize = chunkSize;
 		}
-		while (isElementPresent(nextPageButton)) {
-			click(nextPageButton);
-			rowCount = getRowCountOnPage();
-			for (int i = rowCount; i > 0 ; i--) {
-				TableRow row = getRow(i);
-				table.add(0, row);
+		
+		public boolean hasNext() {
+			while (next == null && !finished) {
+				if (chunkIndex < chunk.size()) {
+					TableRow row = chunk.get(chunkIndex++);
+					if (criteria.isFulfilled(headers, cells(row))) {
+						next = row;
+					}
+				} else if (!readChunk()) {
+					finished = true;
+				}
 			}
+			return next != null;
 		}
 		
-		return table;
+		public TableRow next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			TableRow row = next;
+			next = null;
+			return row;
+		}
+		
+		public void remove() {
+			throw new UnsupportedOperationException("Table rows can't be removed.");
+		}
+		
+		/**
+		 * Reads the next chunk of the page or goes to the next page.
+		 * @return false if there are no more rows
+		 */
+		private boolean readChunk() {
+			if (!started) {
+				checkTable();
+				started = true;
+			}
+			if (pageRowCount >= 0 && nextRowNumber > pageRowCount) {
+				if (!hasPage(page + 1)) {
+					return false;
+				}
+				page++;
+				nextRowNumber = 1;
+				pageRowCount = -1;
+			}
+			
+			TableSnapshot cached = cachedPage(page);
+			if (cached != null) {
+				pageRowCount = cached.getPageRowCount();
+				headers = cached.getHeaders();
+				chunk = cached.getRows().subList(nextRowNumber - 1, pageRowCount);
+				nextRowNumber += chunk.size();
+				chunkIndex = 0;
+				return true;
+			}
+			
+			gotoPage(page);
+			int lastRow = nextRowNumber + chunkSize - 1;
+			TableSnapshot snapshot = snapshot(nextRowNumber, lastRow);
+			if (snapshot != null) {
+				if (nextRowNumber == 1 && snapshot.getRowCount() == snapshot.getPageRowCount()) {
+					cachePage(page, snapshot);
+				}
+				pageRowCount = snapshot.getPageRowCount();
+				headers = snapshot.getHeaders();
+				chunk = snapshot.getRows();
+			} else {
+				if (pageRowCount < 0) {
+					pageRowCount = getRowCountOnPage();
+					if (criteria.hasColumnConditions()) {
+						headers = getHeadersByCells();
+					}
+				}
+				chunk = new ArrayList<TableRow>();
+				for (int i = nextRowNumber; i <= Math.min(lastRow, pageRowCount); i++) {
+					chunk.add(toTableRow(readRowByCells(i)));
+				}
+			}
+			nextRowNumber += chunk.size();
+			chunkIndex = 0;
+			return true;
+		}
+		
+		private List<String> cells(TableRow row) {
+			if (criteria.getConditions().isEmpty()) {
+				return Collections.emptyList();
+			}
+			List<String> cells = new ArrayList<String>(row.getCellCount());
+			for (int i = 1; i <= row.getCellCount(); i++) {
+				cells.add(row.getCell(i));
+			}
+			return cells;
+		}
+	}
+	
+	/**
+	 * Reads the current page of the table by one script call.
+	 * @return all rows and headers of the current page
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public TableSnapshot getSnapshot() {
+		checkTable();
+		TableSnapshot snapshot = cachedPage(currentPage);
+		if (snapshot == null) {
+			snapshot = readSnapshot(1, TableSnapshot.ALL_ROWS, new int[0], new String[0]);
+			cachePage(currentPage, snapshot);
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Reads the given columns of the current page of the table by one script call.
+	 * @param columns column numbers starting from 1
+	 * @return rows with cells of the given columns only, in the given order
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public TableSnapshot getSnapshot(int... columns) {
+		return readSnapshot(1, TableSnapshot.ALL_ROWS, columns, new String[0]);
+	}
+	
+	/**
+	 * Reads the given columns of the current page of the table by one script call.
+	 * @param headerCellTexts texts contained in the header cells of the columns
+	 * @return rows with cells of the given columns only, in the given order
+	 * @throws IllegalArgumentException if a column was not found
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public TableSnapshot getSnapshot(String... headerCellTexts) {
+		TableSnapshot snapshot = readSnapshot(1, TableSnapshot.ALL_ROWS, new int[0], headerCellTexts);
+		int[] columns = snapshot.getColumns();
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] == 0) {
+				throw new IllegalArgumentException("Column '" + headerCellTexts[i] + "' was not found in headers "
+						+ snapshot.getHeaders());
+			}
+		}
+		return snapshot;
+	}
+	
+	/**
+	 * Parses a column of the current page as dates by the formatting service of the control.
+	 * @param headerCellText text contained in the header cell of the column
+	 * @return the typed column
+	 * @throws IllegalArgumentException if the column was not found
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public DateColumn getDateColumn(String headerCellText) {
+		TableSnapshot snapshot = getSnapshot();
+		return snapshot.getDateColumn(requireColumn(snapshot, headerCellText), formattingService);
+	}
+	
+	/**
+	 * Parses a column of the current page as decimal numbers by the formatting service of the control.
+	 * @param headerCellText text contained in the header cell of the column
+	 * @return the typed column
+	 * @throws IllegalArgumentException if the column was not found
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public DecimalColumn getDecimalColumn(String headerCellText) {
+		TableSnapshot snapshot = getSnapshot();
+		return snapshot.getDecimalColumn(requireColumn(snapshot, headerCellText), formattingService);
+	}
+	
+	/**
+	 * Parses a column of the current page as whole numbers by the formatting service of the control.
+	 * @param headerCellText text contained in the header cell of the column
+	 * @return the typed column
+	 * @throws IllegalArgumentException if the column was not found
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	public IntegerColumn getIntegerColumn(String headerCellText) {
+		TableSnapshot snapshot = getSnapshot();
+		return snapshot.getIntegerColumn(requireColumn(snapshot, headerCellText), formattingService);
+	}
+	
+	private static int requireColumn(TableSnapshot snapshot, String headerCellText) {
+		Integer column = snapshot.findColumn(headerCellText);
+		if (column == null) {
+			throw new IllegalArgumentException("Column '" + headerCellText + "' was not found in headers "
+					+ snapshot.getHeaders());
+		}
+		return column;
+	}
+	
+	/**
+	 * Reads rows of the current page of the table by one script call.
+	 * @param firstRow number of the first row to read starting from 1
+	 * @param lastRow number of the last row to read or {@link TableSnapshot#ALL_ROWS}
+	 * @param columnNumbers numbers of the columns to read
+	 * @param headerCellTexts header texts of the columns to read, read after the numbered columns
+	 * @return the snapshot, all columns if no column is specified
+	 * @throws UnsupportedOperationException if the browser can't run scripts
+	 */
+	protected TableSnapshot readSnapshot(int firstRow, int lastRow, int[] columnNumbers, String[] headerCellTexts) {
+		List<Integer> numbers = new ArrayList<Integer>(columnNumbers.length);
+		for (int column : columnNumbers) {
+			numbers.add(column);
+		}
+		String selectedAttribute = getSelectedRowAttributeName();
+		
+		List<?> result = (List<?>) browser.evaluateScript(TableScripts.SNAPSHOT, getTableLocator(), getRowLocator(),
+				getCellLocator(), getHeaderLocator(), getHeaderCellLocator(),
+				selectedAttribute == null ? "" : selectedAttribute, firstRow, lastRow, numbers,
+				Arrays.asList(headerCellTexts));
+		checkScriptResult(result);
+		return TableSnapshot.fromScriptResult(result, getSelectedRowAttributeValue());
+	}
+	
+	/**
+	 * @throws UnsupportedOperationException if the table script found out the
+	 *             browser can't evaluate XPath
+	 */
+	private static void checkScriptResult(List<?> result) {
+		if (result == null) {
+			throw new UnsupportedOperationException("Browser can't evaluate XPath in scripts.");
+		}
+	}
+	
+	/**
+	 * Returns the snapshot of all columns or <code>null</code> if the table
+	 * should be read cell by cell.
+	 */
+	private TableSnapshot snapshot(int firstRow, int lastRow) {
+		if (!snapshotEnabled) {
+			return null;
+		}
+		try {
+			return readSnapshot(firstRow, lastRow, new int[0], new String[0]);
+		} catch (UnsupportedOperationException e) {
+			logger.info("Browser can't read the table by a script, reading it cell by cell. " + e.getMessage());
+			snapshotEnabled = false;
+			return null;
+		}
 	}
 	
 	/**
@@ -416,8 +1200,9 @@ public class TableControl extends AbstractComponent {
 	 * Display the last page of the table.
 	 */
 	public void gotoLastPage() {
+		checkCache();
 		if (isElementPresent(lastPageButton)) {
-			click(lastPageButton);
+			turnPage(lastPageButton, lastPage);
 		}
 	}
 	
@@ -425,8 +1210,9 @@ public class TableControl extends AbstractComponent {
 	 * Display the first page of the table.
 	 */
 	public void gotoFirstPage() {
+		checkCache();
 		if (isElementPresent(firstPageButton)) {
-			click(firstPageButton);
+			turnPage(firstPageButton, 1);
 		}
 	}
 	
@@ -434,8 +1220,9 @@ public class TableControl extends AbstractComponent {
 	 * Display the next page of the table.
 	 */
 	public void gotoNextPage() {
+		checkCache();
 		if (isElementPresent(nextPageButton)) {
-			click(nextPageButton);
+			turnPage(nextPageButton, currentPage == UNKNOWN_PAGE ? UNKNOWN_PAGE : currentPage + 1);
 		}
 	}
 	
@@ -443,8 +1230,9 @@ public class TableControl extends AbstractComponent {
 	 * Display the previous page of the table.
 	 */
 	public void gotoPreviousPage() {
+		checkCache();
 		if (isElementPresent(previousPageButton)) {
-			click(previousPageButton);
+			turnPage(previousPageButton, currentPage == UNKNOWN_PAGE ? UNKNOWN_PAGE : currentPage - 1);
 		}
 	}
 
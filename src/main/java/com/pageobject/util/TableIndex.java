@@ -0,0 +1,246 @@
+package com.pageobject.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Hash index of the rows of all pages of a table keyed by the texts of some
+ * columns, see {@link TableControl#getIndex(TableIndex.Matching, String...)}.
+ * Looking up a row costs no call to the browser, so many entities can be
+ * verified against one read of the table.
+ *
+ * <pre>
+ * TableIndex index = table.getIndex(Matching.NORMALIZED, "First name", "Last name");
+ * for (Person person : persons) {
+ *     TableIndex.Entry entry = index.get(person);
+ *     assertNotNull(entry);
+ *     assertEquals(person.getEmail(), entry.getRow().getCell(3));
+ * }
+ * </pre>
+ *
+ * The index reflects the table of the cache generation it was built in, see
+ * {@link TableControl#getCacheGeneration()}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableIndex {
+
+	/**
+	 * How the key values are compared with the cell texts.
+	 */
+	public enum Matching {
+
+		/**
+		 * The cell text equals the value.
+		 */
+		EXACT,
+
+		/**
+		 * The cell text equals the value ignoring case, leading and trailing
+		 * whitespace and differences in whitespace between words.
+		 */
+		NORMALIZED
+	}
+
+	/**
+	 * Row of the index.
+	 */
+	public static final class Entry {
+
+		private final int pageNumber;
+		private final int rowNumber;
+		private final TableRow row;
+
+		private Entry(int pageNumber, int rowNumber, TableRow row) {
+			this.pageNumber = pageNumber;
+			this.rowNumber = rowNumber;
+			this.row = row;
+		}
+
+		/**
+		 * @return number of the page with the row starting from 1
+		 */
+		public int getPageNumber() {
+			return pageNumber;
+		}
+
+		/**
+		 * @return number of the row on its page starting from 1
+		 */
+		public int getRowNumber() {
+			return rowNumber;
+		}
+
+		/**
+		 * @return row contents
+		 */
+		public TableRow getRow() {
+			return row;
+		}
+
+		@Override
+		public String toString() {
+			return "page " + pageNumber + ", row " + rowNumber + " " + row;
+		}
+	}
+
+	private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00a0]+");
+
+	private final Matching matching;
+	private final List<String> keyHeaders;
+	private final int[] keyColumns;
+	private final long generation;
+	private final Map<List<String>, List<Entry>> entries = new HashMap<List<String>, List<Entry>>();
+	private int size;
+
+	/**
+	 * @param matching
+	 *            how the keys are compared
+	 * @param keyHeaders
+	 *            header texts of the key columns
+	 * @param keyColumns
+	 *            numbers of the key columns starting from 1
+	 * @param generation
+	 *            cache generation of the table
+	 */
+	TableIndex(Matching matching, List<String> keyHeaders, int[] keyColumns, long generation) {
+		this.matching = matching;
+		this.keyHeaders = Collections.unmodifiableList(new ArrayList<String>(keyHeaders));
+		this.keyColumns = keyColumns;
+		this.generation = generation;
+	}
+
+	/**
+	 * Adds a row to the index.
+	 */
+	void add(int pageNumber, int rowNumber, TableRow row) {
+		String[] key = new String[keyColumns.length];
+		for (int i = 0; i < keyColumns.length; i++) {
+			key[i] = keyColumns[i] <= row.getCellCount() ? normalize(row.getCell(keyColumns[i])) : null;
+		}
+		List<String> keyList = Arrays.asList(key);
+		List<Entry> rows = entries.get(keyList);
+		if (rows == null) {
+			rows = new ArrayList<Entry>(1);
+			entries.put(keyList, rows);
+		}
+		rows.add(new Entry(pageNumber, rowNumber, row));
+		size++;
+	}
+
+	private String normalize(String value) {
+		if (value == null || matching == Matching.EXACT) {
+			return value;
+		}
+		return WHITESPACE.matcher(value).replaceAll(" ").trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Returns the first row with the key.
+	 *
+	 * @param keyValues
+	 *            texts of the key columns in the order of the columns
+	 * @return the first row in the table with the key or <code>null</code>
+	 *         if not found
+	 * @throws IllegalArgumentException
+	 *             if the number of values differs from the number of key
+	 *             columns
+	 */
+	public Entry get(String... keyValues) {
+		List<Entry> rows = lookup(keyValues);
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	/**
+	 * Returns the first row of the entity. The search attributes of the
+	 * entity have to be the texts of the key columns in the order of the
+	 * columns.
+	 *
+	 * @param entity
+	 *            entity in the table
+	 * @return the first row in the table with the key or <code>null</code>
+	 *         if not found
+	 */
+	public Entry get(TableEntity entity) {
+		return get(entity.getSearchAttributes());
+	}
+
+	/**
+	 * Returns all rows with the key.
+	 *
+	 * @param keyValues
+	 *            texts of the key columns in the order of the columns
+	 * @return rows in the order of the table, empty list if not found
+	 */
+	public List<Entry> getAll(String... keyValues) {
+		return Collections.unmodifiableList(lookup(keyValues));
+	}
+
+	private List<Entry> lookup(String... keyValues) {
+		if (keyValues.length != keyColumns.length) {
+			throw new IllegalArgumentException("Index of columns " + keyHeaders + " needs " + keyColumns.length
+					+ " values, got " + Arrays.toString(keyValues));
+		}
+		String[] key = new String[keyValues.length];
+		for (int i = 0; i < keyValues.length; i++) {
+			key[i] = normalize(keyValues[i]);
+		}
+		List<Entry> rows = entries.get(Arrays.asList(key));
+		return rows == null ? Collections.<Entry> emptyList() : rows;
+	}
+
+	/**
+	 * @param keyValues
+	 *            texts of the key columns in the order of the columns
+	 * @return true if the table contains a row with the key
+	 */
+	public boolean contains(String... keyValues) {
+		return !lookup(keyValues).isEmpty();
+	}
+
+	public Matching getMatching() {
+		return matching;
+	}
+
+	/**
+	 * @return header texts of the key columns
+	 */
+	public List<String> getKeyHeaders() {
+		return keyHeaders;
+	}
+
+	/**
+	 * @return cache generation of the table the index was built in
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * @return number of indexed rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return number of distinct keys
+	 */
+	public int getKeyCount() {
+		return entries.size();
+	}
+
+	@Override
+	public String toString() {
+		return "TableIndex [columns=" + keyHeaders + ", matching=" + matching + ", rows=" + size + ", keys="
+				+ entries.size() + "]";
+	}
+
+}
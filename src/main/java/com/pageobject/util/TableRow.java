@@ -11,13 +11,34 @@ import java.util.List;
 /**
  * Contents of one row in HTML table.
  * Cell indexes start from 1.
+ * 
+ * <p>Rows read from a {@link TableSnapshot} are views of the snapshot columns
+ * and don't hold their own copy of the cells until a cell is added.
  *
  * @author Pavel Muller
  * @version $Revision: 102464 $
  */
 public class TableRow {
 	
-	private List<String> cells = new ArrayList<String>();
+	private List<String> cells;
+	
+	/** snapshot the row belongs to, <code>null</code> once the row has its own cells */
+	private TableSnapshot snapshot;
+	private int rowIndex;
+	
+	public TableRow() {
+		cells = new ArrayList<String>();
+	}
+	
+	/**
+	 * Creates a view of a snapshot row.
+	 * @param snapshot snapshot containing the row
+	 * @param rowIndex index of the row in the snapshot starting from 0
+	 */
+	TableRow(TableSnapshot snapshot, int rowIndex) {
+		this.snapshot = snapshot;
+		this.rowIndex = rowIndex;
+	}
 	
 	/**
 	 * Add new cell.
@@ -25,6 +46,10 @@ public class TableRow {
 	 * @param cellContent
 	 */
 	public void addCell(int index, String cellContent) {
+		if (snapshot != null) {
+			cells = new ArrayList<String>(snapshot.getCells(rowIndex));
+			snapshot = null;
+		}
 		cells.add(index-1, cellContent);
 	}
 	
@@ -34,6 +59,12 @@ public class TableRow {
 	 * @return cell contents
 	 */
 	public String getCell(int index) {
+		if (snapshot != null) {
+			if (index < 1 || index > snapshot.getCellCount(rowIndex)) {
+				throw new IndexOutOfBoundsException("Index: " + (index-1) + ", Size: " + snapshot.getCellCount(rowIndex));
+			}
+			return snapshot.getCell(rowIndex, index-1);
+		}
 		return cells.get(index-1);
 	}
 	
@@ -42,12 +73,12 @@ public class TableRow {
 	 * @return cell count
 	 */
 	public int getCellCount() {
-		return cells.size();
+		return snapshot != null ? snapshot.getCellCount(rowIndex) : cells.size();
 	}
 	
 	@Override
 	public String toString() {
-		return cells.toString();
+		return (snapshot != null ? snapshot.getCells(rowIndex) : cells).toString();
 	}
 
 }
@@ -0,0 +1,147 @@
+package com.pageobject.util;
+
+/**
+ * Javascript snippets reading HTML tables for {@link TableControl}. Table,
+ * row, cell and header locators are the XPaths returned by
+ * {@link TableControl}, row and cell locators are evaluated relatively to
+ * their table and row.
+ *
+ * @author michal.nahlik
+ *
+ */
+final class TableScripts {
+
+	/**
+	 * Check ending the script with <code>null</code> if the browser can't
+	 * evaluate XPath in scripts (Internet Explorer), the table has to be read
+	 * cell by cell then.
+	 */
+	static final String FEATURE_CHECK = "if (!document.evaluate) return null;";
+
+	/**
+	 * Functions <code>text(element)</code> returning the trimmed visible text
+	 * of the element and <code>nodes(path, context)</code> returning the list
+	 * of elements matching the XPath. Browsers without
+	 * <code>innerText</code> give the source text, its whitespace is collapsed
+	 * to match the text returned by WebDriver.
+	 */
+	static final String FUNCTIONS =
+			"function text(element) {"
+			+ "  var value = element.innerText;"
+			+ "  if (value === undefined) value = (element.textContent || '').replace(/\\s+/g, ' ');"
+			+ "  return (value || '').replace(/\\u00a0/g, ' ').replace(/^\\s+|\\s+$/g, '');"
+			+ "}"
+			+ "function nodes(path, context) {"
+			+ "  var result = document.evaluate(path, context, null, 7, null), list = [];"
+			+ "  for (var i = 0; i < result.snapshotLength; i++) {"
+			+ "    list.push(result.snapshotItem(i));"
+			+ "  }"
+			+ "  return list;"
+			+ "}"
+			+ "function headerTexts(tablePath, headerPath, headerCellPath) {"
+			+ "  var headers = [], headerRows = nodes(tablePath + headerPath, document);"
+			+ "  if (headerRows.length > 0) {"
+			+ "    var headerCells = nodes('.' + headerCellPath, headerRows[0]);"
+			+ "    for (var i = 0; i < headerCells.length; i++) {"
+			+ "      headers.push(text(headerCells[i]));"
+			+ "    }"
+			+ "  }"
+			+ "  return headers;"
+			+ "}"
+			+ "function findColumn(headers, headerText) {"
+			+ "  for (var i = 0; i < headers.length; i++) {"
+			+ "    if (headers[i].indexOf(headerText) != -1) return i + 1;"
+			+ "  }"
+			+ "  return 0;"
+			+ "}";
+
+	/**
+	 * Script reading the table. Arguments: table XPath, row XPath, cell XPath,
+	 * header row XPath, header cell XPath, name of the selected row attribute
+	 * or empty string, first and last row number to read
+	 * ({@link TableSnapshot#ALL_ROWS} as the last row means up to the last
+	 * row, 0 reads no rows), list of column numbers and list of header texts
+	 * of the columns to read (both empty means all columns). Returns a list
+	 * with header texts, rows of cell texts, selected row attribute values or
+	 * <code>null</code>, column numbers of the projection (0 for a header
+	 * which was not found), number of all rows on the page and the number of
+	 * the first read row.
+	 */
+	static final String SNAPSHOT =
+			FEATURE_CHECK
+			+ "var tablePath = arguments[0], rowPath = arguments[1], cellPath = arguments[2];"
+			+ "var headerPath = arguments[3], headerCellPath = arguments[4], selectedAttribute = arguments[5];"
+			+ "var firstRow = arguments[6], lastRow = arguments[7], columnNumbers = arguments[8], columnHeaders = arguments[9];"
+			+ FUNCTIONS
+			+ "var headers = headerTexts(tablePath, headerPath, headerCellPath);"
+			+ "var columns = [];"
+			+ "for (var i = 0; i < columnNumbers.length; i++) {"
+			+ "  columns.push(columnNumbers[i]);"
+			+ "}"
+			+ "for (var i = 0; i < columnHeaders.length; i++) {"
+			+ "  columns.push(findColumn(headers, columnHeaders[i]));"
+			+ "}"
+			+ "var rowNodes = nodes(tablePath + rowPath, document);"
+			+ "var from = Math.max(firstRow, 1), to = lastRow >= 0 ? Math.min(lastRow, rowNodes.length) : rowNodes.length;"
+			+ "var rows = [], selected = [];"
+			+ "for (var r = from; r <= to; r++) {"
+			+ "  var row = rowNodes[r - 1], cells = nodes('.' + cellPath, row), values = [];"
+			+ "  if (columns.length == 0) {"
+			+ "    for (var c = 0; c < cells.length; c++) values.push(text(cells[c]));"
+			+ "  } else {"
+			+ "    for (var c = 0; c < columns.length; c++) {"
+			+ "      values.push(columns[c] > 0 && columns[c] <= cells.length ? text(cells[columns[c] - 1]) : null);"
+			+ "    }"
+			+ "  }"
+			+ "  rows.push(values);"
+			+ "  if (selectedAttribute) selected.push(row.getAttribute(selectedAttribute) || '');"
+			+ "}"
+			+ "return [headers, rows, selectedAttribute ? selected : null, columns, rowNodes.length, from];";
+
+	/**
+	 * Script finding the first row matching {@link RowCriteria}. Arguments:
+	 * table XPath, row XPath, cell XPath, header row XPath, header cell XPath,
+	 * list of {@link RowCriteria.Type} names, list of header texts (empty for
+	 * row conditions), list of values or regular expressions. Returns a list
+	 * with the row number (0 if no row matches) and the header text which was
+	 * not found or <code>null</code>.
+	 */
+	static final String FIND_ROW =
+			FEATURE_CHECK
+			+ "var tablePath = arguments[0], rowPath = arguments[1], cellPath = arguments[2];"
+			+ "var headerPath = arguments[3], headerCellPath = arguments[4];"
+			+ "var types = arguments[5], columnHeaders = arguments[6], values = arguments[7];"
+			+ FUNCTIONS
+			+ "var columns = [], patterns = [], headers = null;"
+			+ "for (var i = 0; i < types.length; i++) {"
+			+ "  columns.push(0);"
+			+ "  if (columnHeaders[i]) {"
+			+ "    if (headers == null) headers = headerTexts(tablePath, headerPath, headerCellPath);"
+			+ "    columns[i] = findColumn(headers, columnHeaders[i]);"
+			+ "    if (columns[i] == 0) return [0, columnHeaders[i]];"
+			+ "  }"
+			+ "  patterns.push(/MATCHES$/.test(types[i]) ? new RegExp(values[i]) : null);"
+			+ "}"
+			+ "var rowNodes = nodes(tablePath + rowPath, document);"
+			+ "for (var r = 0; r < rowNodes.length; r++) {"
+			+ "  var cells = nodes('.' + cellPath, rowNodes[r]), texts = [], matches = true;"
+			+ "  for (var c = 0; c < cells.length; c++) texts.push(text(cells[c]));"
+			+ "  var rowText = texts.join(' ');"
+			+ "  for (var i = 0; i < types.length && matches; i++) {"
+			+ "    var subject = columns[i] == 0 ? rowText : texts[columns[i] - 1];"
+			+ "    if (subject === undefined) {"
+			+ "      matches = false;"
+			+ "    } else if (patterns[i] != null) {"
+			+ "      matches = patterns[i].test(subject);"
+			+ "    } else {"
+			+ "      matches = subject.indexOf(values[i]) != -1;"
+			+ "    }"
+			+ "  }"
+			+ "  if (matches) return [r + 1, null];"
+			+ "}"
+			+ "return [0, null];";
+
+	private TableScripts() {
+	}
+
+}
@@ -0,0 +1,538 @@
+package com.pageobject.util;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Contents of one page of an HTML table read by a single script call, see
+ * {@link TableControl#getSnapshot()}. The snapshot contains the header texts,
+ * the cell texts of the read rows and optionally the values of the attribute
+ * marking selected rows.
+ *
+ * <p>
+ * The snapshot may be projected to some columns only. Its rows then contain
+ * just the cells of these columns, in the requested order, see
+ * {@link #getColumns()}. Row numbers are numbers of the rows on the current
+ * page of the table starting from 1, the same as used by {@link TableControl}.
+ *
+ * <p>
+ * The cells are stored by columns. Every column keeps each distinct text once
+ * and the rows refer to it by a small code, so tables with repeated values
+ * (states, currencies, dates, ...) take a fraction of the memory of lists of
+ * strings. {@link TableRow}s returned by the snapshot are views of its
+ * columns. Column numbers are looked up by an index of the header texts
+ * built with the snapshot. Columns can be parsed to dates and numbers held in
+ * arrays, see {@link #getDecimalColumn(int, FormattingService)}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableSnapshot {
+
+	/**
+	 * Last row number reading all rows up to the end of the page.
+	 */
+	public static final int ALL_ROWS = -1;
+
+	private final List<String> headers;
+	/** column number by the exact header text */
+	private final Map<String, Integer> headerIndex;
+	/** column number by a part of the header text, 0 if not found */
+	private final ConcurrentMap<String, Integer> headerLookups = new ConcurrentHashMap<String, Integer>();
+	private final Column[] cellColumns;
+	/** number of cells of every row */
+	private final int[] cellCounts;
+	private final boolean[] selected;
+	private final int[] columns;
+	private final int pageRowCount;
+	private final int firstRowNumber;
+
+	/**
+	 * @param headers
+	 *            header texts of all columns
+	 * @param rows
+	 *            cell texts of the read rows
+	 * @param selected
+	 *            which of the read rows are selected, <code>null</code> if
+	 *            the selection is not known
+	 * @param columns
+	 *            column numbers of the projection, empty array if all columns
+	 *            were read
+	 * @param pageRowCount
+	 *            number of all rows on the page
+	 * @param firstRowNumber
+	 *            number of the first read row
+	 */
+	public TableSnapshot(List<String> headers, List<List<String>> rows, boolean[] selected, int[] columns,
+			int pageRowCount, int firstRowNumber) {
+		this.headers = Collections.unmodifiableList(new ArrayList<String>(headers));
+		Map<String, Integer> index = new HashMap<String, Integer>();
+		for (int i = this.headers.size() - 1; i >= 0; i--) {
+			index.put(this.headers.get(i), i + 1);
+		}
+		this.headerIndex = Collections.unmodifiableMap(index);
+		
+		this.cellCounts = new int[rows.size()];
+		int width = 0;
+		for (int i = 0; i < cellCounts.length; i++) {
+			cellCounts[i] = rows.get(i).size();
+			width = Math.max(width, cellCounts[i]);
+		}
+		this.cellColumns = new Column[width];
+		for (int c = 0; c < width; c++) {
+			cellColumns[c] = Column.encode(rows, c);
+		}
+		this.selected = selected;
+		this.columns = columns;
+		this.pageRowCount = pageRowCount;
+		this.firstRowNumber = firstRowNumber;
+	}
+
+	/**
+	 * Creates the snapshot from the result of {@link TableScripts#SNAPSHOT}.
+	 *
+	 * @param result
+	 *            script result
+	 * @param selectedValue
+	 *            part of the attribute value marking a selected row, may be
+	 *            <code>null</code>
+	 * @return the snapshot
+	 */
+	static TableSnapshot fromScriptResult(List<?> result, String selectedValue) {
+		List<String> headers = toStrings((List<?>) result.get(0));
+
+		List<?> rowValues = (List<?>) result.get(1);
+		List<List<String>> rows = new ArrayList<List<String>>(rowValues.size());
+		for (Object row : rowValues) {
+			rows.add(toStrings((List<?>) row));
+		}
+
+		boolean[] selected = null;
+		List<?> attributeValues = (List<?>) result.get(2);
+		if (attributeValues != null && selectedValue != null) {
+			selected = new boolean[attributeValues.size()];
+			for (int i = 0; i < selected.length; i++) {
+				selected[i] = String.valueOf(attributeValues.get(i)).contains(selectedValue);
+			}
+		}
+
+		List<?> columnValues = (List<?>) result.get(3);
+		int[] columns = new int[columnValues.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = ((Number) columnValues.get(i)).intValue();
+		}
+
+		return new TableSnapshot(headers, rows, selected, columns, ((Number) result.get(4)).intValue(),
+				((Number) result.get(5)).intValue());
+	}
+
+	private static List<String> toStrings(List<?> values) {
+		List<String> strings = new ArrayList<String>(values.size());
+		for (Object value : values) {
+			strings.add(value == null ? null : value.toString());
+		}
+		return strings;
+	}
+
+	/**
+	 * @return header texts of all columns, empty list if the table has no
+	 *         header
+	 */
+	public List<String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return column numbers starting from 1 by the exact header texts, the
+	 *         first column if more columns have the same header
+	 */
+	public Map<String, Integer> getHeaderIndex() {
+		return headerIndex;
+	}
+
+	/**
+	 * @return column numbers of the cells in the snapshot rows, empty array
+	 *         if all columns were read
+	 */
+	public int[] getColumns() {
+		return columns.clone();
+	}
+
+	/**
+	 * @return number of rows in the snapshot
+	 */
+	public int getRowCount() {
+		return cellCounts.length;
+	}
+
+	/**
+	 * @return number of all rows on the current page of the table, including
+	 *         rows which were not read
+	 */
+	public int getPageRowCount() {
+		return pageRowCount;
+	}
+
+	/**
+	 * @return number of the first row in the snapshot
+	 */
+	public int getFirstRowNumber() {
+		return firstRowNumber;
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return true if the snapshot contains the row
+	 */
+	public boolean containsRow(int rowNumber) {
+		return rowNumber >= firstRowNumber && rowNumber < firstRowNumber + cellCounts.length;
+	}
+
+	/**
+	 * Returns the row content.
+	 *
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return row content, cells of the projected columns only if the
+	 *         snapshot is projected
+	 * @throws IndexOutOfBoundsException
+	 *             if the snapshot does not contain the row
+	 */
+	public TableRow getRow(int rowNumber) {
+		return new TableRow(this, rowIndex(rowNumber));
+	}
+
+	/**
+	 * @return contents of all rows in the snapshot
+	 */
+	public List<TableRow> getRows() {
+		List<TableRow> tableRows = new ArrayList<TableRow>(cellCounts.length);
+		for (int i = 0; i < cellCounts.length; i++) {
+			tableRows.add(new TableRow(this, i));
+		}
+		return tableRows;
+	}
+
+	/**
+	 * Returns the cells of one column of all rows in the snapshot.
+	 *
+	 * @param cellNumber
+	 *            number of the cell in the snapshot rows starting from 1, the
+	 *            column number if the snapshot is not projected
+	 * @return cell texts, <code>null</code> for rows without the cell
+	 */
+	public List<String> getColumnValues(final int cellNumber) {
+		return new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				if (index < 0 || index >= cellCounts.length) {
+					throw new IndexOutOfBoundsException("Row index " + index + ", rows " + cellCounts.length);
+				}
+				return cellNumber <= cellCounts[index] ? getCell(index, cellNumber - 1) : null;
+			}
+
+			@Override
+			public int size() {
+				return cellCounts.length;
+			}
+		};
+	}
+
+	/**
+	 * Returns the distinct texts of one column.
+	 *
+	 * @param cellNumber
+	 *            number of the cell in the snapshot rows starting from 1
+	 * @return distinct cell texts in the order of their first occurrence,
+	 *         <code>null</code> stands for rows without the cell
+	 */
+	public List<String> getDistinctValues(int cellNumber) {
+		if (cellNumber < 1 || cellNumber > cellColumns.length) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(Arrays.asList(cellColumns[cellNumber - 1].dictionary));
+	}
+
+	/**
+	 * Parses the cells of one column as dates.
+	 *
+	 * @param cellNumber
+	 *            number of the cell in the snapshot rows starting from 1
+	 * @param formattingService
+	 *            service parsing the dates
+	 * @return the typed column
+	 */
+	public DateColumn getDateColumn(int cellNumber, FormattingService formattingService) {
+		return new DateColumn(this, cellNumber, formattingService);
+	}
+
+	/**
+	 * Parses the cells of one column as decimal numbers.
+	 *
+	 * @param cellNumber
+	 *            number of the cell in the snapshot rows starting from 1
+	 * @param formattingService
+	 *            service parsing the numbers
+	 * @return the typed column
+	 */
+	public DecimalColumn getDecimalColumn(int cellNumber, FormattingService formattingService) {
+		return new DecimalColumn(this, cellNumber, formattingService);
+	}
+
+	/**
+	 * Parses the cells of one column as whole numbers.
+	 *
+	 * @param cellNumber
+	 *            number of the cell in the snapshot rows starting from 1
+	 * @param formattingService
+	 *            service parsing the numbers
+	 * @return the typed column
+	 */
+	public IntegerColumn getIntegerColumn(int cellNumber, FormattingService formattingService) {
+		return new IntegerColumn(this, cellNumber, formattingService);
+	}
+
+	/**
+	 * Finds the first row containing all given values. The cell texts of a
+	 * row are joined by spaces, so a value is found the same way as in the
+	 * text of the row element.
+	 *
+	 * @param cellValues
+	 *            cell values to search. Not only exact cell content but
+	 *            substrings too.
+	 * @return row number starting from 1 or <code>null</code> if not found
+	 */
+	public Integer findRow(String... cellValues) {
+		return findRow(RowCriteria.containing(cellValues));
+	}
+
+	/**
+	 * Finds the first row fulfilling the criteria. Row conditions of a
+	 * projected snapshot see only the projected cells.
+	 *
+	 * @param criteria
+	 *            conditions of the row
+	 * @return row number starting from 1 or <code>null</code> if not found
+	 * @throws IllegalArgumentException
+	 *             if a column of the criteria was not found or is not in the
+	 *             projection
+	 */
+	public Integer findRow(RowCriteria criteria) {
+		for (int i = 0; i < cellCounts.length; i++) {
+			if (criteria.isFulfilled(headers, unproject(getCells(i)))) {
+				return firstRowNumber + i;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Places the cells of a projected row to their column positions.
+	 */
+	private List<String> unproject(List<String> cells) {
+		if (columns.length == 0) {
+			return cells;
+		}
+		int width = headers.size();
+		for (int column : columns) {
+			width = Math.max(width, column);
+		}
+		List<String> allCells = new ArrayList<String>(Collections.<String> nCopies(width, null));
+		for (int i = 0; i < columns.length; i++) {
+			if (columns[i] > 0) {
+				allCells.set(columns[i] - 1, cells.get(i));
+			}
+		}
+		return allCells;
+	}
+
+	/**
+	 * Finds a column based on a header cell text.
+	 *
+	 * @param headerCellText
+	 *            text contained in the header cell
+	 * @return column number starting from 1 or <code>null</code> if not found
+	 */
+	public Integer findColumn(String headerCellText) {
+		Integer column = headerIndex.get(headerCellText);
+		if (column != null) {
+			return column;
+		}
+		column = headerLookups.get(headerCellText);
+		if (column == null) {
+			column = 0;
+			for (int i = 0; i < headers.size(); i++) {
+				if (headers.get(i).contains(headerCellText)) {
+					column = i + 1;
+					break;
+				}
+			}
+			headerLookups.putIfAbsent(headerCellText, column);
+		}
+		return column == 0 ? null : column;
+	}
+
+	/**
+	 * @return true if the snapshot knows which rows are selected
+	 */
+	public boolean isSelectionKnown() {
+		return selected != null;
+	}
+
+	/**
+	 * Returns whether the row is selected.
+	 *
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return whether the row is selected or not
+	 * @throws UnsupportedOperationException
+	 *             if the snapshot was read without the selected row attribute
+	 */
+	public boolean isRowSelected(int rowNumber) {
+		if (selected == null) {
+			throw new UnsupportedOperationException("The snapshot was read without the selected row attribute.");
+		}
+		return selected[rowIndex(rowNumber)];
+	}
+
+	private int rowIndex(int rowNumber) {
+		if (!containsRow(rowNumber)) {
+			throw new IndexOutOfBoundsException("Row " + rowNumber + " is not in the snapshot of rows "
+					+ firstRowNumber + " - " + (firstRowNumber + cellCounts.length - 1));
+		}
+		return rowNumber - firstRowNumber;
+	}
+
+	/**
+	 * @param rowIndex
+	 *            index of the row in the snapshot starting from 0
+	 * @return number of cells of the row
+	 */
+	int getCellCount(int rowIndex) {
+		return cellCounts[rowIndex];
+	}
+
+	/**
+	 * @param rowIndex
+	 *            index of the row in the snapshot starting from 0
+	 * @param cellIndex
+	 *            index of the cell starting from 0, lower than the number of
+	 *            cells of the row
+	 * @return cell text
+	 */
+	String getCell(int rowIndex, int cellIndex) {
+		return cellColumns[cellIndex].get(rowIndex);
+	}
+
+	/**
+	 * @param cellNumber
+	 *            number of the cell starting from 1
+	 * @return distinct texts of the column, the array must not be modified
+	 */
+	String[] getDictionary(int cellNumber) {
+		return cellNumber >= 1 && cellNumber <= cellColumns.length ? cellColumns[cellNumber - 1].dictionary
+				: new String[] { null };
+	}
+
+	/**
+	 * @param rowIndex
+	 *            index of the row in the snapshot starting from 0
+	 * @param cellNumber
+	 *            number of the cell starting from 1
+	 * @return index of the cell text in {@link #getDictionary(int)}
+	 */
+	int getCode(int rowIndex, int cellNumber) {
+		return cellNumber >= 1 && cellNumber <= cellColumns.length ? cellColumns[cellNumber - 1].code(rowIndex) : 0;
+	}
+
+	/**
+	 * @param rowIndex
+	 *            index of the row in the snapshot starting from 0
+	 * @return view of the cell texts of the row
+	 */
+	List<String> getCells(final int rowIndex) {
+		return new AbstractList<String>() {
+			@Override
+			public String get(int index) {
+				if (index < 0 || index >= cellCounts[rowIndex]) {
+					throw new IndexOutOfBoundsException("Cell index " + index + ", cells " + cellCounts[rowIndex]);
+				}
+				return getCell(rowIndex, index);
+			}
+
+			@Override
+			public int size() {
+				return cellCounts[rowIndex];
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return "TableSnapshot [headers=" + headers + ", rows=" + getRows() + "]";
+	}
+
+	/**
+	 * Dictionary encoded cells of one column. Codes are stored as chars while
+	 * the column has at most 65536 distinct texts.
+	 */
+	private static final class Column {
+
+		private final String[] dictionary;
+		private final char[] charCodes;
+		private final int[] intCodes;
+
+		private Column(String[] dictionary, char[] charCodes, int[] intCodes) {
+			this.dictionary = dictionary;
+			this.charCodes = charCodes;
+			this.intCodes = intCodes;
+		}
+
+		/**
+		 * Encodes the cells of the column, rows without the cell get the code
+		 * of <code>null</code>.
+		 */
+		static Column encode(List<List<String>> rows, int cellIndex) {
+			Map<String, Integer> codes = new LinkedHashMap<String, Integer>();
+			int[] rowCodes = new int[rows.size()];
+			for (int r = 0; r < rowCodes.length; r++) {
+				List<String> row = rows.get(r);
+				String text = cellIndex < row.size() ? row.get(cellIndex) : null;
+				Integer code = codes.get(text);
+				if (code == null) {
+					code = codes.size();
+					codes.put(text, code);
+				}
+				rowCodes[r] = code;
+			}
+
+			String[] dictionary = codes.keySet().toArray(new String[codes.size()]);
+			if (dictionary.length > Character.MAX_VALUE + 1) {
+				return new Column(dictionary, null, rowCodes);
+			}
+			char[] charCodes = new char[rowCodes.length];
+			for (int r = 0; r < rowCodes.length; r++) {
+				charCodes[r] = (char) rowCodes[r];
+			}
+			return new Column(dictionary, charCodes, null);
+		}
+
+		String get(int rowIndex) {
+			return dictionary[code(rowIndex)];
+		}
+
+		int code(int rowIndex) {
+			return charCodes != null ? charCodes[rowIndex] : intCodes[rowIndex];
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+package com.pageobject.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Column of a {@link TableSnapshot} converted to values of one type and kept
+ * in an array, so sums, sorting checks and range checks don't parse
+ * the cell texts again. Every distinct text of the column is parsed once by
+ * the {@link FormattingService}, large columns in parallel if the service
+ * is a {@link DefaultFormattingService}.
+ *
+ * <p>
+ * Empty cells and rows without the cell have no value. Cells which can't be
+ * parsed have no value either and are reported by {@link #getErrors()}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public abstract class TypedColumn {
+
+	/**
+	 * Cell which could not be parsed.
+	 */
+	public static final class CellError {
+
+		private final int rowNumber;
+		private final String text;
+		private final String message;
+
+		CellError(int rowNumber, String text, String message) {
+			this.rowNumber = rowNumber;
+			this.text = text;
+			this.message = message;
+		}
+
+		/**
+		 * @return number of the row starting from 1
+		 */
+		public int getRowNumber() {
+			return rowNumber;
+		}
+
+		/**
+		 * @return cell text
+		 */
+		public String getText() {
+			return text;
+		}
+
+		/**
+		 * @return reason of the failure
+		 */
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return "row " + rowNumber + " '" + text + "': " + message;
+		}
+	}
+
+	private final int firstRowNumber;
+	private final boolean[] present;
+	private final List<CellError> errors = new ArrayList<CellError>();
+
+	TypedColumn(int firstRowNumber, int rowCount) {
+		this.firstRowNumber = firstRowNumber;
+		this.present = new boolean[rowCount];
+	}
+
+	/**
+	 * Parses the distinct texts of the snapshot column and stores the value
+	 * of every row.
+	 */
+	final void load(TableSnapshot snapshot, int cellNumber, FormattingService formattingService,
+			ColumnParser.Parser parser) {
+		String[] dictionary = snapshot.getDictionary(cellNumber);
+		String[] messages = new String[dictionary.length];
+		Object[] values = ColumnParser.parse(dictionary, parser, ColumnParser.isThreadSafe(formattingService),
+				messages);
+		for (int i = 0; i < present.length; i++) {
+			int code = snapshot.getCode(i, cellNumber);
+			if (values[code] != null) {
+				set(i, values[code]);
+				present[i] = true;
+			} else if (messages[code] != null) {
+				errors.add(new CellError(firstRowNumber + i, dictionary[code], messages[code]));
+			}
+		}
+	}
+
+	/**
+	 * Stores the parsed value of the row.
+	 *
+	 * @param index
+	 *            index of the row starting from 0
+	 * @param value
+	 *            value returned by the parser
+	 */
+	abstract void set(int index, Object value);
+
+	/**
+	 * Compares values of two rows with values.
+	 */
+	abstract int compare(int index1, int index2);
+
+	/**
+	 * @return number of the first row starting from 1
+	 */
+	public int getFirstRowNumber() {
+		return firstRowNumber;
+	}
+
+	/**
+	 * @return number of rows including rows without a value
+	 */
+	public int getRowCount() {
+		return present.length;
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return true if the cell has a value
+	 */
+	public boolean hasValue(int rowNumber) {
+		return present[index(rowNumber)];
+	}
+
+	/**
+	 * @return number of cells with a value
+	 */
+	public int getValueCount() {
+		int count = 0;
+		for (boolean value : present) {
+			if (value) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return cells which could not be parsed in the order of the rows
+	 */
+	public List<CellError> getErrors() {
+		return Collections.unmodifiableList(errors);
+	}
+
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+
+	/**
+	 * Checks the order of the values, cells without a value are skipped.
+	 *
+	 * @param ascending
+	 *            true for ascending order, false for descending
+	 * @return true if the values are sorted, equal values are allowed
+	 */
+	public boolean isSorted(boolean ascending) {
+		int previous = -1;
+		for (int i = 0; i < present.length; i++) {
+			if (!present[i]) {
+				continue;
+			}
+			if (previous >= 0) {
+				int comparison = compare(previous, i);
+				if (ascending ? comparison > 0 : comparison < 0) {
+					return false;
+				}
+			}
+			previous = i;
+		}
+		return true;
+	}
+
+	/**
+	 * @return row numbers of the cells with a value fulfilling the condition
+	 */
+	List<Integer> rowsWhere(Condition condition) {
+		List<Integer> rows = new ArrayList<Integer>();
+		for (int i = 0; i < present.length; i++) {
+			if (present[i] && condition.matches(i)) {
+				rows.add(firstRowNumber + i);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Condition on the value of a row.
+	 */
+	interface Condition {
+
+		boolean matches(int index);
+	}
+
+	/**
+	 * @param rowNumber
+	 *            row number starting from 1
+	 * @return index of the row in the arrays
+	 * @throws IndexOutOfBoundsException
+	 *             if the column does not contain the row
+	 */
+	final int index(int rowNumber) {
+		int index = rowNumber - firstRowNumber;
+		if (index < 0 || index >= present.length) {
+			throw new IndexOutOfBoundsException("Row " + rowNumber + " is not in the column of rows "
+					+ firstRowNumber + " - " + (firstRowNumber + present.length - 1));
+		}
+		return index;
+	}
+
+	final boolean isPresent(int index) {
+		return present[index];
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " [rows=" + present.length + ", values=" + getValueCount() + ", errors="
+				+ errors.size() + "]";
+	}
+
+}
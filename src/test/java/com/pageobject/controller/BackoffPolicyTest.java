@@ -0,0 +1,69 @@
+package com.pageobject.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests of the delays of {@link BackoffPolicy}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class BackoffPolicyTest {
+
+	@Test
+	public void defaultPolicyGrowsAfterFastProbes() {
+		BackoffPolicy policy = new BackoffPolicy();
+		long[] expected = { 25, 25, 25, 50, 100, 200, 400, 500, 500 };
+		for (int attempt = 1; attempt <= expected.length; attempt++) {
+			assertEquals("attempt " + attempt, expected[attempt - 1], policy.getDelay(attempt));
+		}
+	}
+
+	@Test
+	public void growsFromFirstCheckWithoutFastProbes() {
+		BackoffPolicy policy = new BackoffPolicy(10, 0, 3.0, 1000);
+
+		assertEquals(10, policy.getDelay(1));
+		assertEquals(30, policy.getDelay(2));
+		assertEquals(90, policy.getDelay(3));
+		assertEquals(1000, policy.getDelay(6));
+	}
+
+	@Test
+	public void constantPolicyKeepsDelay() {
+		BackoffPolicy policy = new BackoffPolicy(100, 1, 1.0, 100);
+
+		assertEquals(100, policy.getDelay(1));
+		assertEquals(100, policy.getDelay(50));
+	}
+
+	@Test
+	public void manyAttemptsStayAtMaximum() {
+		BackoffPolicy policy = new BackoffPolicy();
+
+		assertEquals(BackoffPolicy.DEFAULT_MAX_DELAY, policy.getDelay(Integer.MAX_VALUE));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsZeroDelay() {
+		new BackoffPolicy(0, 3, 2.0, 500);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMaximumBelowInitialDelay() {
+		new BackoffPolicy(100, 3, 2.0, 50);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeFastProbes() {
+		new BackoffPolicy(25, -1, 2.0, 500);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsShrinkingDelay() {
+		new BackoffPolicy(25, 3, 0.5, 500);
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.pageobject.controller;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openqa.selenium.InvalidSelectorException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Tests of {@link CssSelector} on a small document.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class CssSelectorTest {
+
+	private static final String HTML = "<html><body>"
+			+ "<div id='main' class='content wide'>"
+			+ "<form name='login'>"
+			+ "<input id='user' type='text' name='user-name'/>"
+			+ "<input id='password' type='password' name='user-password'/>"
+			+ "<input id='remember' type='checkbox' checked='checked'/>"
+			+ "<input id='submit' type='submit' disabled='disabled'/>"
+			+ "</form>"
+			+ "<p id='first' lang='en-US'>one</p>"
+			+ "<p id='second' class='note'>two</p>"
+			+ "<span id='third'>three</span>"
+			+ "</div>"
+			+ "<p id='outside'>four</p>"
+			+ "</body></html>";
+
+	private Document document;
+
+	@Before
+	public void parseDocument() throws Exception {
+		document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(HTML.getBytes("UTF-8")));
+	}
+
+	/**
+	 * @return ids of the elements matching the selector in document order
+	 */
+	private String select(String selector) {
+		CssSelector css = CssSelector.parse(selector);
+		List<String> ids = new ArrayList<String>();
+		NodeList elements = document.getElementsByTagName("*");
+		for (int i = 0; i < elements.getLength(); i++) {
+			Element element = (Element) elements.item(i);
+			if (css.matches(element) && element.hasAttribute("id")) {
+				ids.add(element.getAttribute("id"));
+			}
+		}
+		return ids.toString();
+	}
+
+	@Test
+	public void matchesTypeIdAndClass() {
+		assertEquals("[first, second, outside]", select("p"));
+		assertEquals("[first, second, outside]", select("P"));
+		assertEquals("[user]", select("#user"));
+		assertEquals("[main]", select(".wide"));
+		assertEquals("[main]", select("div.content.wide"));
+		assertEquals("[second]", select("p.note"));
+		assertEquals("[]", select("span.note"));
+	}
+
+	@Test
+	public void matchesAttributes() {
+		assertEquals("[user, password]", select("input[name]"));
+		assertEquals("[password]", select("input[type=password]"));
+		assertEquals("[password]", select("input[type='password']"));
+		assertEquals("[user, password]", select("[name^=user]"));
+		assertEquals("[password]", select("[name$=\"password\"]"));
+		assertEquals("[user]", select("[name*=er-na]"));
+		assertEquals("[main]", select("[class~=content]"));
+		assertEquals("[]", select("[class~=cont]"));
+		assertEquals("[first]", select("[lang|=en]"));
+	}
+
+	@Test
+	public void matchesPseudoClasses() {
+		assertEquals("[remember]", select("input:checked"));
+		assertEquals("[submit]", select("input:disabled"));
+		assertEquals("[user, password, remember]", select("input:enabled"));
+		assertEquals("[user]", select("input:first-child"));
+		assertEquals("[submit]", select("input:last-child"));
+		assertEquals("[password]", select("input:nth-child(2)"));
+	}
+
+	@Test
+	public void followsCombinators() {
+		assertEquals("[first, second]", select("div p"));
+		assertEquals("[first, second]", select("#main > p"));
+		assertEquals("[user]", select("body > div form > input#user"));
+		assertEquals("[second]", select("#first + p"));
+		assertEquals("[second, third]", select("#first ~ *"));
+		assertEquals("[]", select("#second + p"));
+	}
+
+	@Test
+	public void matchesSelectorGroups() {
+		assertEquals("[user, third, outside]", select("#user, span, body > p"));
+	}
+
+	@Test(expected = InvalidSelectorException.class)
+	public void rejectsUnsupportedPseudoClass() {
+		CssSelector.parse("p:hover");
+	}
+
+	@Test(expected = InvalidSelectorException.class)
+	public void rejectsNthChildFormula() {
+		CssSelector.parse("p:nth-child(2n+1)");
+	}
+
+	@Test(expected = InvalidSelectorException.class)
+	public void rejectsEmptyGroup() {
+		CssSelector.parse("p,");
+	}
+
+	@Test(expected = InvalidSelectorException.class)
+	public void rejectsUnterminatedAttribute() {
+		CssSelector.parse("input[type=text");
+	}
+
+	@Test(expected = InvalidSelectorException.class)
+	public void rejectsDanglingCombinator() {
+		CssSelector.parse("> p");
+	}
+
+}
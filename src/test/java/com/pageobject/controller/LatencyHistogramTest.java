@@ -0,0 +1,112 @@
+package com.pageobject.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests of the buckets and percentiles of {@link LatencyHistogram}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void smallValuesHaveOwnBuckets() {
+		for (long value = 0; value < 32; value++) {
+			assertEquals(value, LatencyHistogram.bucket(value));
+			assertEquals(value, LatencyHistogram.highestValue((int) value));
+		}
+	}
+
+	@Test
+	public void bucketsAreContiguous() {
+		for (int bucket = 1; bucket <= LatencyHistogram.bucket(Long.MAX_VALUE); bucket++) {
+			long lowest = LatencyHistogram.highestValue(bucket - 1) + 1;
+			long highest = LatencyHistogram.highestValue(bucket);
+			assertTrue("bucket " + bucket, lowest <= highest);
+			assertEquals(bucket, LatencyHistogram.bucket(lowest));
+			assertEquals(bucket, LatencyHistogram.bucket(highest));
+		}
+		assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.bucket(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void bucketsArePreciseToSixteenth() {
+		long[] values = { 33, 100, 1000, 12345, 999999, 1234567890L, 1L << 40, (1L << 50) + 12345 };
+		for (long value : values) {
+			long highest = LatencyHistogram.highestValue(LatencyHistogram.bucket(value));
+			assertTrue("value " + value, highest >= value);
+			assertTrue("value " + value, highest - value <= value / 16);
+		}
+	}
+
+	@Test
+	public void computesPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000000L);
+		}
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050000000L, histogram.getTotalNanos());
+		assertEquals(50500000.0, histogram.getMeanNanos(), 0.001);
+		assertEquals(100000000L, histogram.getMaxNanos());
+		assertNear(50000000L, histogram.getPercentileNanos(50));
+		assertNear(95000000L, histogram.getPercentileNanos(95));
+		assertNear(1000000L, histogram.getPercentileNanos(0));
+		assertEquals(100000000L, histogram.getPercentileNanos(100));
+	}
+
+	@Test
+	public void emptyHistogramReturnsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(0, histogram.getPercentileNanos(99));
+		assertEquals(0.0, histogram.getMeanNanos(), 0.0);
+	}
+
+	@Test
+	public void recordsNegativeLatencyAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+
+		assertEquals(1, histogram.getCount());
+		assertEquals(0, histogram.getTotalNanos());
+		assertEquals(0, histogram.getPercentileNanos(100));
+	}
+
+	@Test
+	public void addsAndResets() {
+		LatencyHistogram first = new LatencyHistogram();
+		first.record(10);
+		LatencyHistogram second = new LatencyHistogram();
+		second.record(1000);
+		second.record(3000);
+
+		first.add(second);
+
+		assertEquals(3, first.getCount());
+		assertEquals(4010, first.getTotalNanos());
+		assertEquals(3000, first.getMaxNanos());
+		assertNear(1000, first.getPercentileNanos(50));
+
+		first.reset();
+		assertEquals(0, first.getCount());
+		assertEquals(0, first.getMaxNanos());
+		assertEquals(0, first.getPercentileNanos(50));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsPercentileOutOfRange() {
+		new LatencyHistogram().getPercentileNanos(101);
+	}
+
+	private static void assertNear(long expected, long actual) {
+		assertTrue("expected about " + expected + ", got " + actual, actual >= expected
+				&& actual - expected <= expected / 16);
+	}
+
+}
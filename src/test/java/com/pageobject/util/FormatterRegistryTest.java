@@ -0,0 +1,120 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests of {@link FormatterRegistry} and the parsing of
+ * {@link DefaultFormattingService}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class FormatterRegistryTest {
+
+	private final DefaultFormattingService formattingService = new DefaultFormattingService();
+
+	@After
+	public void clearFormats() {
+		FormatterRegistry.clear();
+	}
+
+	@Test
+	public void cachesFormatsPerKey() {
+		SimpleDateFormat dateFormat = FormatterRegistry.getDateFormat("dd.MM.yyyy", Locale.ENGLISH);
+
+		assertSame(dateFormat, FormatterRegistry.getDateFormat("dd.MM.yyyy", Locale.ENGLISH));
+		assertNotSame(dateFormat, FormatterRegistry.getDateFormat("dd.MM.yyyy", Locale.GERMAN));
+		assertNotSame(dateFormat, FormatterRegistry.getDateFormat("d.M.yyyy", Locale.ENGLISH));
+
+		DecimalFormat numberFormat = FormatterRegistry.getNumberFormat(".00", Locale.ENGLISH, ',');
+		assertSame(numberFormat, FormatterRegistry.getNumberFormat(".00", Locale.ENGLISH, ','));
+		assertNotSame(numberFormat, FormatterRegistry.getNumberFormat(".00", Locale.ENGLISH, '.'));
+	}
+
+	@Test
+	public void keepsFormatsPerThread() throws InterruptedException {
+		final SimpleDateFormat format = FormatterRegistry.getDateFormat("dd.MM.yyyy", Locale.ENGLISH);
+		final AtomicReference<SimpleDateFormat> other = new AtomicReference<SimpleDateFormat>();
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				other.set(FormatterRegistry.getDateFormat("dd.MM.yyyy", Locale.ENGLISH));
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertNotSame(format, other.get());
+	}
+
+	@Test
+	public void dropsLeastRecentlyUsedFormats() {
+		SimpleDateFormat first = FormatterRegistry.getDateFormat("'p0'", Locale.ENGLISH);
+		for (int i = 1; i <= FormatterRegistry.MAX_FORMATS_PER_THREAD; i++) {
+			FormatterRegistry.getDateFormat("'p" + i + "'", Locale.ENGLISH);
+		}
+
+		assertNotSame(first, FormatterRegistry.getDateFormat("'p0'", Locale.ENGLISH));
+	}
+
+	@Test
+	public void numberFormatParsesBigDecimals() throws Exception {
+		DecimalFormat format = FormatterRegistry.getNumberFormat(".00", Locale.ENGLISH, ',');
+
+		assertEquals(new BigDecimal("0.1"), format.parse("0,1"));
+	}
+
+	@Test
+	public void parsesNumbers() {
+		assertEquals(new BigDecimal("1234.5"), formattingService.parseNumber("1 234,5"));
+		assertEquals(new BigDecimal("1234567.89"), formattingService.parseNumber("1 234 567,89"));
+		assertEquals(new BigDecimal("-3"), formattingService.parseNumber("-3"));
+		assertTrue(formattingService.parseNumber("7") instanceof BigDecimal);
+		assertNull(formattingService.parseNumber(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTextAfterNumber() {
+		formattingService.parseNumber("12,5 CZK");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsText() {
+		formattingService.parseNumber("abc");
+	}
+
+	@Test
+	public void formatsAndParsesNumbers() {
+		assertEquals("1234,50", formattingService.formatNumber(new BigDecimal("1234.5")));
+		assertEquals(new BigDecimal("1234.50"), formattingService.parseNumber(formattingService.formatNumber(1234.5)));
+	}
+
+	@Test
+	public void formatsAndParsesDates() {
+		GregorianCalendar calendar = new GregorianCalendar(2013, Calendar.SEPTEMBER, 19);
+
+		assertEquals("19.09.2013", formattingService.formatDate(calendar.getTime()));
+		assertEquals(calendar.getTime(), formattingService.parseDate("19.09.2013"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInvalidDate() {
+		formattingService.parseDate("September");
+	}
+
+}
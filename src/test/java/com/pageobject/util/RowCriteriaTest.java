@@ -0,0 +1,99 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link RowCriteria} evaluated in Java.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class RowCriteriaTest {
+
+	private static final List<String> HEADERS = Arrays.asList("Code", "Item name", "Price");
+
+	@Test
+	public void joinsCellsLikeScript() {
+		assertEquals("a b c", RowCriteria.join(Arrays.asList("a", "b", "c")));
+		assertEquals(" b ", RowCriteria.join(Arrays.asList("", "b", "")));
+		assertEquals("  c", RowCriteria.join(Arrays.asList(null, "", "c")));
+		assertEquals("", RowCriteria.join(Collections.<String> emptyList()));
+	}
+
+	@Test
+	public void matchesRowText() {
+		List<String> cells = Arrays.asList("", "Apple", "10,50");
+
+		assertTrue(RowCriteria.containing("Apple", "10,50").isFulfilled(HEADERS, cells));
+		assertTrue(RowCriteria.containing("Apple 10").isFulfilled(HEADERS, cells));
+		assertTrue(new RowCriteria().matches("^ Apple").isFulfilled(HEADERS, cells));
+		assertFalse(RowCriteria.containing("Apple", "Pear").isFulfilled(HEADERS, cells));
+		assertTrue(new RowCriteria().isFulfilled(HEADERS, cells));
+	}
+
+	@Test
+	public void matchesColumnText() {
+		List<String> cells = Arrays.asList("B-2", "Blueberry", "7,00");
+
+		assertTrue(new RowCriteria().column("Item", "Blue").isFulfilled(HEADERS, cells));
+		assertFalse(new RowCriteria().column("Code", "Blue").isFulfilled(HEADERS, cells));
+		assertTrue(new RowCriteria().columnMatches("Price", "^\\d+,00$").isFulfilled(HEADERS, cells));
+		assertTrue(new RowCriteria().column("Code", "B").contains("7,00").isFulfilled(HEADERS, cells));
+	}
+
+	@Test
+	public void missingCellDoesNotMatch() {
+		List<String> cells = Arrays.asList("B-2");
+
+		assertFalse(new RowCriteria().column("Price", "").isFulfilled(HEADERS, cells));
+		assertFalse(new RowCriteria().columnMatches("Price", ".*").isFulfilled(HEADERS, cells));
+	}
+
+	@Test
+	public void evaluatesRowTextOfBrowser() {
+		assertTrue(RowCriteria.containing("Apple").isFulfilled("A-1\tApple\t10,50"));
+		assertFalse(RowCriteria.containing("Pear").isFulfilled("A-1\tApple\t10,50"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rowTextCanNotFulfillColumnConditions() {
+		new RowCriteria().column("Code", "A").isFulfilled("A-1 Apple");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownColumn() {
+		new RowCriteria().column("Country", "CZ").isFulfilled(HEADERS, Arrays.asList("a", "b", "c"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyColumnHeader() {
+		new RowCriteria().column("", "a");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNullValue() {
+		RowCriteria.containing((String) null);
+	}
+
+	@Test
+	public void keepsConditionsInOrder() {
+		RowCriteria criteria = new RowCriteria().contains("a").columnMatches("Code", "b");
+
+		assertEquals(2, criteria.getConditions().size());
+		assertEquals(RowCriteria.Type.CONTAINS, criteria.getConditions().get(0).getType());
+		assertEquals(null, criteria.getConditions().get(0).getColumnHeader());
+		assertEquals(RowCriteria.Type.MATCHES, criteria.getConditions().get(1).getType());
+		assertEquals("Code", criteria.getConditions().get(1).getColumnHeader());
+		assertTrue(criteria.hasColumnConditions());
+		assertFalse(RowCriteria.containing("a").hasColumnConditions());
+	}
+
+}
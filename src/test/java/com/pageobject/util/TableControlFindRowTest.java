@@ -0,0 +1,105 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.pageobject.controller.HtmlUnitBrowserController;
+
+/**
+ * Checks that {@link TableControl#findRow(RowCriteria)} finds the same rows
+ * by the script in the browser as by {@link RowCriteria} in Java on a
+ * cached {@link TableSnapshot}, on the fixture
+ * <code>fixtures/findrow.html</code>.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableControlFindRowTest {
+
+	private static HtmlUnitBrowserController browser;
+
+	private TableControl table;
+
+	@BeforeClass
+	public static void startBrowser() {
+		browser = new HtmlUnitBrowserController();
+		browser.afterPropertiesSet();
+		browser.setImplicitTimeout(0);
+	}
+
+	@AfterClass
+	public static void stopBrowser() {
+		browser.destroy();
+	}
+
+	@Before
+	public void setUp() {
+		browser.open(TableControlFindRowTest.class.getResource("/fixtures/findrow.html").toString());
+		table = new TableControl();
+		table.setBrowserController(browser);
+		table.setTableLocator("//table[@id='items']");
+		// no page is cached, so every search runs in the browser
+		table.setCachePages(0);
+	}
+
+	@Test
+	public void findsSameRowsInBrowserAndJava() {
+		List<RowCriteria> criteria = new ArrayList<RowCriteria>();
+		criteria.add(RowCriteria.containing("Apple"));
+		criteria.add(RowCriteria.containing("Apple", "9,90"));
+		criteria.add(RowCriteria.containing("Apple 10,50"));
+		criteria.add(RowCriteria.containing("10,50 "));
+		criteria.add(RowCriteria.containing("Date  last"));
+		criteria.add(RowCriteria.containing("Cherry red"));
+		criteria.add(RowCriteria.containing("new crop"));
+		criteria.add(RowCriteria.containing("Berry"));
+		criteria.add(new RowCriteria().matches("^ Apple"));
+		criteria.add(new RowCriteria().matches("^B-2 Blue"));
+		criteria.add(new RowCriteria().matches("\\d+,\\d{2} fresh$"));
+		criteria.add(new RowCriteria().column("Item name", "Cherry red"));
+		criteria.add(new RowCriteria().column("Item", "Apple").column("Note", "apple"));
+		criteria.add(new RowCriteria().column("Code", "B-2").contains("Blue"));
+		criteria.add(new RowCriteria().columnMatches("Price", "^$"));
+		criteria.add(new RowCriteria().columnMatches("Code", "^$"));
+		criteria.add(new RowCriteria().column("Note", "crop").column("Price", "7,00"));
+
+		TableSnapshot snapshot = table.getSnapshot();
+		for (RowCriteria condition : criteria) {
+			assertEquals(condition.toString(), snapshot.findRow(condition), table.findRow(condition));
+		}
+	}
+
+	@Test
+	public void findsExpectedRows() {
+		assertEquals(Integer.valueOf(1), table.findRow(new RowCriteria().matches("^ Apple")));
+		assertEquals(Integer.valueOf(5), table.findRow(RowCriteria.containing("Apple", "9,90")));
+		assertEquals(Integer.valueOf(4), table.findRow(new RowCriteria().columnMatches("Price", "^$")));
+		assertEquals(null, table.findRow(RowCriteria.containing("Berry")));
+	}
+
+	@Test
+	public void rejectsUnknownColumnInBrowserAndJava() {
+		RowCriteria criteria = new RowCriteria().column("Country", "CZ");
+		try {
+			table.findRow(criteria);
+			fail("Column must not be found by the browser.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			table.getSnapshot().findRow(criteria);
+			fail("Column must not be found in Java.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pageobject.controller.HtmlFixtureBrowserController;
+
+/**
+ * Pagination and caching of {@link TableControl} on the fixture pages
+ * <code>fixtures/table/page1.html</code> - <code>page3.html</code> with rows
+ * 1 - 3, 4 - 6 and 7 - 8. The fixture browser has no javascript, so the
+ * table is read cell by cell.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableControlTest {
+
+	private static final String BASE_URL = "http://localhost/table/";
+
+	private CountingBrowserController browser;
+	private TableControl table;
+
+	@Before
+	public void setUp() {
+		browser = new CountingBrowserController();
+		browser.setFixtureBase("classpath:fixtures");
+		table = new TableControl();
+		table.setBrowserController(browser);
+		table.setTableLocator("//table[@id='people']");
+	}
+
+	@Test
+	public void readsAllPages() {
+		browser.open(BASE_URL + "page1.html");
+
+		assertEquals(8, table.getRowCount());
+		List<TableRow> rows = table.getAllRows();
+		assertEquals(8, rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			assertEquals(String.valueOf(i + 1), rows.get(i).getCell(1));
+		}
+	}
+
+	@Test
+	public void rewindsTableLeftOnAnotherPage() {
+		browser.open(BASE_URL + "page3.html");
+
+		assertEquals(8, table.getRowCount());
+		assertEquals(Integer.valueOf(1), table.findRow("Name 1"));
+		assertEquals(BASE_URL + "page1.html", browser.getCurrentUrl());
+	}
+
+	@Test
+	public void findsRowOnLaterPage() {
+		browser.open(BASE_URL + "page1.html");
+
+		assertEquals(Integer.valueOf(2), table.findRow("Name 5"));
+		assertEquals(BASE_URL + "page2.html", browser.getCurrentUrl());
+		assertEquals("Ostrava", table.getRow(RowCriteria.containing("Name 5")).getCell(3));
+		assertNull(table.findRow("Name 9"));
+	}
+
+	@Test
+	public void reusesCachedRowCounts() {
+		browser.open(BASE_URL + "page1.html");
+		table.getRowCount();
+		int clicks = browser.clicks;
+		int counts = browser.elementCounts;
+
+		assertEquals(8, table.getRowCount());
+		assertEquals(clicks, browser.clicks);
+		assertEquals("displayed page checked once", counts + 1, browser.elementCounts);
+	}
+
+	@Test
+	public void discardsCacheWhenBrowserNavigates() {
+		browser.open(BASE_URL + "page1.html");
+		assertEquals(8, table.getRowCount());
+		long generation = table.getCacheGeneration();
+
+		browser.open(BASE_URL + "page2.html");
+
+		assertTrue(table.getCacheGeneration() != generation);
+		assertEquals(8, table.getRowCount());
+	}
+
+	@Test
+	public void rewindsAfterInvalidation() {
+		browser.open(BASE_URL + "page1.html");
+		table.getAllRows();
+		assertEquals(BASE_URL + "page3.html", browser.getCurrentUrl());
+
+		table.invalidateCache();
+
+		assertEquals(Integer.valueOf(2), table.findRow("Name 2"));
+		assertEquals(BASE_URL + "page1.html", browser.getCurrentUrl());
+	}
+
+	@Test
+	public void turnsPagesBackwards() {
+		browser.open(BASE_URL + "page1.html");
+		table.gotoPage(3);
+		table.gotoPage(2);
+
+		assertEquals(BASE_URL + "page2.html", browser.getCurrentUrl());
+		assertEquals("4", table.getRow(1).getCell(1));
+	}
+
+	@Test
+	public void indexesAllPages() {
+		browser.open(BASE_URL + "page1.html");
+
+		TableIndex index = table.getIndex("Id");
+
+		assertEquals(8, index.size());
+		TableIndex.Entry entry = index.get("5");
+		assertEquals(2, entry.getPageNumber());
+		assertEquals(2, entry.getRowNumber());
+		assertEquals("Name 5", entry.getRow().getCell(2));
+		assertEquals(table.getCacheGeneration(), index.getGeneration());
+		assertSame(index, table.getIndex("Id"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsIndexOfUnknownColumn() {
+		browser.open(BASE_URL + "page1.html");
+		table.getIndex("Country");
+	}
+
+	/**
+	 * Counts the page turns and row counts of the table.
+	 */
+	private static class CountingBrowserController extends HtmlFixtureBrowserController {
+
+		int clicks;
+		int elementCounts;
+
+		@Override
+		public void click(String locator) {
+			clicks++;
+			super.click(locator);
+		}
+
+		@Override
+		public int getElementCount(String locator) {
+			elementCounts++;
+			return super.getElementCount(locator);
+		}
+	}
+
+}
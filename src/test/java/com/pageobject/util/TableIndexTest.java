@@ -0,0 +1,91 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link TableIndex} lookups.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableIndexTest {
+
+	private static TableIndex index(TableIndex.Matching matching) {
+		TableIndex index = new TableIndex(matching, Arrays.asList("First", "Last"), new int[] { 1, 2 }, 7);
+		index.add(1, 1, row("Jan", "Novak", "jan@example.com"));
+		index.add(1, 2, row("Petr", "Svoboda", "petr@example.com"));
+		index.add(2, 1, row("Jan", "Novak", "jan2@example.com"));
+		index.add(2, 2, row(" Eva  Marie ", "Dvorak", "eva@example.com"));
+		index.add(3, 1, row("Short"));
+		return index;
+	}
+
+	private static TableRow row(String... cells) {
+		TableRow row = new TableRow();
+		for (int i = 0; i < cells.length; i++) {
+			row.addCell(i + 1, cells[i]);
+		}
+		return row;
+	}
+
+	@Test
+	public void findsFirstRowWithKey() {
+		TableIndex index = index(TableIndex.Matching.EXACT);
+
+		TableIndex.Entry entry = index.get("Jan", "Novak");
+		assertEquals(1, entry.getPageNumber());
+		assertEquals(1, entry.getRowNumber());
+		assertEquals("jan@example.com", entry.getRow().getCell(3));
+		assertEquals(2, index.getAll("Jan", "Novak").size());
+		assertEquals(2, index.getAll("Jan", "Novak").get(1).getPageNumber());
+		assertNull(index.get("Jan", "Svoboda"));
+	}
+
+	@Test
+	public void countsRowsAndKeys() {
+		TableIndex index = index(TableIndex.Matching.EXACT);
+
+		assertEquals(5, index.size());
+		assertEquals(4, index.getKeyCount());
+		assertEquals(7, index.getGeneration());
+		assertEquals(Arrays.asList("First", "Last"), index.getKeyHeaders());
+	}
+
+	@Test
+	public void exactMatchingComparesWholeText() {
+		TableIndex index = index(TableIndex.Matching.EXACT);
+
+		assertFalse(index.contains("jan", "novak"));
+		assertFalse(index.contains("Eva Marie", "Dvorak"));
+		assertTrue(index.contains(" Eva  Marie ", "Dvorak"));
+	}
+
+	@Test
+	public void normalizedMatchingIgnoresCaseAndWhitespace() {
+		TableIndex index = index(TableIndex.Matching.NORMALIZED);
+
+		assertTrue(index.contains("jan", "NOVAK"));
+		assertTrue(index.contains("eva marie", "dvorak"));
+		assertTrue(index.contains("Eva\tMarie", " Dvorak"));
+	}
+
+	@Test
+	public void rowsWithoutKeyCellHaveNullKey() {
+		TableIndex index = index(TableIndex.Matching.EXACT);
+
+		assertEquals(3, index.get("Short", null).getPageNumber());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsWrongNumberOfValues() {
+		index(TableIndex.Matching.EXACT).get("Jan");
+	}
+
+}
@@ -0,0 +1,111 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link TableSnapshot}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TableSnapshotTest {
+
+	private static final List<String> HEADERS = Arrays.asList("Id", "Name", "City name", "City");
+
+	private static TableSnapshot snapshot() {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		rows.add(Arrays.asList("1", "Alice", "Prague", "P"));
+		rows.add(Arrays.asList("2", "Bob", "Brno", "B"));
+		rows.add(Arrays.asList("3", "Carol", "Prague", "P"));
+		rows.add(Arrays.asList("4", "Dave"));
+		return new TableSnapshot(HEADERS, rows, new boolean[] { false, true, false, false }, new int[0], 6, 1);
+	}
+
+	@Test
+	public void readsRowsAndColumns() {
+		TableSnapshot snapshot = snapshot();
+
+		assertEquals(4, snapshot.getRowCount());
+		assertEquals(6, snapshot.getPageRowCount());
+		assertEquals("Carol", snapshot.getRow(3).getCell(2));
+		assertEquals(2, snapshot.getRow(4).getCellCount());
+		assertEquals(Arrays.asList("Prague", "Brno", "Prague", null), snapshot.getColumnValues(3));
+		assertEquals(Arrays.asList("Prague", "Brno", null), snapshot.getDistinctValues(3));
+		assertTrue(snapshot.isRowSelected(2));
+		assertFalse(snapshot.isRowSelected(1));
+	}
+
+	@Test
+	public void findsColumnByExactOrContainedHeader() {
+		TableSnapshot snapshot = snapshot();
+
+		assertEquals(Integer.valueOf(4), snapshot.findColumn("City"));
+		assertEquals(Integer.valueOf(3), snapshot.findColumn("City n"));
+		assertEquals(Integer.valueOf(2), snapshot.findColumn("am"));
+		assertNull(snapshot.findColumn("Country"));
+		assertEquals(Integer.valueOf(1), snapshot.getHeaderIndex().get("Id"));
+	}
+
+	@Test
+	public void findsRows() {
+		TableSnapshot snapshot = snapshot();
+
+		assertEquals(Integer.valueOf(1), snapshot.findRow("Prague"));
+		assertEquals(Integer.valueOf(3), snapshot.findRow("Prague", "Carol"));
+		assertEquals(Integer.valueOf(2), snapshot.findRow("2 Bob Brno"));
+		assertEquals(Integer.valueOf(3), snapshot.findRow(new RowCriteria().column("Name", "C")));
+		assertEquals(Integer.valueOf(4), snapshot.findRow(new RowCriteria().column("Id", "4")));
+		assertNull(snapshot.findRow(new RowCriteria().column("Id", "4").column("City", "")));
+		assertNull(snapshot.findRow("Eve"));
+	}
+
+	@Test
+	public void numbersRowsFromFirstReadRow() {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		rows.add(Arrays.asList("11", "Kate"));
+		rows.add(Arrays.asList("12", "Leo"));
+		TableSnapshot snapshot = new TableSnapshot(HEADERS, rows, null, new int[0], 20, 11);
+
+		assertFalse(snapshot.containsRow(10));
+		assertTrue(snapshot.containsRow(12));
+		assertEquals("Leo", snapshot.getRow(12).getCell(2));
+		assertEquals(Integer.valueOf(12), snapshot.findRow("Leo"));
+		assertFalse(snapshot.isSelectionKnown());
+	}
+
+	@Test
+	public void searchesProjectedColumnsAtTheirPositions() {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		rows.add(Arrays.asList("Prague", "Alice"));
+		rows.add(Arrays.asList("Brno", "Bob"));
+		TableSnapshot snapshot = new TableSnapshot(HEADERS, rows, null, new int[] { 3, 2 }, 2, 1);
+
+		assertEquals(Integer.valueOf(2), snapshot.findRow(new RowCriteria().column("Name", "Bob")));
+		assertEquals(Integer.valueOf(1), snapshot.findRow(new RowCriteria().column("City name", "Prague")));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rejectsRowOutOfSnapshot() {
+		snapshot().getRow(5);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rejectsMissingCell() {
+		snapshot().getRow(4).getCell(3);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void selectionNeedsSelectedAttribute() {
+		new TableSnapshot(HEADERS, new ArrayList<List<String>>(), null, new int[0], 0, 1).isRowSelected(1);
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.pageobject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of the typed columns of {@link TableSnapshot}, parsed by
+ * {@link DefaultFormattingService}.
+ *
+ * @author michal.nahlik
+ *
+ */
+public class TypedColumnTest {
+
+	private final FormattingService formattingService = new DefaultFormattingService();
+
+	private static TableSnapshot snapshot(String... cells) {
+		List<List<String>> rows = new ArrayList<List<String>>();
+		for (String cell : cells) {
+			rows.add(cell == null ? new ArrayList<String>() : Arrays.asList(cell));
+		}
+		return new TableSnapshot(Arrays.asList("Value"), rows, null, new int[0], rows.size(), 1);
+	}
+
+	@Test
+	public void reportsCellsWhichCanNotBeParsed() {
+		IntegerColumn column = snapshot("1", "x", "", "2,5", null, "x").getIntegerColumn(1, formattingService);
+
+		assertTrue(column.hasErrors());
+		List<TypedColumn.CellError> errors = column.getErrors();
+		assertEquals(3, errors.size());
+		assertEquals(2, errors.get(0).getRowNumber());
+		assertEquals("x", errors.get(0).getText());
+		assertTrue(errors.get(0).getMessage().contains("x"));
+		assertEquals(4, errors.get(1).getRowNumber());
+		assertEquals("2,5", errors.get(1).getText());
+		assertEquals(6, errors.get(2).getRowNumber());
+		assertEquals(1, column.getValueCount());
+		assertFalse(column.hasValue(3));
+		assertFalse(column.hasValue(5));
+	}
+
+	@Test
+	public void parsesWholeNumbers() {
+		IntegerColumn column = snapshot("3", "1 000", "", "-2").getIntegerColumn(1, formattingService);
+
+		assertFalse(column.hasErrors());
+		assertEquals(1000, column.getValue(2));
+		assertEquals(1001, column.sum());
+		assertEquals(Long.valueOf(-2), column.min());
+		assertEquals(Long.valueOf(1000), column.max());
+		assertTrue(Arrays.equals(new long[] { 3, 1000, 0, -2 }, column.getValues()));
+		assertEquals(Arrays.asList(2, 4), column.getRowsOutOfRange(0, 100));
+	}
+
+	@Test
+	public void sumsDecimalsExactly() {
+		String[] cells = new String[10];
+		Arrays.fill(cells, "0,10");
+		DecimalColumn column = snapshot(cells).getDecimalColumn(1, formattingService);
+
+		assertEquals(0, new BigDecimal("1").compareTo(column.sum()));
+		assertEquals(new BigDecimal("0.10"), column.getValue(1));
+	}
+
+	@Test
+	public void parsesDecimals() {
+		DecimalColumn column = snapshot("10,50", "", "1 234,05", "abc").getDecimalColumn(1, formattingService);
+
+		assertEquals(1, column.getErrors().size());
+		assertEquals(4, column.getErrors().get(0).getRowNumber());
+		assertEquals(new BigDecimal("1244.55"), column.sum());
+		assertEquals(new BigDecimal("10.50"), column.min());
+		assertEquals(new BigDecimal("1234.05"), column.max());
+		assertEquals(BigDecimal.ZERO, column.getValues()[1]);
+		assertEquals(Arrays.asList(3), column.getRowsOutOfRange(BigDecimal.ZERO, new BigDecimal("100")));
+		assertTrue(column.isSorted(true));
+	}
+
+	@Test
+	public void emptyColumnsHaveNoExtremes() {
+		TableSnapshot snapshot = snapshot("", " ");
+
+		assertNull(snapshot.getIntegerColumn(1, formattingService).min());
+		assertNull(snapshot.getDecimalColumn(1, formattingService).max());
+		assertNull(snapshot.getDateColumn(1, formattingService).min());
+		assertEquals(BigDecimal.ZERO, snapshot.getDecimalColumn(1, formattingService).sum());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void integerCellWithoutValueHasNoValue() {
+		snapshot("1", "").getIntegerColumn(1, formattingService).getValue(2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void decimalCellWithoutValueHasNoValue() {
+		snapshot("1", "").getDecimalColumn(1, formattingService).getValue(2);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void dateCellWithoutValueHasNoTime() {
+		snapshot("1.1.2013", "").getDateColumn(1, formattingService).getTime(2);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rejectsRowOutOfColumn() {
+		snapshot("1").getIntegerColumn(1, formattingService).hasValue(2);
+	}
+
+	@Test
+	public void parsesDates() {
+		DateColumn column = snapshot("02.01.2013", "15.03.2013", "", "x").getDateColumn(1, formattingService);
+
+		assertEquals(1, column.getErrors().size());
+		assertEquals(date(2013, Calendar.JANUARY, 2), column.min());
+		assertEquals(date(2013, Calendar.MARCH, 15), column.max());
+		assertNull(column.getDate(3));
+		assertTrue(column.isSorted(true));
+		assertFalse(column.isSorted(false));
+		assertEquals(Arrays.asList(2),
+				column.getRowsOutOfRange(date(2013, Calendar.JANUARY, 1), date(2013, Calendar.FEBRUARY, 1)));
+	}
+
+	@Test
+	public void checksOrderSkippingEmptyCells() {
+		IntegerColumn column = snapshot("5", "", "3", "3", "1").getIntegerColumn(1, formattingService);
+
+		assertTrue(column.isSorted(false));
+		assertFalse(column.isSorted(true));
+	}
+
+	@Test
+	public void parsesLargeColumnsInParallel() {
+		String[] cells = new String[ColumnParser.PARALLEL_THRESHOLD * 2];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = i == 100 ? "bad" : String.valueOf(i);
+		}
+		IntegerColumn column = snapshot(cells).getIntegerColumn(1, formattingService);
+
+		assertEquals(cells.length - 1, column.getValueCount());
+		assertEquals(1, column.getErrors().size());
+		assertEquals(101, column.getErrors().get(0).getRowNumber());
+		assertEquals(cells.length - 1, column.getValue(cells.length));
+	}
+
+	private static Date date(int year, int month, int day) {
+		return new GregorianCalendar(year, month, day).getTime();
+	}
+
+}